@@ -0,0 +1,54 @@
+package cs3500.reversi;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import cs3500.reversi.model.implem.AlphaBetaAIPlayer;
+import cs3500.reversi.model.implem.HexagonReversi;
+import cs3500.reversi.model.implem.HumanPlayer;
+import cs3500.reversi.model.implem.OpeningBookBuilder;
+import cs3500.reversi.model.implem.SquareReversi;
+import cs3500.reversi.model.interf.Player;
+import cs3500.reversi.model.interf.ReversiModel;
+
+/**
+ * Builds an opening book for one board shape and size, offline, with the moves of an
+ * AlphaBetaAIPlayer.
+ */
+public final class BuildOpeningBook {
+
+  private static final long DEFAULT_SEARCH_TIME_MILLIS = 200;
+
+  /**
+   * The main method of the book builder.
+   *
+   * @param args the board ('hexa' or 'square'), its size, the number of plies of the book, the
+   *        file to write, and optionally the time to search each position in milliseconds
+   * @throws IOException if the book cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 4 && args.length != 5) {
+      throw new IllegalArgumentException("Invalid number of argument!");
+    }
+    String board = args[0];
+    int size = Integer.parseInt(args[1]);
+    int plies = Integer.parseInt(args[2]);
+    long searchTime = args.length == 5 ? Long.parseLong(args[4]) : DEFAULT_SEARCH_TIME_MILLIS;
+
+    ReversiModel model;
+    Player teacher;
+    if (board.equals("hexa")) {
+      teacher = new AlphaBetaAIPlayer(6, 1, 1, 1, 1, searchTime);
+      model = new HexagonReversi(size, 1, Math.PI / 2, new HumanPlayer(), new HumanPlayer());
+    } else if (board.equals("square")) {
+      teacher = new AlphaBetaAIPlayer(4, 1, 1, 1, 1, searchTime);
+      model = new SquareReversi(size, 1, Math.PI / 4, new HumanPlayer(), new HumanPlayer());
+    } else {
+      throw new IllegalArgumentException(
+          "The board of the game has to be either 'hexa' or 'square', get " + board);
+    }
+
+    int positions = new OpeningBookBuilder(teacher, plies).build(model, Paths.get(args[3]));
+    System.out.println(positions + " positions written to " + args[3]);
+  }
+}
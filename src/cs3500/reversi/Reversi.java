@@ -5,6 +5,8 @@ import cs3500.reversi.controller.ReversiVisualController;
 import cs3500.reversi.model.implem.AdvancedAIPlayer;
 import cs3500.reversi.model.implem.HexagonReversi;
 import cs3500.reversi.model.implem.HumanPlayer;
+import cs3500.reversi.model.implem.LazySmpAIPlayer;
+import cs3500.reversi.model.implem.PonderingAIPlayer;
 import cs3500.reversi.model.implem.SquareReversi;
 import cs3500.reversi.model.interf.Player;
 import cs3500.reversi.model.interf.ReversiModel;
@@ -16,6 +18,7 @@ public final class Reversi {
 
   private static final int PANEL_HEIGHT = 1000;
   private static final int PANEL_WIDTH = 900;
+  private static final long SEARCH_TIME_MILLIS = 1000;
 
   /**
    * The main method of the Reversi game.
@@ -44,9 +47,11 @@ public final class Reversi {
         throw new IllegalArgumentException(
             "The board of the game has to be either 'hexa' or 'square', get " + board);
       }
-      if (!player.equals("human") && !player.equals("ai")) {
+      if (!player.equals("human") && !player.equals("ai") && !player.equals("smp")
+          && !player.equals("ponder")) {
         throw new IllegalArgumentException(
-            "The oponent of the game has to be either 'human' or 'ai', get " + player);
+            "The oponent of the game has to be either 'human', 'ai', 'smp' or 'ponder', get "
+                + player);
       }
 
       corner = 1;
@@ -70,9 +75,9 @@ public final class Reversi {
         throw new IllegalArgumentException(
             "The board of the game has to be either 'hexa' or 'square', get " + board);
       }
-      if (!player.equals("ai")) {
-        throw new IllegalArgumentException(
-            "The oponent of the game has to be 'ai' to set strategies preference, get " + player);
+      if (!player.equals("ai") && !player.equals("smp") && !player.equals("ponder")) {
+        throw new IllegalArgumentException("The oponent of the game has to be 'ai', 'smp' or "
+            + "'ponder' to set strategies preference, get " + player);
       }
 
     } else {
@@ -84,6 +89,14 @@ public final class Reversi {
 
     if (player.equals("human")) {
       oponent = new HumanPlayer();
+    } else if (player.equals("smp")) {
+      int numOfSide = board.equals("hexa") ? 6 : 4;
+      oponent = new LazySmpAIPlayer(numOfSide, corner, phobia, greedy, minimax,
+          SEARCH_TIME_MILLIS, Runtime.getRuntime().availableProcessors());
+    } else if (player.equals("ponder")) {
+      int numOfSide = board.equals("hexa") ? 6 : 4;
+      oponent = new PonderingAIPlayer(numOfSide, corner, phobia, greedy, minimax,
+          SEARCH_TIME_MILLIS);
     } else {
       if (board.equals("hexa")) {
         oponent = new AdvancedAIPlayer(6, corner, phobia, greedy, minimax);
@@ -0,0 +1,83 @@
+package cs3500.reversi;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+import cs3500.reversi.model.implem.AdvancedAIPlayer;
+import cs3500.reversi.model.implem.EloRating;
+import cs3500.reversi.model.implem.RoundRobinTournament;
+import cs3500.reversi.model.interf.Player;
+
+/**
+ * Ranks weight sets of the AdvancedAIPlayer by a round robin played without a window on all the
+ * cores, and prints their Elo ratings. The results file of a tournament that stopped can be given
+ * again to play only the games missing from it, with the same entrants and weights.
+ */
+public final class RunTournament {
+
+  private static final int DEFAULT_RANDOM_PLIES = 4;
+  private static final long DEFAULT_SEED = 1;
+
+  /**
+   * The main method of the tournament runner.
+   *
+   * @param args the board ('hexa' or 'square'), its size, the number of games of every pairing,
+   *        the results file, and two or more entrants, each written as
+   *        name=cornerTendency,nextToCornerPhobia,greedy,cautiousness
+   * @throws IOException if the results file cannot be read or written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 6) {
+      throw new IllegalArgumentException("Invalid number of argument!");
+    }
+    String board = args[0];
+    int size = Integer.parseInt(args[1]);
+    int gamesPerPairing = Integer.parseInt(args[2]);
+
+    int numOfSide;
+    if (board.equals("hexa")) {
+      numOfSide = 6;
+    } else if (board.equals("square")) {
+      numOfSide = 4;
+    } else {
+      throw new IllegalArgumentException(
+          "The board of the game has to be either 'hexa' or 'square', get " + board);
+    }
+
+    Map<String, LongFunction<Player>> entrants = new LinkedHashMap<String, LongFunction<Player>>();
+    StringBuilder entrantSettings = new StringBuilder();
+    for (int i = 4; i < args.length; i++) {
+      String[] entrant = args[i].split("=");
+      String[] weights = entrant.length == 2 ? entrant[1].split(",") : new String[0];
+      if (weights.length != 4) {
+        throw new IllegalArgumentException("An entrant has to be written as "
+            + "name=cornerTendency,nextToCornerPhobia,greedy,cautiousness, get " + args[i]);
+      }
+      int corner = Integer.parseInt(weights[0]);
+      int phobia = Integer.parseInt(weights[1]);
+      int greedy = Integer.parseInt(weights[2]);
+      int cautiousness = Integer.parseInt(weights[3]);
+      if (entrants.containsKey(entrant[0])) {
+        throw new IllegalArgumentException("An entrant name has to be given once, get "
+            + entrant[0] + " twice");
+      }
+      entrants.put(entrant[0],
+          seed -> new AdvancedAIPlayer(numOfSide, corner, phobia, greedy, cautiousness));
+      entrantSettings.append(entrantSettings.length() == 0 ? "" : " ").append(args[i]);
+    }
+
+    RoundRobinTournament tournament = new RoundRobinTournament(numOfSide, size, entrants,
+        gamesPerPairing, DEFAULT_RANDOM_PLIES, Runtime.getRuntime().availableProcessors(),
+        entrantSettings.toString());
+    List<EloRating> ratings = tournament.run(Paths.get(args[3]), DEFAULT_SEED);
+
+    for (EloRating rating : ratings) {
+      System.out.println(String.format("%-16s %7.1f +/- %5.1f  %6.1f / %d", rating.getName(),
+          rating.getElo(), rating.getError(), rating.getScore(), rating.getGames()));
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package cs3500.reversi;
+
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+import cs3500.reversi.model.implem.AdvancedAIPlayer;
+import cs3500.reversi.model.implem.AlphaBetaAIPlayer;
+import cs3500.reversi.model.implem.CrazyAIPlayer;
+import cs3500.reversi.model.implem.MctsAIPlayer;
+import cs3500.reversi.model.implem.SelfPlayResult;
+import cs3500.reversi.model.implem.SelfPlayRunner;
+import cs3500.reversi.model.implem.TranspositionTable;
+import cs3500.reversi.model.interf.Player;
+
+/**
+ * Plays a match of many games between two AI players without a window, on all the cores, and
+ * prints how fast the games went and how they ended.
+ */
+public final class SelfPlay {
+
+  private static final long DEFAULT_SEARCH_TIME_MILLIS = 100;
+  private static final int DEFAULT_RANDOM_PLIES = 4;
+  private static final long DEFAULT_SEED = 1;
+
+  // The transposition table of every searching player; moves of self-play are short
+  private static final long TABLE_BYTES = 4L << 20;
+
+  /**
+   * The main method of the self-play runner.
+   *
+   * @param args the board ('hexa' or 'square'), its size, the number of games, player A and player
+   *        B (each 'crazy', 'ai', 'alphabeta', 'pattern' or 'mcts'), and optionally the time to
+   *        search each move in milliseconds, the number of plies played at random at the start of
+   *        every game, and the seed of the match
+   */
+  public static void main(String[] args) {
+    if (args.length < 5 || args.length > 8) {
+      throw new IllegalArgumentException("Invalid number of argument!");
+    }
+    String board = args[0];
+    int size = Integer.parseInt(args[1]);
+    int games = Integer.parseInt(args[2]);
+    long searchTime = args.length > 5 ? Long.parseLong(args[5]) : DEFAULT_SEARCH_TIME_MILLIS;
+    int randomPlies = args.length > 6 ? Integer.parseInt(args[6]) : DEFAULT_RANDOM_PLIES;
+    long seed = args.length > 7 ? Long.parseLong(args[7]) : DEFAULT_SEED;
+
+    int numOfSide;
+    if (board.equals("hexa")) {
+      numOfSide = 6;
+    } else if (board.equals("square")) {
+      numOfSide = 4;
+    } else {
+      throw new IllegalArgumentException(
+          "The board of the game has to be either 'hexa' or 'square', get " + board);
+    }
+
+    LongFunction<Player> playerA = playerFactory(args[3], numOfSide, searchTime);
+    LongFunction<Player> playerB = playerFactory(args[4], numOfSide, searchTime);
+    SelfPlayRunner runner = new SelfPlayRunner(numOfSide, size, playerA, playerB, randomPlies,
+        Runtime.getRuntime().availableProcessors());
+    SelfPlayResult result = runner.play(games, seed);
+
+    System.out.println(args[3] + " vs " + args[4] + ": " + result.getWins() + " wins, "
+        + result.getDraws() + " draws, " + result.getLosses() + " losses, score "
+        + String.format("%.1f%%", 100 * result.getScore() / Math.max(1, result.getGameCount()))
+        + ", average disc difference " + String.format("%.2f", result.getAverageDiscDifference()));
+    System.out.println(result.getGameCount() + " games in " + result.getWallMillis() + " ms, "
+        + String.format("%.2f", result.getGamesPerSecond()) + " games/s");
+    System.out.println("average move time " + String.format("%.3f", result.getAverageMoveMillisA())
+        + " ms for " + args[3] + ", " + String.format("%.3f", result.getAverageMoveMillisB())
+        + " ms for " + args[4]);
+  }
+
+  /**
+   * Helper function to make the factory of the player of the given name. The players that search
+   * are made once per thread of the match and play all the games of their thread, as they forget
+   * each game when it ends; the other players are made for every game, from its seed.
+   *
+   * @param name the name of the player
+   * @param numOfSide the number of sides of a cell of the board
+   * @param searchTime the time to search each move, in milliseconds
+   * @return the factory of the player
+   * @throws IllegalArgumentException if the name is not known
+   */
+  private static LongFunction<Player> playerFactory(String name, int numOfSide, long searchTime) {
+    switch (name) {
+      case "crazy":
+        return seed -> new CrazyAIPlayer(seed);
+      case "ai":
+        return seed -> new AdvancedAIPlayer(numOfSide, 1, 1, 1, 1);
+      case "alphabeta":
+        return perThread(() -> new AlphaBetaAIPlayer(numOfSide, 1, 1, 1, 1, searchTime,
+            TranspositionTable.MAX_DEPTH, AlphaBetaAIPlayer.DEFAULT_ENDGAME_EMPTIES, false,
+            TABLE_BYTES));
+      case "pattern":
+        return perThread(() -> new AlphaBetaAIPlayer(numOfSide, 1, 1, 1, 1, searchTime,
+            TranspositionTable.MAX_DEPTH, AlphaBetaAIPlayer.DEFAULT_ENDGAME_EMPTIES, true,
+            TABLE_BYTES));
+      case "mcts":
+        return seed -> new MctsAIPlayer(searchTime, 0, 1, seed);
+      default:
+        throw new IllegalArgumentException("The player has to be 'crazy', 'ai', 'alphabeta', "
+            + "'pattern' or 'mcts', get " + name);
+    }
+  }
+
+  /**
+   * Helper function to make a factory that hands every thread its own player, made on first use.
+   *
+   * @param player the maker of the player
+   * @return the factory of the player
+   */
+  private static LongFunction<Player> perThread(Supplier<Player> player) {
+    ThreadLocal<Player> players = ThreadLocal.withInitial(player);
+    return seed -> players.get();
+  }
+}
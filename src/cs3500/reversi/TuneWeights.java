@@ -0,0 +1,98 @@
+package cs3500.reversi;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import cs3500.reversi.model.implem.WeightTuner;
+
+/**
+ * Tunes the preference weights of the AdvancedAIPlayer for one board shape and size by self-play
+ * against a reference player on all the cores, saving a checkpoint after every iteration, and
+ * prints the weights it estimates and the best weights, which a candidate only replaces by also
+ * winning a second match on new openings, in the order Reversi takes them as its last four
+ * arguments. Run again with the same checkpoint file, it goes on from the last iteration saved.
+ */
+public final class TuneWeights {
+
+  private static final int DEFAULT_RANDOM_PLIES = 4;
+  private static final long DEFAULT_SEED = 1;
+  private static final int[] DEFAULT_REFERENCE = {1, 1, 1, 1};
+
+  /**
+   * The main method of the weight tuner.
+   *
+   * @param args the board ('hexa' or 'square'), its size, the number of iterations to reach, the
+   *        number of games each perturbed set of weights plays every iteration, the checkpoint
+   *        file, and optionally the weights of the reference player, written as
+   *        cornerTendency,nextToCornerPhobia,greedy,cautiousness, which are also the weights the
+   *        tuning starts from
+   * @throws IOException if the checkpoint cannot be read or written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 5 && args.length != 6) {
+      throw new IllegalArgumentException("Invalid number of argument!");
+    }
+    String board = args[0];
+    int size = Integer.parseInt(args[1]);
+    int iterations = Integer.parseInt(args[2]);
+    int gamesPerSide = Integer.parseInt(args[3]);
+    Path checkpoint = Paths.get(args[4]);
+
+    int numOfSide;
+    if (board.equals("hexa")) {
+      numOfSide = 6;
+    } else if (board.equals("square")) {
+      numOfSide = 4;
+    } else {
+      throw new IllegalArgumentException(
+          "The board of the game has to be either 'hexa' or 'square', get " + board);
+    }
+
+    int[] reference = DEFAULT_REFERENCE;
+    if (args.length == 6) {
+      String[] weights = args[5].split(",");
+      if (weights.length != WeightTuner.WEIGHT_COUNT) {
+        throw new IllegalArgumentException("The reference has to be written as "
+            + "cornerTendency,nextToCornerPhobia,greedy,cautiousness, get " + args[5]);
+      }
+      reference = new int[WeightTuner.WEIGHT_COUNT];
+      for (int i = 0; i < reference.length; i++) {
+        reference[i] = Integer.parseInt(weights[i]);
+      }
+    }
+
+    try (WeightTuner tuner = new WeightTuner(numOfSide, size, reference, reference, gamesPerSide,
+        DEFAULT_RANDOM_PLIES, Runtime.getRuntime().availableProcessors(), DEFAULT_SEED)) {
+      if (Files.exists(checkpoint)) {
+        tuner.loadCheckpoint(checkpoint);
+        System.out.println("resumed at iteration " + tuner.getIteration());
+      }
+      while (tuner.getIteration() < iterations) {
+        tuner.step();
+        tuner.saveCheckpoint(checkpoint);
+        System.out.println("iteration " + tuner.getIteration() + ": scores "
+            + String.format("%.3f / %.3f", tuner.getLastScorePlus(), tuner.getLastScoreMinus())
+            + ", weights " + format(tuner.getWeights()));
+      }
+      System.out.println("estimated weights " + format(tuner.getWeights()));
+      System.out.println("best weights " + format(tuner.getBestWeights()) + ", score "
+          + String.format("%.3f", tuner.getBestScore()) + " in their last match");
+    }
+  }
+
+  /**
+   * Helper function to write weights the way Reversi takes them.
+   *
+   * @param weights the weights
+   * @return the weights, separated by spaces
+   */
+  private static String format(int[] weights) {
+    StringBuilder builder = new StringBuilder();
+    for (int weight : weights) {
+      builder.append(builder.length() == 0 ? "" : " ").append(weight);
+    }
+    return builder.toString();
+  }
+}
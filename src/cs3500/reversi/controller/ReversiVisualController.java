@@ -68,11 +68,12 @@ public class ReversiVisualController implements ReversiController {
 
     Cell currentCell;
     Board board = model.getBoard();
+    Cell clickedCell = board.getCell(p);
     for (int i = 0; i < board.getCoordOneSize(); i++) {
       for (int j = 0; j < board.getCoordTwoSize(i); j++) {
 
         currentCell = board.getCell(i, j);
-        if (currentCell.isPositionInside(p) && !model.isGameOver()) {
+        if (currentCell == clickedCell && !model.isGameOver()) {
           if (currentCell.isLegalMove() && !currentCell.isSelected()) {
             currentCell.select();
             System.out.println("Selected cell at (" + i + ", " + j + ")");
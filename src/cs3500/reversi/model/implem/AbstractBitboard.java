@@ -0,0 +1,682 @@
+package cs3500.reversi.model.implem;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import cs3500.reversi.model.status.CellStatus;
+
+/**
+ * AbstractBitboard is a packed representation of the discs on a polygon game board, for search
+ * and batch analysis. Every cell is given a lattice coordinate (x, y) by walking the neighbor table
+ * of the board, and is stored as bit y * width + x of one long per color (or of a long array when
+ * the lattice does not fit in 64 bits). A step in any direction is then a constant shift of the
+ * bits, masked by the cells that have a neighbor in that direction, so legal moves and flips of a
+ * whole color are computed with word-wide operations.
+ * The lattice is translated back to the ring (coordOne, coordTwo) indexing of the board, so that
+ * results can be used with the Board interface.
+ */
+public abstract class AbstractBitboard {
+
+  protected final int width;
+
+  protected final int height;
+
+  protected final int words;
+
+  protected final int numOfDirection;
+
+  // Bit index of each cell in ring order, and the ring index of each bit (-1 if not a cell)
+  private final int[] cellToBit;
+  private final int[] bitToCell;
+
+  // First ring index of each coordOne
+  private final int[] ringStarts;
+
+  // Bit offset of one step in each direction
+  protected final int[] shifts;
+
+  // sourceMasks[d] holds the cells that have a neighbor in direction d
+  protected final long[][] sourceMasks;
+
+  protected final long[] validMask;
+
+  // Longest run of discs that can be flipped in one direction
+  protected final int maxRun;
+
+  protected long[] black;
+
+  protected long[] white;
+
+  // Scratch arrays for the multi-word operations
+  private final long[] scratchOne;
+  private final long[] scratchTwo;
+  private final long[] scratchThree;
+
+  /**
+   * Constructs a bitboard with the geometry of the given board, holding the discs currently on it.
+   *
+   * @param board the board to take the geometry and the discs from
+   * @param directionVectors the lattice step (dx, dy) of each direction of the board, in the order
+   *        of the neighbor table of the board
+   * @throws IllegalArgumentException if board is null, or if the vectors do not match the board
+   */
+  protected AbstractBitboard(AbstractPolygonGameBoard board, int[][] directionVectors) {
+    if (board == null) {
+      throw new IllegalArgumentException("board cannot be null");
+    }
+    if (directionVectors.length != board.getNumOfDirection()) {
+      throw new IllegalArgumentException("there must be one vector per direction of the board");
+    }
+    int numOfCells = board.getCellCount();
+    this.numOfDirection = directionVectors.length;
+    int[] neighbors = board.getNeighbors();
+
+    // Give every cell a lattice coordinate, starting from the first cell
+    int[] xs = new int[numOfCells];
+    int[] ys = new int[numOfCells];
+    boolean[] visited = new boolean[numOfCells];
+    ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+    visited[0] = true;
+    queue.add(0);
+    while (!queue.isEmpty()) {
+      int index = queue.poll();
+      for (int d = 0; d < numOfDirection; d++) {
+        int neighbor = neighbors[index * numOfDirection + d];
+        if (neighbor >= 0 && !visited[neighbor]) {
+          visited[neighbor] = true;
+          xs[neighbor] = xs[index] + directionVectors[d][0];
+          ys[neighbor] = ys[index] + directionVectors[d][1];
+          queue.add(neighbor);
+        }
+      }
+    }
+    int minX = Arrays.stream(xs).min().getAsInt();
+    int minY = Arrays.stream(ys).min().getAsInt();
+    this.width = Arrays.stream(xs).max().getAsInt() - minX + 1;
+    this.height = Arrays.stream(ys).max().getAsInt() - minY + 1;
+    this.words = (width * height + 63) / 64;
+
+    this.cellToBit = new int[numOfCells];
+    this.bitToCell = new int[words * 64];
+    Arrays.fill(bitToCell, -1);
+    this.validMask = new long[words];
+    for (int i = 0; i < numOfCells; i++) {
+      int bit = (ys[i] - minY) * width + (xs[i] - minX);
+      if (bitToCell[bit] >= 0) {
+        throw new IllegalArgumentException("the vectors do not match the geometry of the board");
+      }
+      cellToBit[i] = bit;
+      bitToCell[bit] = i;
+      validMask[bit >>> 6] |= 1L << bit;
+    }
+
+    this.shifts = new int[numOfDirection];
+    this.sourceMasks = new long[numOfDirection][words];
+    for (int d = 0; d < numOfDirection; d++) {
+      shifts[d] = directionVectors[d][1] * width + directionVectors[d][0];
+      for (int i = 0; i < numOfCells; i++) {
+        int neighbor = neighbors[i * numOfDirection + d];
+        if (neighbor >= 0) {
+          if (cellToBit[neighbor] != cellToBit[i] + shifts[d]) {
+            throw new IllegalArgumentException(
+                "the vectors do not match the geometry of the board");
+          }
+          sourceMasks[d][cellToBit[i] >>> 6] |= 1L << cellToBit[i];
+        }
+      }
+    }
+    this.maxRun = Math.max(width, height) - 2;
+
+    this.ringStarts = new int[board.getCoordOneSize()];
+    for (int i = 1; i < ringStarts.length; i++) {
+      ringStarts[i] = ringStarts[i - 1] + board.getCoordTwoSize(i - 1);
+    }
+
+    this.black = new long[words];
+    this.white = new long[words];
+    this.scratchOne = new long[words];
+    this.scratchTwo = new long[words];
+    this.scratchThree = new long[words];
+    load(board);
+  }
+
+  /**
+   * Constructs a copy of the given bitboard. The geometry is shared, the discs are copied.
+   *
+   * @param that the bitboard to copy
+   */
+  protected AbstractBitboard(AbstractBitboard that) {
+    this.width = that.width;
+    this.height = that.height;
+    this.words = that.words;
+    this.numOfDirection = that.numOfDirection;
+    this.cellToBit = that.cellToBit;
+    this.bitToCell = that.bitToCell;
+    this.ringStarts = that.ringStarts;
+    this.shifts = that.shifts;
+    this.sourceMasks = that.sourceMasks;
+    this.validMask = that.validMask;
+    this.maxRun = that.maxRun;
+    this.black = that.black.clone();
+    this.white = that.white.clone();
+    this.scratchOne = new long[words];
+    this.scratchTwo = new long[words];
+    this.scratchThree = new long[words];
+  }
+
+  /**
+   * Clone a copy of this bitboard, sharing its geometry.
+   *
+   * @return a copy of this bitboard
+   */
+  public abstract AbstractBitboard copy();
+
+  /**
+   * Replaces the discs of this bitboard with the discs on the given board, which must have the same
+   * geometry.
+   *
+   * @param board the board to read the discs from
+   * @throws IllegalArgumentException if board is null or has a different number of cells
+   */
+  public void load(AbstractPolygonGameBoard board) {
+    if (board == null || board.getCellCount() != cellToBit.length) {
+      throw new IllegalArgumentException("board must have the geometry of the bitboard");
+    }
+    Arrays.fill(black, 0);
+    Arrays.fill(white, 0);
+    for (int i = 0; i < cellToBit.length; i++) {
+      CellStatus status = board.getCellStatus(i);
+      int bit = cellToBit[i];
+      if (status == CellStatus.BLACK) {
+        black[bit >>> 6] |= 1L << bit;
+      } else if (status == CellStatus.WHITE) {
+        white[bit >>> 6] |= 1L << bit;
+      }
+    }
+  }
+
+  /**
+   * Gets the number of longs used per color.
+   *
+   * @return the number of longs used per color
+   */
+  public int getWordCount() {
+    return words;
+  }
+
+  /**
+   * Gets the bit of the cell at the given ring coordinates of the board.
+   *
+   * @param coordOne the first coordinate of the cell
+   * @param coordTwo the second coordinate of the cell
+   * @return the bit index of the cell
+   * @throws IllegalArgumentException if the coordinates are out of range
+   */
+  public int getBit(int coordOne, int coordTwo) {
+    if (coordOne < 0 || coordOne >= ringStarts.length || coordTwo < 0
+        || ringStarts[coordOne] + coordTwo >= ringEnd(coordOne)) {
+      throw new IllegalArgumentException("Invalid coordinates");
+    }
+    return cellToBit[ringStarts[coordOne] + coordTwo];
+  }
+
+  /**
+   * Gets the first ring coordinate of the cell at the given bit.
+   *
+   * @param bit the bit index of the cell
+   * @return the first coordinate of the cell
+   * @throws IllegalArgumentException if the bit is not a cell
+   */
+  public int getCoordOne(int bit) {
+    int index = ringIndexOf(bit);
+    int coordOne = Arrays.binarySearch(ringStarts, index);
+    if (coordOne < 0) {
+      return -coordOne - 2;
+    }
+    // Rings are never empty, so the first match is the ring itself
+    return coordOne;
+  }
+
+  /**
+   * Gets the second ring coordinate of the cell at the given bit.
+   *
+   * @param bit the bit index of the cell
+   * @return the second coordinate of the cell
+   * @throws IllegalArgumentException if the bit is not a cell
+   */
+  public int getCoordTwo(int bit) {
+    return ringIndexOf(bit) - ringStarts[getCoordOne(bit)];
+  }
+
+  /**
+   * Gets the status of the cell at the given bit.
+   *
+   * @param bit the bit index of the cell
+   * @return the status of the cell
+   * @throws IllegalArgumentException if the bit is not a cell
+   */
+  public CellStatus getCellStatus(int bit) {
+    ringIndexOf(bit);
+    if (testBit(black, bit)) {
+      return CellStatus.BLACK;
+    } else if (testBit(white, bit)) {
+      return CellStatus.WHITE;
+    }
+    return CellStatus.EMPTY;
+  }
+
+  /**
+   * Counts the discs of the given color.
+   *
+   * @param cellStatus the color to count
+   * @return the number of discs of that color
+   * @throws IllegalArgumentException if cellStatus is EMPTY or null
+   */
+  public int count(CellStatus cellStatus) {
+    long[] own = discsOf(cellStatus);
+    int count = 0;
+    for (int i = 0; i < words; i++) {
+      count += Long.bitCount(own[i]);
+    }
+    return count;
+  }
+
+  /**
+   * Gets the legal moves of the given color as a single long. Only usable when the board fits in
+   * 64 bits.
+   *
+   * @param cellStatus the color to move
+   * @return the set of bits where the color can legally place a disc
+   * @throws IllegalStateException if the board does not fit in one long
+   * @throws IllegalArgumentException if cellStatus is EMPTY or null
+   */
+  public long legalMoves(CellStatus cellStatus) {
+    if (words != 1) {
+      throw new IllegalStateException("the board does not fit in one long");
+    }
+    long own = discsOf(cellStatus)[0];
+    long opp = discsOf(opposite(cellStatus))[0];
+    long empty = validMask[0] & ~(own | opp);
+    long moves = 0;
+    for (int d = 0; d < numOfDirection; d++) {
+      long run = shiftWord(own, d) & opp;
+      for (int k = 1; k < maxRun; k++) {
+        long longer = run | (shiftWord(run, d) & opp);
+        if (longer == run) {
+          break;
+        }
+        run = longer;
+      }
+      moves |= shiftWord(run, d) & empty;
+    }
+    return moves;
+  }
+
+  /**
+   * Gets the legal moves of the given color, for a board of any size.
+   *
+   * @param cellStatus the color to move
+   * @param result the array of getWordCount() longs to write the set of legal bits into
+   * @throws IllegalArgumentException if cellStatus is EMPTY or null, or result is too short
+   */
+  public void legalMoves(CellStatus cellStatus, long[] result) {
+    if (result == null || result.length < words) {
+      throw new IllegalArgumentException("result must hold " + words + " longs");
+    }
+    if (words == 1) {
+      result[0] = legalMoves(cellStatus);
+      return;
+    }
+    long[] own = discsOf(cellStatus);
+    long[] opp = discsOf(opposite(cellStatus));
+    long[] run = scratchOne;
+    long[] step = scratchTwo;
+    Arrays.fill(result, 0, words, 0);
+    for (int d = 0; d < numOfDirection; d++) {
+      shiftWords(own, d, step);
+      for (int i = 0; i < words; i++) {
+        run[i] = step[i] & opp[i];
+      }
+      for (int k = 1; k < maxRun; k++) {
+        shiftWords(run, d, step);
+        boolean grown = false;
+        for (int i = 0; i < words; i++) {
+          long longer = run[i] | (step[i] & opp[i]);
+          grown |= longer != run[i];
+          run[i] = longer;
+        }
+        if (!grown) {
+          break;
+        }
+      }
+      shiftWords(run, d, step);
+      for (int i = 0; i < words; i++) {
+        result[i] |= step[i] & validMask[i] & ~(own[i] | opp[i]);
+      }
+    }
+  }
+
+  /**
+   * Gets the discs that the given color would flip by placing on the given bit, as a single long.
+   * Only usable when the board fits in 64 bits.
+   *
+   * @param bit the bit index of the cell to place on
+   * @param cellStatus the color placing the disc
+   * @return the set of bits that would be flipped; empty if the move is not legal
+   * @throws IllegalStateException if the board does not fit in one long
+   * @throws IllegalArgumentException if cellStatus is EMPTY or null, or bit is not a cell
+   */
+  public long flips(int bit, CellStatus cellStatus) {
+    if (words != 1) {
+      throw new IllegalStateException("the board does not fit in one long");
+    }
+    ringIndexOf(bit);
+    long own = discsOf(cellStatus)[0];
+    long opp = discsOf(opposite(cellStatus))[0];
+    long move = 1L << bit;
+    if (((own | opp) & move) != 0) {
+      return 0;
+    }
+    long flips = 0;
+    for (int d = 0; d < numOfDirection; d++) {
+      long run = 0;
+      long next = shiftWord(move, d);
+      while ((next & opp) != 0) {
+        run |= next;
+        next = shiftWord(next, d);
+      }
+      if ((next & own) != 0) {
+        flips |= run;
+      }
+    }
+    return flips;
+  }
+
+  /**
+   * Gets the discs that the given color would flip by placing on the given bit, for a board of any
+   * size.
+   *
+   * @param bit the bit index of the cell to place on
+   * @param cellStatus the color placing the disc
+   * @param result the array of getWordCount() longs to write the flipped bits into
+   * @return the number of discs that would be flipped
+   * @throws IllegalArgumentException if cellStatus is EMPTY or null, bit is not a cell, or result
+   *         is too short
+   */
+  public int flips(int bit, CellStatus cellStatus, long[] result) {
+    if (result == null || result.length < words) {
+      throw new IllegalArgumentException("result must hold " + words + " longs");
+    }
+    ringIndexOf(bit);
+    long[] own = discsOf(cellStatus);
+    long[] opp = discsOf(opposite(cellStatus));
+    Arrays.fill(result, 0, words, 0);
+    if (testBit(own, bit) || testBit(opp, bit)) {
+      return 0;
+    }
+    int count = 0;
+    for (int d = 0; d < numOfDirection; d++) {
+      int run = 0;
+      int current = bit;
+      while (testBit(sourceMasks[d], current) && testBit(opp, current + shifts[d])) {
+        current += shifts[d];
+        run++;
+      }
+      if (run > 0 && testBit(sourceMasks[d], current) && testBit(own, current + shifts[d])) {
+        for (int k = 0; k < run; k++) {
+          result[current >>> 6] |= 1L << current;
+          current -= shifts[d];
+        }
+        count += run;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Places a disc of the given color on the given bit and flips the discs it captures.
+   *
+   * @param bit the bit index of the cell to place on
+   * @param cellStatus the color placing the disc
+   * @return the number of discs flipped
+   * @throws IllegalArgumentException if cellStatus is EMPTY or null, bit is not a cell, or the move
+   *         is not legal
+   */
+  public int move(int bit, CellStatus cellStatus) {
+    long[] own = discsOf(cellStatus);
+    long[] opp = discsOf(opposite(cellStatus));
+    if (words == 1) {
+      long flipped = flips(bit, cellStatus);
+      if (flipped == 0) {
+        throw new IllegalArgumentException("the move has to be valid!");
+      }
+      own[0] |= flipped | (1L << bit);
+      opp[0] &= ~flipped;
+      return Long.bitCount(flipped);
+    }
+    long[] flipped = scratchThree;
+    int count = flips(bit, cellStatus, flipped);
+    if (count == 0) {
+      throw new IllegalArgumentException("the move has to be valid!");
+    }
+    for (int i = 0; i < words; i++) {
+      own[i] |= flipped[i];
+      opp[i] &= ~flipped[i];
+    }
+    own[bit >>> 6] |= 1L << bit;
+    return count;
+  }
+
+  /**
+   * Sets the status of the cell at the given ring index, so that a board can keep its engine in
+   * step with its cells.
+   *
+   * @param index the ring index of the cell
+   * @param cellStatus the new status of the cell
+   */
+  void setStatus(int index, CellStatus cellStatus) {
+    int bit = cellToBit[index];
+    long mask = 1L << bit;
+    black[bit >>> 6] &= ~mask;
+    white[bit >>> 6] &= ~mask;
+    if (cellStatus == CellStatus.BLACK) {
+      black[bit >>> 6] |= mask;
+    } else if (cellStatus == CellStatus.WHITE) {
+      white[bit >>> 6] |= mask;
+    }
+  }
+
+  /**
+   * Counts the legal moves of the given color.
+   *
+   * @param cellStatus the color to move
+   * @return the number of legal moves
+   * @throws IllegalArgumentException if cellStatus is EMPTY or null
+   */
+  int countLegalMoves(CellStatus cellStatus) {
+    if (words == 1) {
+      return Long.bitCount(legalMoves(cellStatus));
+    }
+    legalMoves(cellStatus, scratchThree);
+    int count = 0;
+    for (int i = 0; i < words; i++) {
+      count += Long.bitCount(scratchThree[i]);
+    }
+    return count;
+  }
+
+  /**
+   * Writes the ring indices of the legal moves of the given color, in the order of their bits.
+   *
+   * @param cellStatus the color to move
+   * @param result the array to fill with the ring indices of the legal moves
+   * @return the number of legal moves
+   * @throws IllegalArgumentException if cellStatus is EMPTY or null, or result is null or too small
+   */
+  int getLegalMoves(CellStatus cellStatus, int[] result) {
+    if (words == 1) {
+      scratchThree[0] = legalMoves(cellStatus);
+    } else {
+      legalMoves(cellStatus, scratchThree);
+    }
+    int count = 0;
+    for (int i = 0; i < words; i++) {
+      count += Long.bitCount(scratchThree[i]);
+    }
+    if (result == null || result.length < count) {
+      throw new IllegalArgumentException("result must hold " + count + " indices");
+    }
+    return toRingIndices(scratchThree, result, 0);
+  }
+
+  /**
+   * Writes the ring indices of the discs the given color would flip by placing on the cell at the
+   * given ring index.
+   *
+   * @param index the ring index of the cell to place on
+   * @param cellStatus the color placing the disc
+   * @param result the array to write the ring indices of the flipped discs into
+   * @param offset the position in result of the first index written
+   * @return the number of discs that would be flipped; 0 if the move is not legal
+   * @throws IllegalArgumentException if cellStatus is EMPTY or null
+   */
+  int getFlips(int index, CellStatus cellStatus, int[] result, int offset) {
+    int bit = cellToBit[index];
+    if (words == 1) {
+      scratchThree[0] = flips(bit, cellStatus);
+    } else {
+      flips(bit, cellStatus, scratchThree);
+    }
+    return toRingIndices(scratchThree, result, offset);
+  }
+
+  /**
+   * Helper function to write the ring indices of the cells of a set of bits.
+   *
+   * @param bits the set of bits, getWordCount() longs
+   * @param result the array to write the ring indices into
+   * @param offset the position in result of the first index written
+   * @return the number of indices written
+   */
+  private int toRingIndices(long[] bits, int[] result, int offset) {
+    int count = 0;
+    for (int i = 0; i < words; i++) {
+      for (long word = bits[i]; word != 0; word &= word - 1) {
+        result[offset + count++] = bitToCell[(i << 6) + Long.numberOfTrailingZeros(word)];
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Helper function to step every bit of a single-long set one cell in the given direction.
+   *
+   * @param bits the set of bits
+   * @param directionIndex the direction
+   * @return the set of cells reached
+   */
+  protected long shiftWord(long bits, int directionIndex) {
+    long source = bits & sourceMasks[directionIndex][0];
+    int shift = shifts[directionIndex];
+    return shift >= 0 ? source << shift : source >>> -shift;
+  }
+
+  /**
+   * Helper function to step every bit of a multi-long set one cell in the given direction.
+   *
+   * @param bits the set of bits
+   * @param directionIndex the direction
+   * @param result the array to write the set of cells reached into
+   */
+  protected void shiftWords(long[] bits, int directionIndex, long[] result) {
+    long[] mask = sourceMasks[directionIndex];
+    int shift = shifts[directionIndex];
+    int wordShift = Math.abs(shift) >>> 6;
+    int bitShift = Math.abs(shift) & 63;
+    for (int i = 0; i < words; i++) {
+      int from = shift >= 0 ? i - wordShift : i + wordShift;
+      long high = from >= 0 && from < words ? bits[from] & mask[from] : 0;
+      if (bitShift == 0) {
+        result[i] = high;
+        continue;
+      }
+      int carryFrom = shift >= 0 ? from - 1 : from + 1;
+      long carry = carryFrom >= 0 && carryFrom < words ? bits[carryFrom] & mask[carryFrom] : 0;
+      if (shift >= 0) {
+        result[i] = (high << bitShift) | (carry >>> (64 - bitShift));
+      } else {
+        result[i] = (high >>> bitShift) | (carry << (64 - bitShift));
+      }
+    }
+  }
+
+  /**
+   * Helper function to check if a bit is set in a multi-long set.
+   *
+   * @param bits the set of bits
+   * @param bit the bit index
+   * @return true if the bit is set, false otherwise
+   */
+  protected static boolean testBit(long[] bits, int bit) {
+    return (bits[bit >>> 6] & (1L << bit)) != 0;
+  }
+
+  /**
+   * Gets the number of cells on the board.
+   *
+   * @return the number of cells on the board
+   */
+  public int getCellCount() {
+    return cellToBit.length;
+  }
+
+  /**
+   * Helper function to get the index just past the last cell of a ring.
+   *
+   * @param coordOne the ring
+   * @return the ring index of the first cell of the next ring, or the cell count for the last ring
+   */
+  private int ringEnd(int coordOne) {
+    return coordOne + 1 < ringStarts.length ? ringStarts[coordOne + 1] : cellToBit.length;
+  }
+
+  /**
+   * Helper function to get the ring index of the cell at the given bit.
+   *
+   * @param bit the bit index
+   * @return the index of the cell in the ring order of the board
+   * @throws IllegalArgumentException if the bit is not a cell
+   */
+  protected int ringIndexOf(int bit) {
+    if (bit < 0 || bit >= bitToCell.length || bitToCell[bit] < 0) {
+      throw new IllegalArgumentException("bit " + bit + " is not a cell of the board");
+    }
+    return bitToCell[bit];
+  }
+
+  /**
+   * Helper function to get the discs of the given color.
+   *
+   * @param cellStatus the color
+   * @return the live set of discs of that color
+   * @throws IllegalArgumentException if cellStatus is EMPTY or null
+   */
+  protected long[] discsOf(CellStatus cellStatus) {
+    if (cellStatus == CellStatus.BLACK) {
+      return black;
+    } else if (cellStatus == CellStatus.WHITE) {
+      return white;
+    }
+    throw new IllegalArgumentException("cellStatus must be BLACK or WHITE");
+  }
+
+  /**
+   * Helper function to get the opposite color.
+   *
+   * @param cellStatus the color
+   * @return the other color
+   */
+  protected static CellStatus opposite(CellStatus cellStatus) {
+    return cellStatus == CellStatus.BLACK ? CellStatus.WHITE : CellStatus.BLACK;
+  }
+}
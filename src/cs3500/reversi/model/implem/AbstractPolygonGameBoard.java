@@ -2,6 +2,7 @@ package cs3500.reversi.model.implem;
 
 import java.awt.Graphics;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import cs3500.reversi.model.interf.Board;
 import cs3500.reversi.model.interf.Cell;
@@ -15,18 +16,140 @@ import cs3500.reversi.model.status.GameStatus;
  * Reversi game with an arbitrary number of sides.
  * This class provides the basic functionality for a polygon game board, such as managing the grid
  * of cells and handling game moves.
+ * The layout of the board (the shapes of the cells, their neighbors and the spatial index) is
+ * immutable and shared between a board and its clones; the state of the cells is held in compact
+ * arrays, so that cloning a board only copies those arrays.
+ * The copies of a board, which are the boards searches play on, keep a bitboard engine in step
+ * with their cells, and generate their legal moves and flips with it; the board of a game finds
+ * them from its neighbor table and keeps its legal moves with a LegalMoveTracker.
  * Subclasses should implement the specific behavior for the type of polygon game board they
  * represent.
  */
 public abstract class AbstractPolygonGameBoard implements Board {
 
-  protected ArrayList<ArrayList<Cell>> grid;
+  private static final CellStatus[] STATUSES = CellStatus.values();
+
+  private static final byte LEGAL_MOVE = 1;
+
+  private static final byte SELECTED = 2;
+
+  // The hash key of white to move; the key of black to move is 0
+  private static final long WHITE_TO_MOVE_KEY = BoardGeometry.zobristKey(0);
 
   protected int numOfSide;
 
+  // Number of directions a line of cells can run in (edges, plus diagonals for square boards)
+  protected int numOfDirection;
+
+  private BoardGeometry geometry;
+
+  // The ordinal of the CellStatus of every cell, in ring order
+  private byte[] statuses;
+
+  // The LEGAL_MOVE and SELECTED flags of every cell, in ring order
+  private byte[] flags;
+
+  // The number of cells with each status, indexed by the ordinal of the status
+  private int[] counts;
+
+  // The Zobrist hash of the discs on the board
+  private long hash;
+
+  // The Cell objects handed out for this board, created on first use
+  private Cell[] cells;
+
+  // The legal moves of both colors, created the first time they are asked for
+  private LegalMoveTracker legalMoves;
+
+  // The pattern indices of the last pattern evaluator that read the board, or null
+  private PatternIndices patternIndices;
+
+  // The bitboard engine of a copy, kept in step with its cells, or null on the board of a game
+  private AbstractBitboard bitboard;
+
+  /**
+   * Constructs an empty board. Subclasses must call initialize once they have laid out the cells.
+   */
+  protected AbstractPolygonGameBoard() {
+    // The layout is set by initialize
+  }
+
+  /**
+   * Constructs a copy of the given board, sharing its layout and copying the state of its cells.
+   *
+   * @param that the board to copy
+   */
+  protected AbstractPolygonGameBoard(AbstractPolygonGameBoard that) {
+    this.numOfSide = that.numOfSide;
+    this.numOfDirection = that.numOfDirection;
+    this.geometry = that.geometry;
+    this.statuses = that.statuses.clone();
+    this.flags = that.flags.clone();
+    this.counts = that.counts.clone();
+    this.hash = that.hash;
+    this.cells = new Cell[statuses.length];
+    // Copies start without a tracker or pattern indices, so the boards used by searches only pay
+    // for the ones they use
+    if (that.bitboard != null) {
+      this.bitboard = that.bitboard.copy();
+    } else {
+      AbstractBitboard empty = geometry.bitboard;
+      if (empty == null) {
+        empty = that.toBitboard();
+        geometry.bitboard = empty;
+      }
+      this.bitboard = empty.copy();
+      bitboard.load(this);
+    }
+  }
+
+  /**
+   * Builds the layout of the board from the given grid of cells, which holds the shapes of the
+   * cells. grid[x][y] is the yth cell on the xth circle of cells counting from the center. All the
+   * cells of the board start empty.
+   *
+   * @param grid the cells of the board
+   */
+  protected void initialize(ArrayList<ArrayList<PolygonCell>> grid) {
+    int[] ringStarts = new int[grid.size() + 1];
+    for (int i = 0; i < grid.size(); i++) {
+      ringStarts[i + 1] = ringStarts[i] + grid.get(i).size();
+    }
+    CellGeometry[] shapes = new CellGeometry[ringStarts[grid.size()]];
+    int index = 0;
+    for (int i = 0; i < grid.size(); i++) {
+      for (int j = 0; j < grid.get(i).size(); j++) {
+        shapes[index++] = grid.get(i).get(j).getGeometry();
+      }
+    }
+    CellSpatialIndex spatialIndex = new CellSpatialIndex(shapes, getCellRadius());
+
+    int[] neighbors = new int[shapes.length * numOfDirection];
+    Arrays.fill(neighbors, -1);
+    for (int i = 0; i < shapes.length; i++) {
+      for (int d = 0; d < numOfSide; d++) {
+        neighbors[i * numOfDirection + d] =
+            spatialIndex.indexOf(shapes[i].getAdjacentCellCenter(d));
+      }
+    }
+    for (int i = 0; i < shapes.length; i++) {
+      for (int d = numOfSide; d < numOfDirection; d++) {
+        neighbors[i * numOfDirection + d] = findExtraNeighbor(i, d, neighbors);
+      }
+    }
+
+    this.geometry = new BoardGeometry(shapes, ringStarts, numOfSide, numOfDirection, neighbors,
+        spatialIndex);
+    this.statuses = new byte[shapes.length];
+    this.flags = new byte[shapes.length];
+    this.counts = new int[STATUSES.length];
+    this.counts[CellStatus.EMPTY.ordinal()] = shapes.length;
+    this.cells = new Cell[shapes.length];
+  }
+
   @Override
   public int getCoordOneSize() {
-    return this.grid.size();
+    return geometry.ringStarts.length - 1;
   }
 
   @Override
@@ -34,28 +157,27 @@ public abstract class AbstractPolygonGameBoard implements Board {
     if (g == null) {
       throw new IllegalArgumentException("g cannot be null");
     }
-    for (int i = 0; i < grid.size(); i++) {
-      for (int j = 0; j < grid.get(i).size(); j++) {
-        grid.get(i).get(j).paint(g, xCenter, yCenter);
-      }
+    for (int i = 0; i < statuses.length; i++) {
+      geometry.cells[i].paint(g, xCenter, yCenter, STATUSES[statuses[i]],
+          (flags[i] & LEGAL_MOVE) != 0, (flags[i] & SELECTED) != 0);
     }
   }
 
   @Override
   public int getCoordTwoSize(int coordOne) {
-    if (coordOne < 0 || coordOne >= this.grid.size()) {
+    if (coordOne < 0 || coordOne >= getCoordOneSize()) {
       throw new IllegalArgumentException("circle must be between 0 and size - 1");
     }
-    return grid.get(coordOne).size();
+    return geometry.ringStarts[coordOne + 1] - geometry.ringStarts[coordOne];
   }
 
   @Override
   public Cell getCell(int coordOne, int coordTwo) {
-    if (coordOne < 0 || coordOne >= this.grid.size() || coordTwo < 0
-        || coordTwo >= grid.get(coordOne).size()) {
+    if (coordOne < 0 || coordOne >= getCoordOneSize() || coordTwo < 0
+        || coordTwo >= getCoordTwoSize(coordOne)) {
       throw new IllegalArgumentException("Invalid coordinates");
     }
-    return grid.get(coordOne).get(coordTwo);
+    return cellAt(geometry.ringStarts[coordOne] + coordTwo);
   }
 
   @Override
@@ -63,46 +185,412 @@ public abstract class AbstractPolygonGameBoard implements Board {
     if (position == null) {
       throw new IllegalArgumentException("position cannot be null");
     }
-    for (int i = 0; i < this.grid.size(); i++) {
-      for (int j = 0; j < grid.get(i).size(); j++) {
-        if (grid.get(i).get(j).isPositionInside(position)) {
-          return grid.get(i).get(j);
+    int index = geometry.spatialIndex.indexOf(position);
+    return index < 0 ? null : cellAt(index);
+  }
+
+  /**
+   * Gets a bitboard holding the geometry and the current discs of this board.
+   *
+   * @return a bitboard of this board
+   */
+  public abstract AbstractBitboard toBitboard();
+
+  /**
+   * Gets the distance from the center of a cell of this board to any of its vertices.
+   *
+   * @return the radius of the cells of this board
+   */
+  protected abstract double getCellRadius();
+
+  /**
+   * Gets the cell at the given index in the ring order of the grid.
+   *
+   * @param index the index of the cell
+   * @return the cell at that index
+   */
+  protected Cell cellAt(int index) {
+    if (cells[index] == null) {
+      cells[index] = new BoardCell(index);
+    }
+    return cells[index];
+  }
+
+  /**
+   * Sets the status of the cell at the given index. Every change of status on the board goes
+   * through this method.
+   *
+   * @param index the index of the cell
+   * @param cellStatus the new status of the cell
+   */
+  protected void setStatusAt(int index, CellStatus cellStatus) {
+    if (patternIndices != null) {
+      patternIndices.cellChanged(index, statuses[index], cellStatus.ordinal());
+    }
+    counts[statuses[index]]--;
+    counts[cellStatus.ordinal()]++;
+    hash ^= geometry.zobristKeys[index * 3 + statuses[index]]
+        ^ geometry.zobristKeys[index * 3 + cellStatus.ordinal()];
+    statuses[index] = (byte) cellStatus.ordinal();
+    if (legalMoves != null) {
+      legalMoves.cellChanged(index);
+    }
+    if (bitboard != null) {
+      bitboard.setStatus(index, cellStatus);
+    }
+  }
+
+  /**
+   * Gets the number of directions a line of cells can run in on this board.
+   *
+   * @return the number of directions
+   */
+  protected int getNumOfDirection() {
+    return numOfDirection;
+  }
+
+  /**
+   * Helper function to compute the neighbor of the cell at the given index in one of the
+   * directions beyond the edges of the cell (e.g. the diagonals of a square board). The default
+   * board has none.
+   *
+   * @param index the index of the cell
+   * @param directionIndex the direction, from side to the number of direction - 1
+   * @param edgeNeighbors the neighbor table, already filled for the edge directions
+   * @return the index of the neighbor in that direction, or -1 if it does not exist
+   */
+  protected int findExtraNeighbor(int index, int directionIndex, int[] edgeNeighbors) {
+    return -1;
+  }
+
+  /**
+   * Gets the neighbor table of the board. Boards with the same geometry share the same table.
+   *
+   * @return the neighbor table, indexed by cell index * number of directions + direction
+   */
+  protected int[] getNeighbors() {
+    return geometry.neighbors;
+  }
+
+  /**
+   * Helper function to get the index of the given cell on this board. A cell from another board
+   * with the same geometry is matched by its position.
+   *
+   * @param cell the given cell
+   * @return the index of the cell, or -1 if it is not on the board
+   * @throws IllegalArgumentException if cell is null
+   */
+  protected int indexOf(Cell cell) {
+    if (cell == null) {
+      throw new IllegalArgumentException("cell cannot be null");
+    }
+    if (cell instanceof BoardCell && ((BoardCell) cell).board() == this) {
+      return ((BoardCell) cell).index;
+    }
+    return geometry.spatialIndex.indexOf(cell.getPosition());
+  }
+
+  @Override
+  public boolean onSameLine(Cell gridOne, Cell gridTwo) {
+    if (gridOne == null || gridTwo == null) {
+      throw new IllegalArgumentException("gridOne and gridTwo cannot be null");
+    }
+    int[] table = geometry.neighbors;
+    int start = indexOf(gridOne);
+    if (start < 0) {
+      return false;
+    }
+    for (int d = 0; d < numOfDirection; d++) {
+      int current = table[start * numOfDirection + d];
+      while (current >= 0) {
+        if (cellAt(current).equals(gridTwo)) {
+          return true;
         }
+        current = table[current * numOfDirection + d];
       }
     }
-    return null;
+    return false;
+  }
+
+  @Override
+  public boolean isLegalMove(Cell cell, GameStatus gameStatus) {
+    switch (gameStatus) {
+      case BTURN:
+        return isLegalMoveForCellState(cell, CellStatus.BLACK);
+      case WTURN:
+        return isLegalMoveForCellState(cell, CellStatus.WHITE);
+      default:
+        return false;
+    }
   }
 
   /**
-   * Helper function to get the adjacent cell of the given cell in the given direction.
-   * 
+   * Helper function to check if the given cell is a legal move for the given cell status.
+   *
    * @param cell the given cell
-   * @param directionIndex the direction of the adjacent cell (from 0 to side - 1)
-   * @return the adjacent cell of the given cell in the given direction return null if the adjacent
-   *         cell in that direction does not exist
-   * @throws IllegalArgumentException if cell is null or directionIndex is not between 0 and side -
-   *         1
+   * @param cellStatus the given cell status
+   * @return true if the given cell is a legal move for the given cell status, false otherwise
+   * @throws IllegalArgumentException if cell is null
+   */
+  private boolean isLegalMoveForCellState(Cell cell, CellStatus cellStatus)
+      throws IllegalArgumentException {
+    if (cell == null) {
+      throw new IllegalArgumentException("cell cannot be null");
+    }
+    if (cell.getCellStatus() != CellStatus.EMPTY) {
+      return false;
+    }
+    int index = indexOf(cell);
+    if (index < 0) {
+      return false;
+    }
+    for (int d = 0; d < numOfDirection; d++) {
+      if (countFlipsInDirection(index, d, cellStatus) > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Helper function to count the cells that a disc of the given status placed on the cell at the
+   * given index would flip along one direction.
+   *
+   * @param index the index of the cell to place on
+   * @param directionIndex the direction to walk
+   * @param cellStatus the status of the disc placed
+   * @return the number of cells flipped in that direction
    */
-  protected Cell getAdjacentCell(Cell cell, int directionIndex) {
-    if (directionIndex < 0 || directionIndex >= numOfSide) {
-      throw new IllegalArgumentException("directionIndex must be between 0 and side - 1");
+  private int countFlipsInDirection(int index, int directionIndex, CellStatus cellStatus) {
+    int[] table = geometry.neighbors;
+    byte own = (byte) cellStatus.ordinal();
+    int count = 0;
+    int current = table[index * numOfDirection + directionIndex];
+    while (current >= 0) {
+      byte status = statuses[current];
+      if (status == own) {
+        return count;
+      } else if (status == 0) {
+        return 0;
+      }
+      count++;
+      current = table[current * numOfDirection + directionIndex];
     }
+    return 0;
+  }
+
+  @Override
+  public void oneMove(Cell cell, CellStatus cellStatus) {
     if (cell == null) {
-      return null;
+      throw new IllegalArgumentException("cell cannot be null");
+    }
+    if (cellStatus == CellStatus.EMPTY) {
+      throw new IllegalArgumentException("cellStatus cannot be EMPTY");
     }
-    Position adjacentCellCenter = cell.getAdjacentCellCenter(directionIndex);
-    return getCell(adjacentCellCenter);
+    if (cell.getCellStatus() != CellStatus.EMPTY) {
+      throw new IllegalArgumentException("cellStatus cannot be set to EMPTY");
+    }
+    int index = indexOf(cell);
+    if (index < 0) {
+      throw new IllegalArgumentException("cell is not on the board");
+    }
+    int[] table = geometry.neighbors;
+    setStatusAt(index, cellStatus);
+
+    for (int d = 0; d < numOfDirection; d++) {
+      int flips = countFlipsInDirection(index, d, cellStatus);
+      int current = table[index * numOfDirection + d];
+      for (int k = 0; k < flips; k++) {
+        setStatusAt(current, cellStatus);
+        current = table[current * numOfDirection + d];
+      }
+    }
+  }
+
+  @Override
+  public int getCellCount() {
+    return statuses.length;
+  }
+
+  @Override
+  public int countCells(CellStatus cellStatus) {
+    if (cellStatus == null) {
+      throw new IllegalArgumentException("cellStatus cannot be null");
+    }
+    return counts[cellStatus.ordinal()];
+  }
+
+  @Override
+  public int countLegalMoves(CellStatus cellStatus) {
+    if (bitboard != null) {
+      return bitboard.countLegalMoves(cellStatus);
+    }
+    return getLegalMoveTracker().count(cellStatus);
+  }
+
+  @Override
+  public int getLegalMoves(CellStatus cellStatus, int[] result) {
+    if (bitboard != null) {
+      return bitboard.getLegalMoves(cellStatus, result);
+    }
+    return getLegalMoveTracker().copyTo(cellStatus, result);
+  }
+
+  /**
+   * Helper function to get the tracker of the legal moves of the board, creating it on first use.
+   *
+   * @return the tracker of the legal moves
+   */
+  private LegalMoveTracker getLegalMoveTracker() {
+    if (legalMoves == null) {
+      legalMoves = new LegalMoveTracker(this);
+    }
+    return legalMoves;
+  }
+
+  /**
+   * Gets the indices of the patterns of the given layout on this board, which are kept up to date
+   * from then on, until the patterns of another layout are asked for.
+   *
+   * @param layout the layout of the patterns, built for the geometry of this board
+   * @return the index of every pattern of the layout
+   */
+  int[] getPatternIndices(PatternLayout layout) {
+    if (patternIndices == null || patternIndices.layout != layout) {
+      patternIndices = new PatternIndices(layout, this);
+    }
+    return patternIndices.indices;
+  }
+
+  @Override
+  public long getHash() {
+    return hash;
+  }
+
+  @Override
+  public long getHash(GameStatus gameStatus) {
+    if (gameStatus == null) {
+      throw new IllegalArgumentException("gameStatus cannot be null");
+    }
+    return gameStatus == GameStatus.WTURN ? hash ^ WHITE_TO_MOVE_KEY : hash;
   }
 
-  private int countCellWithStatus(Board board, CellStatus cellStatus) {
+  @Override
+  public int getCellIndex(Cell cell) {
+    return indexOf(cell);
+  }
+
+  @Override
+  public Cell getCellAt(int index) {
+    checkIndex(index);
+    return cellAt(index);
+  }
+
+  @Override
+  public CellStatus getCellStatus(int index) {
+    checkIndex(index);
+    return STATUSES[statuses[index]];
+  }
+
+  @Override
+  public boolean isLegalMove(int index, CellStatus cellStatus) {
+    checkIndex(index);
+    if (cellStatus == null || cellStatus == CellStatus.EMPTY) {
+      throw new IllegalArgumentException("cellStatus must be BLACK or WHITE");
+    }
+    if (statuses[index] != 0) {
+      return false;
+    }
+    for (int d = 0; d < numOfDirection; d++) {
+      if (countFlipsInDirection(index, d, cellStatus) > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public int[] newUndoRecord() {
+    return new int[statuses.length + 2];
+  }
+
+  @Override
+  public int[] makeMove(int index, CellStatus cellStatus, int[] undoRecord) {
+    checkIndex(index);
+    if (cellStatus == null || cellStatus == CellStatus.EMPTY) {
+      throw new IllegalArgumentException("cellStatus cannot be EMPTY");
+    }
+    if (undoRecord == null || undoRecord.length < statuses.length + 2) {
+      throw new IllegalArgumentException("undoRecord must come from newUndoRecord");
+    }
+    if (statuses[index] != 0) {
+      throw new IllegalArgumentException("the move has to be valid!");
+    }
     int count = 0;
-    for (int i = 0; i < board.getCoordOneSize(); i++) {
-      for (int j = 0; j < board.getCoordTwoSize(i); j++) {
-        if (board.getCell(i, j).getCellStatus() == cellStatus) {
-          count++;
+    if (bitboard != null) {
+      count = bitboard.getFlips(index, cellStatus, undoRecord, 2);
+    } else {
+      int[] table = geometry.neighbors;
+      for (int d = 0; d < numOfDirection; d++) {
+        int flips = countFlipsInDirection(index, d, cellStatus);
+        int current = table[index * numOfDirection + d];
+        for (int k = 0; k < flips; k++) {
+          undoRecord[2 + count++] = current;
+          current = table[current * numOfDirection + d];
         }
       }
     }
+    if (count == 0) {
+      throw new IllegalArgumentException("the move has to be valid!");
+    }
+    setStatusAt(index, cellStatus);
+    for (int k = 0; k < count; k++) {
+      setStatusAt(undoRecord[2 + k], cellStatus);
+    }
+    undoRecord[0] = index;
+    undoRecord[1] = count;
+    return undoRecord;
+  }
+
+  @Override
+  public void undoMove(int[] undoRecord) {
+    if (undoRecord == null) {
+      throw new IllegalArgumentException("undoRecord cannot be null");
+    }
+    int index = undoRecord[0];
+    CellStatus opponent = statuses[index] == CellStatus.BLACK.ordinal() ? CellStatus.WHITE
+        : CellStatus.BLACK;
+    for (int k = 0; k < undoRecord[1]; k++) {
+      setStatusAt(undoRecord[2 + k], opponent);
+    }
+    setStatusAt(index, CellStatus.EMPTY);
+  }
+
+  /**
+   * Helper function to check that an index refers to a cell of the board.
+   *
+   * @param index the index to check
+   * @throws IllegalArgumentException if the index is out of range
+   */
+  private void checkIndex(int index) {
+    if (index < 0 || index >= statuses.length) {
+      throw new IllegalArgumentException("index must be between 0 and " + (statuses.length - 1));
+    }
+  }
+
+  /**
+   * Helper function to count the cells that a disc of the given status placed on the cell at the
+   * given index would flip.
+   *
+   * @param index the index of the cell to place on
+   * @param cellStatus the status of the disc placed
+   * @return the number of cells flipped
+   */
+  private int countFlips(int index, CellStatus cellStatus) {
+    int count = 0;
+    for (int d = 0; d < numOfDirection; d++) {
+      count += countFlipsInDirection(index, d, cellStatus);
+    }
     return count;
   }
 
@@ -111,29 +599,73 @@ public abstract class AbstractPolygonGameBoard implements Board {
     if (!isLegalMove(cell, gameStatus)) {
       throw new IllegalArgumentException("the move has to be valid!");
     }
-    
-    int currentScoreOnBoard;
-    if (gameStatus == GameStatus.BTURN) {
-      currentScoreOnBoard = countCellWithStatus(this, CellStatus.WHITE);
-    } else if (gameStatus == GameStatus.WTURN) {
-      currentScoreOnBoard = countCellWithStatus(this, CellStatus.BLACK);
-    } else {
-      throw new IllegalArgumentException("gameStatus cannot be GAMEOVER");
+    // The opponent loses exactly the discs that are flipped
+    return countFlips(indexOf(cell),
+        gameStatus == GameStatus.BTURN ? CellStatus.BLACK : CellStatus.WHITE);
+  }
+
+  /**
+   * A cell of this board. It holds no state of its own: its status and flags are read from and
+   * written to the arrays of the board, and its shape is the shared geometry of the board.
+   */
+  private final class BoardCell extends PolygonCell {
+
+    private final int index;
+
+    private BoardCell(int index) {
+      super(geometry.cells[index]);
+      this.index = index;
     }
 
-    Board boardCopyForGreedy = this.cloneBoard();
-    boardCopyForGreedy.oneMove(new PolygonCell(cell),
-        gameStatus == GameStatus.BTURN ? CellStatus.BLACK : CellStatus.WHITE);
+    private AbstractPolygonGameBoard board() {
+      return AbstractPolygonGameBoard.this;
+    }
 
-    int newScoreOnBoard;
-    if (gameStatus == GameStatus.BTURN) {
-      newScoreOnBoard = countCellWithStatus(boardCopyForGreedy, CellStatus.WHITE);
-    } else if (gameStatus == GameStatus.WTURN) {
-      newScoreOnBoard = countCellWithStatus(boardCopyForGreedy, CellStatus.BLACK);
-    } else {
-      throw new IllegalArgumentException("gameStatus cannot be GAMEOVER");
+    @Override
+    public CellStatus getCellStatus() {
+      return STATUSES[statuses[index]];
+    }
+
+    @Override
+    public void setCellStatus(CellStatus cellStatus) throws IllegalArgumentException {
+      if (cellStatus == CellStatus.EMPTY) {
+        throw new IllegalArgumentException("cellStatus cannot be set to EMPTY");
+      }
+      setStatusAt(index, cellStatus);
+    }
+
+    @Override
+    public void flip() throws IllegalArgumentException {
+      if (statuses[index] == 0) {
+        throw new IllegalArgumentException("cellStatus cannot be set to EMPTY");
+      }
+      setStatusAt(index, getCellStatus() == CellStatus.BLACK ? CellStatus.WHITE
+          : CellStatus.BLACK);
     }
-    return (currentScoreOnBoard - newScoreOnBoard);
 
+    @Override
+    public boolean isLegalMove() {
+      return (flags[index] & LEGAL_MOVE) != 0;
+    }
+
+    @Override
+    public void setLegalMove(boolean legalMove) {
+      flags[index] = (byte) (legalMove ? flags[index] | LEGAL_MOVE : flags[index] & ~LEGAL_MOVE);
+    }
+
+    @Override
+    public boolean isSelected() {
+      return (flags[index] & SELECTED) != 0;
+    }
+
+    @Override
+    public void select() {
+      flags[index] |= SELECTED;
+    }
+
+    @Override
+    public void deselect() {
+      flags[index] &= ~SELECTED;
+    }
   }
 }
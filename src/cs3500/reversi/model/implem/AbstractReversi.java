@@ -24,26 +24,41 @@ public abstract class AbstractReversi implements ReversiModel, ReadonlyReversiMo
   protected Player playerB;
   protected Player playerW;
 
+  // The indices of the cells currently marked as legal moves
+  private int[] shownLegalMoves;
+  private int shownLegalMoveCount;
+
+  // Whether neither side can move in the position of the last refresh
+  private boolean bothSidesStuck;
+
+  // Whether the game has ended and its winner is set; volatile so the rendering thread reads it
+  // while the model thread plays
+  private volatile boolean gameOver;
+
   /**
    * make a move on the given cell on the board, and deselect all the cells afterward.
    * 
    * @param cell the cell to make a move on
+   * @return true if the move was made, false if the cell is not a legal move of the side to move
    */
-  private void makeOneMove(Cell cell) {
+  private boolean makeOneMove(Cell cell) {
     if (cell == null) {
       throw new IllegalArgumentException("cell cannot be null");
     }
+    boolean moved = false;
     if (gameState == GameStatus.BTURN) {
       if (cell.isLegalMove()) {
         board.oneMove(cell, CellStatus.BLACK);
         this.switchTurn();
         this.refreshLegalMoves();
+        moved = true;
       }
     } else if (gameState == GameStatus.WTURN) {
       if (cell.isLegalMove()) {
         board.oneMove(cell, CellStatus.WHITE);
         this.switchTurn();
         this.refreshLegalMoves();
+        moved = true;
       }
     }
     // Deselect all cells after a move
@@ -52,49 +67,12 @@ public abstract class AbstractReversi implements ReversiModel, ReadonlyReversiMo
         board.getCell(i, j).deselect();
       }
     }
+    return moved;
   }
 
   @Override
   public boolean isGameOver() {
-    int currentMoveCount = 0;
-    int alternativeLegalMoveCount = 0;
-    for (int i = 0; i < board.getCoordOneSize(); i++) {
-      for (int j = 0; j < board.getCoordTwoSize(i); j++) {
-        if (board.getCell(i, j).isLegalMove()) {
-          currentMoveCount++;
-        }
-      }
-    }
-    switchTurn();
-    refreshLegalMoves();
-    for (int i = 0; i < board.getCoordOneSize(); i++) {
-      for (int j = 0; j < board.getCoordTwoSize(i); j++) {
-        if (board.getCell(i, j).isLegalMove()) {
-          alternativeLegalMoveCount++;
-        }
-      }
-    }
-    switchTurn();
-    refreshLegalMoves();
-    return currentMoveCount == 0 && alternativeLegalMoveCount == 0;
-  }
-
-  /**
-   * Helper function to count the number of cells with the given status.
-   * 
-   * @param cellStatus the status of the cell
-   * @return the number of cells with the given status
-   */
-  private int countCellWithStatus(CellStatus cellStatus) {
-    int count = 0;
-    for (int i = 0; i < board.getCoordOneSize(); i++) {
-      for (int j = 0; j < board.getCoordTwoSize(i); j++) {
-        if (board.getCell(i, j).getCellStatus() == cellStatus) {
-          count++;
-        }
-      }
-    }
-    return count;
+    return gameOver;
   }
 
   @Override
@@ -112,41 +90,47 @@ public abstract class AbstractReversi implements ReversiModel, ReadonlyReversiMo
 
   @Override
   public void update() {
-
-    if (this.isGameOver()) {
-      int blackCount = this.countCellWithStatus(CellStatus.BLACK);
-      int whiteCount = this.countCellWithStatus(CellStatus.WHITE);
-      if (blackCount > whiteCount) {
-        gameState = GameStatus.BWINS;
-      } else if (blackCount < whiteCount) {
-        gameState = GameStatus.WWINS;
-      } else {
-        gameState = GameStatus.DRAW;
+    // One turn per iteration, so long games between AI players do not grow the stack
+    while (gameState == GameStatus.BTURN || gameState == GameStatus.WTURN) {
+      if (shownLegalMoveCount == 0) {
+        if (bothSidesStuck) {
+          this.endGame();
+          return;
+        }
+        // The side to move cannot move, so it passes without being asked
+        this.switchTurn();
+        this.refreshLegalMoves();
+        continue;
+      }
+      Player player = gameState == GameStatus.BTURN ? playerB : playerW;
+      Cell move = player.move(board, gameState);
+      // No move means the player is waiting for input; an illegal move is ignored
+      if (move == null || !makeOneMove(move)) {
+        return;
       }
     }
+  }
 
-    Cell move;
-    switch (gameState) {
-      case BTURN:
-        move = playerB.move(board, gameState);
-        if (move == null) {
-          break;
-        } else {
-          makeOneMove(move);
-          this.update();
-        }
-        break;
-      case WTURN:
-        move = playerW.move(board, gameState);
-        if (move == null) {
-          break;
-        } else {
-          makeOneMove(move);
-          this.update();
-        }
-        break;
-      default:
-        break;
+  /**
+   * Helper function to end the game, find the winner, and tell the players.
+   */
+  private void endGame() {
+    int blackCount = board.countCells(CellStatus.BLACK);
+    int whiteCount = board.countCells(CellStatus.WHITE);
+    if (blackCount > whiteCount) {
+      gameState = GameStatus.BWINS;
+    } else if (blackCount < whiteCount) {
+      gameState = GameStatus.WWINS;
+    } else {
+      gameState = GameStatus.DRAW;
+    }
+    // Written after the game state, so a thread that sees the game over also sees the winner
+    gameOver = true;
+    if (playerB != null) {
+      playerB.gameEnded();
+    }
+    if (playerW != null && playerW != playerB) {
+      playerW.gameEnded();
     }
   }
 
@@ -174,15 +158,35 @@ public abstract class AbstractReversi implements ReversiModel, ReadonlyReversiMo
 
   @Override
   public void refreshLegalMoves() {
-    for (int i = 0; i < board.getCoordOneSize(); i++) {
-      for (int j = 0; j < board.getCoordTwoSize(i); j++) {
-        if (board.isLegalMove(board.getCell(i, j), gameState)) {
-          board.getCell(i, j).setLegalMove(true);
-        } else {
-          board.getCell(i, j).setLegalMove(false);
-        }
+    if (shownLegalMoves == null) {
+      shownLegalMoves = new int[board.getCellCount()];
+      for (int i = 0; i < board.getCellCount(); i++) {
+        board.getCellAt(i).setLegalMove(false);
+      }
+    } else {
+      // Only the cells marked for the previous turn need to be cleared
+      for (int k = 0; k < shownLegalMoveCount; k++) {
+        board.getCellAt(shownLegalMoves[k]).setLegalMove(false);
       }
     }
+    if (gameState == GameStatus.BTURN) {
+      shownLegalMoveCount = board.getLegalMoves(CellStatus.BLACK, shownLegalMoves);
+    } else if (gameState == GameStatus.WTURN) {
+      shownLegalMoveCount = board.getLegalMoves(CellStatus.WHITE, shownLegalMoves);
+    } else {
+      shownLegalMoveCount = 0;
+    }
+    for (int k = 0; k < shownLegalMoveCount; k++) {
+      board.getCellAt(shownLegalMoves[k]).setLegalMove(true);
+    }
+    // The opponent only needs to be counted when the side to move is stuck
+    if (gameState == GameStatus.BTURN) {
+      bothSidesStuck = shownLegalMoveCount == 0 && board.countLegalMoves(CellStatus.WHITE) == 0;
+    } else if (gameState == GameStatus.WTURN) {
+      bothSidesStuck = shownLegalMoveCount == 0 && board.countLegalMoves(CellStatus.BLACK) == 0;
+    } else {
+      bothSidesStuck = true;
+    }
   }
 
   @Override
@@ -221,8 +225,8 @@ public abstract class AbstractReversi implements ReversiModel, ReadonlyReversiMo
       g.drawString("" + moveScore, xCoord, yCoord);
     }
 
-    int blackScore = this.countCellWithStatus(CellStatus.BLACK);
-    int whiteScore = this.countCellWithStatus(CellStatus.WHITE);
+    int blackScore = board.countCells(CellStatus.BLACK);
+    int whiteScore = board.countCells(CellStatus.WHITE);
 
     g.setFont(g.getFont().deriveFont(24.0f));
     g.setColor(Color.BLACK);
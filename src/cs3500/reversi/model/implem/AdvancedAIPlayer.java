@@ -1,6 +1,7 @@
 package cs3500.reversi.model.implem;
 
 import java.util.ArrayList;
+import java.util.concurrent.RecursiveAction;
 import cs3500.reversi.model.interf.Board;
 import cs3500.reversi.model.interf.Cell;
 import cs3500.reversi.model.interf.Player;
@@ -20,6 +21,14 @@ public class AdvancedAIPlayer implements Player {
   private final int cautiousness;
   private final int numOfSide;
 
+  // The number of threads scoring the legal moves; 1 scores them on the calling thread, more on
+  // the shared pool of that many threads
+  private final int parallelism;
+
+  // At or below this number of empty cells, the game is solved exactly instead of scored
+  private final int endgameEmpties;
+  private final long endgameMillis;
+
   /**
    * Constructs an AIPlayer with the given preference parameters.
    * 
@@ -31,11 +40,64 @@ public class AdvancedAIPlayer implements Player {
    */
   public AdvancedAIPlayer(int numOfSide, int cornerTendency, int nextToCornerPhobia, int greedy,
       int cautiousness) {
+    this(numOfSide, cornerTendency, nextToCornerPhobia, greedy, cautiousness, 1);
+  }
+
+  /**
+   * Constructs an AIPlayer with the given preference parameters, that scores the legal moves on
+   * the given number of threads. Every thread works on its own copy of the board, and the move
+   * chosen is the same as with one thread.
+   *
+   * @param cornerTendency the tendency to place a piece on a corner
+   * @param nextToCornerPhobia the phobia of placing a piece next to a corner
+   * @param greedy the tendency to place a piece on a cell that will flip the most pieces
+   * @param cautiousness the tendency to place a piece on a cell that not give the opponent a chance
+   *        to flip the most pieces
+   * @param parallelism the number of threads scoring the legal moves
+   * @throws IllegalArgumentException if parallelism is not positive
+   */
+  public AdvancedAIPlayer(int numOfSide, int cornerTendency, int nextToCornerPhobia, int greedy,
+      int cautiousness, int parallelism) {
+    this(numOfSide, cornerTendency, nextToCornerPhobia, greedy, cautiousness, parallelism, 0, 0);
+  }
+
+  /**
+   * Constructs an AIPlayer with the given preference parameters, that scores the legal moves on
+   * the given number of threads, and solves the end of the game exactly once few enough cells are
+   * empty. If the solver runs out of time, the move is chosen by the preferences as usual.
+   *
+   * @param cornerTendency the tendency to place a piece on a corner
+   * @param nextToCornerPhobia the phobia of placing a piece next to a corner
+   * @param greedy the tendency to place a piece on a cell that will flip the most pieces
+   * @param cautiousness the tendency to place a piece on a cell that not give the opponent a chance
+   *        to flip the most pieces
+   * @param parallelism the number of threads scoring the legal moves
+   * @param endgameEmpties the number of empty cells at or below which the game is solved, or 0 to
+   *        never solve it
+   * @param endgameMillis the time the solver has for each move, in milliseconds, which has to be
+   *        positive when the game is solved
+   * @throws IllegalArgumentException if parallelism is not positive, endgameEmpties or
+   *         endgameMillis is negative, or endgameMillis is 0 while endgameEmpties is not
+   */
+  public AdvancedAIPlayer(int numOfSide, int cornerTendency, int nextToCornerPhobia, int greedy,
+      int cautiousness, int parallelism, int endgameEmpties, long endgameMillis) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive");
+    }
+    if (endgameEmpties < 0 || endgameMillis < 0) {
+      throw new IllegalArgumentException("endgameEmpties and endgameMillis cannot be negative");
+    }
+    if (endgameEmpties > 0 && endgameMillis == 0) {
+      throw new IllegalArgumentException("endgameMillis must be positive to solve the endgame");
+    }
     this.cornerTendency = cornerTendency;
     this.nextToCornerPhobia = nextToCornerPhobia;
     this.greedy = greedy;
     this.cautiousness = cautiousness;
     this.numOfSide = numOfSide;
+    this.parallelism = parallelism;
+    this.endgameEmpties = endgameEmpties;
+    this.endgameMillis = endgameMillis;
   }
 
   /**
@@ -81,26 +143,18 @@ public class AdvancedAIPlayer implements Player {
   }
 
   /**
-   * Helper method to count the number of cells with the given status.
-   * 
-   * @param board the board
-   * @param cellStatus the status of the cells
-   * @return the number of cells with the given status
+   * Helper method to score a legal move. The lookahead is done with reversible moves on the given
+   * board, which is left as it was found.
+   *
+   * @param index the index of the cell to score
+   * @param board the board to look ahead on
+   * @param gameStatus the status of the game
+   * @param undoRecords two undo records of the board, for the move and the opponent reply
+   * @return the score of the move
    */
-  private int countCellWithStatus(Board board, CellStatus cellStatus) {
-    int count = 0;
-    for (int i = 0; i < board.getCoordOneSize(); i++) {
-      for (int j = 0; j < board.getCoordTwoSize(i); j++) {
-        if (board.getCell(i, j).getCellStatus() == cellStatus) {
-          count++;
-        }
-      }
-    }
-    return count;
-  }
-
-  private int getScore(Cell cell, Board board, GameStatus gameStatus) {
+  private int getScore(int index, Board board, GameStatus gameStatus, int[][] undoRecords) {
     int score = 0;
+    Cell cell = board.getCellAt(index);
 
     // Corner Tendency
     if (isCorner(cell, board)) {
@@ -116,24 +170,22 @@ public class AdvancedAIPlayer implements Player {
     // Greedy (Get the most pieces flipped)
     int currentScoreOnBoard;
     if (hypotheticalGameStatus == GameStatus.BTURN) {
-      currentScoreOnBoard = countCellWithStatus(board, CellStatus.BLACK);
+      currentScoreOnBoard = board.countCells(CellStatus.BLACK);
     } else if (hypotheticalGameStatus == GameStatus.WTURN) {
-      currentScoreOnBoard = countCellWithStatus(board, CellStatus.WHITE);
+      currentScoreOnBoard = board.countCells(CellStatus.WHITE);
     } else {
       throw new IllegalArgumentException("gameStatus cannot be GAMEOVER");
     }
 
-    Board boardCopyForGreedy = board.cloneBoard();
-    boardCopyForGreedy.oneMove(new PolygonCell(cell),
-        hypotheticalGameStatus == GameStatus.BTURN ? CellStatus.BLACK : CellStatus.WHITE);
+    board.makeMove(index,
+        hypotheticalGameStatus == GameStatus.BTURN ? CellStatus.BLACK : CellStatus.WHITE,
+        undoRecords[0]);
 
     int newScoreOnBoard;
     if (hypotheticalGameStatus == GameStatus.BTURN) {
-      newScoreOnBoard = countCellWithStatus(boardCopyForGreedy, CellStatus.BLACK);
-    } else if (hypotheticalGameStatus == GameStatus.WTURN) {
-      newScoreOnBoard = countCellWithStatus(boardCopyForGreedy, CellStatus.WHITE);
+      newScoreOnBoard = board.countCells(CellStatus.BLACK);
     } else {
-      throw new IllegalArgumentException("gameStatus cannot be GAMEOVER");
+      newScoreOnBoard = board.countCells(CellStatus.WHITE);
     }
 
     score += (newScoreOnBoard - currentScoreOnBoard) * greedy;
@@ -142,62 +194,27 @@ public class AdvancedAIPlayer implements Player {
 
     if (hypotheticalGameStatus == GameStatus.BTURN) {
       hypotheticalGameStatus = GameStatus.WTURN;
-    } else if (hypotheticalGameStatus == GameStatus.WTURN) {
-      hypotheticalGameStatus = GameStatus.BTURN;
-    }
-
-    int opponentScoreOnBoard;
-    if (hypotheticalGameStatus == GameStatus.WTURN) {
-      opponentScoreOnBoard = countCellWithStatus(boardCopyForGreedy, CellStatus.WHITE);
-    } else if (hypotheticalGameStatus == GameStatus.BTURN) {
-      opponentScoreOnBoard = countCellWithStatus(boardCopyForGreedy, CellStatus.BLACK);
     } else {
-      throw new IllegalArgumentException("gameStatus cannot be GAMEOVER");
+      hypotheticalGameStatus = GameStatus.BTURN;
     }
+    CellStatus opponentStatus =
+        hypotheticalGameStatus == GameStatus.BTURN ? CellStatus.BLACK : CellStatus.WHITE;
 
-    // refresh legal moves for the opponent
-    for (int i = 0; i < boardCopyForGreedy.getCoordOneSize(); i++) {
-      for (int j = 0; j < boardCopyForGreedy.getCoordTwoSize(i); j++) {
-        if (boardCopyForGreedy.isLegalMove(boardCopyForGreedy.getCell(i, j),
-            hypotheticalGameStatus)) {
-          boardCopyForGreedy.getCell(i, j).setLegalMove(true);
-        } else {
-          boardCopyForGreedy.getCell(i, j).setLegalMove(false);
-        }
-      }
-    }
+    int opponentScoreOnBoard = board.countCells(opponentStatus);
 
-    ArrayList<Cell> opponentLegalMoves = new ArrayList<Cell>();
-    for (int i = 0; i < boardCopyForGreedy.getCoordOneSize(); i++) {
-      for (int j = 0; j < boardCopyForGreedy.getCoordTwoSize(i); j++) {
-        if (boardCopyForGreedy.getCell(i, j).isLegalMove()) {
-          opponentLegalMoves.add(boardCopyForGreedy.getCell(i, j));
+    int maxOpponentScore = 0;
+    for (int i = 0; i < board.getCellCount(); i++) {
+      if (board.isLegalMove(i, opponentStatus)) {
+        board.makeMove(i, opponentStatus, undoRecords[1]);
+        int opponentNewScoreOnBoard = board.countCells(opponentStatus);
+        board.undoMove(undoRecords[1]);
+        if (opponentNewScoreOnBoard - opponentScoreOnBoard > maxOpponentScore) {
+          maxOpponentScore = opponentNewScoreOnBoard - opponentScoreOnBoard;
         }
       }
     }
 
-    ArrayList<Integer> opponentScores = new ArrayList<Integer>();
-    for (int i = 0; i < opponentLegalMoves.size(); i++) {
-      Board boardCopyForOpponent = boardCopyForGreedy.cloneBoard();
-      boardCopyForOpponent.oneMove(new PolygonCell(opponentLegalMoves.get(i)),
-          hypotheticalGameStatus == GameStatus.BTURN ? CellStatus.BLACK : CellStatus.WHITE);
-      int opponentNewScoreOnBoard;
-      if (hypotheticalGameStatus == GameStatus.WTURN) {
-        opponentNewScoreOnBoard = countCellWithStatus(boardCopyForOpponent, CellStatus.WHITE);
-      } else if (hypotheticalGameStatus == GameStatus.BTURN) {
-        opponentNewScoreOnBoard = countCellWithStatus(boardCopyForOpponent, CellStatus.BLACK);
-      } else {
-        throw new IllegalArgumentException("gameStatus cannot be GAMEOVER");
-      }
-      opponentScores.add(opponentNewScoreOnBoard - opponentScoreOnBoard);
-    }
-
-    int maxOpponentScore = 0;
-    for (int i = 0; i < opponentScores.size(); i++) {
-      if (opponentScores.get(i) > maxOpponentScore) {
-        maxOpponentScore = opponentScores.get(i);
-      }
-    }
+    board.undoMove(undoRecords[0]);
 
     score -= maxOpponentScore * cautiousness;
     return score;
@@ -222,18 +239,94 @@ public class AdvancedAIPlayer implements Player {
       return null;
     }
 
-    ArrayList<Integer> scores = new ArrayList<Integer>();
-    for (int i = 0; i < allLegalMoves.size(); i++) {
-      scores.add(getScore(allLegalMoves.get(i), board, gameStatus));
+    if (board.countCells(CellStatus.EMPTY) <= endgameEmpties
+        && (gameStatus == GameStatus.BTURN || gameStatus == GameStatus.WTURN)) {
+      EndgameSolver solver = new EndgameSolver(board.cloneBoard());
+      int solvedMove = solver.solve(
+          gameStatus == GameStatus.BTURN ? CellStatus.BLACK : CellStatus.WHITE,
+          System.nanoTime() + endgameMillis * 1_000_000L);
+      if (solver.isSolved()) {
+        return board.getCellAt(solvedMove);
+      }
+    }
+
+    int[] moveIndices = new int[allLegalMoves.size()];
+    for (int i = 0; i < moveIndices.length; i++) {
+      moveIndices[i] = board.getCellIndex(allLegalMoves.get(i));
+    }
+    int[] scores = new int[moveIndices.length];
+    if (parallelism == 1 || moveIndices.length == 1) {
+      scoreMoves(board, gameStatus, moveIndices, scores, 0, moveIndices.length);
+    } else {
+      SharedPools.get(parallelism).invoke(new ScoreTask(board, gameStatus, moveIndices, scores, 0,
+          moveIndices.length, Math.max(1, moveIndices.length / (4 * parallelism))));
     }
 
     int maxScoreIndex = 0;
-    for (int i = 0; i < scores.size(); i++) {
-      if (scores.get(i) > scores.get(maxScoreIndex)) {
+    for (int i = 0; i < scores.length; i++) {
+      if (scores[i] > scores[maxScoreIndex]) {
         maxScoreIndex = i;
       }
     }
-    System.out.println("maxScoreIndex: " + maxScoreIndex);
     return allLegalMoves.get(maxScoreIndex);
   }
+
+  /**
+   * Helper method to score a range of legal moves on one copy of the board.
+   *
+   * @param board the board to score the moves on, which is not changed
+   * @param gameStatus the status of the game
+   * @param moveIndices the indices of the legal moves
+   * @param scores the array to write the score of each move to
+   * @param from the first move of the range
+   * @param to the move after the last move of the range
+   */
+  private void scoreMoves(Board board, GameStatus gameStatus, int[] moveIndices, int[] scores,
+      int from, int to) {
+    // One copy of the board is enough: every lookahead is undone after scoring
+    Board boardCopy = board.cloneBoard();
+    int[][] undoRecords = {boardCopy.newUndoRecord(), boardCopy.newUndoRecord()};
+    for (int i = from; i < to; i++) {
+      scores[i] = getScore(moveIndices[i], boardCopy, gameStatus, undoRecords);
+    }
+  }
+
+  /**
+   * Scores a range of legal moves, splitting it between the threads of the pool until the ranges
+   * are small enough. Each range is scored on its own copy of the board.
+   */
+  private final class ScoreTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Board board;
+    private final GameStatus gameStatus;
+    private final int[] moveIndices;
+    private final int[] scores;
+    private final int from;
+    private final int to;
+    private final int grain;
+
+    private ScoreTask(Board board, GameStatus gameStatus, int[] moveIndices, int[] scores,
+        int from, int to, int grain) {
+      this.board = board;
+      this.gameStatus = gameStatus;
+      this.moveIndices = moveIndices;
+      this.scores = scores;
+      this.from = from;
+      this.to = to;
+      this.grain = grain;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= grain) {
+        scoreMoves(board, gameStatus, moveIndices, scores, from, to);
+      } else {
+        int middle = (from + to) >>> 1;
+        invokeAll(new ScoreTask(board, gameStatus, moveIndices, scores, from, middle, grain),
+            new ScoreTask(board, gameStatus, moveIndices, scores, middle, to, grain));
+      }
+    }
+  }
 }
@@ -0,0 +1,324 @@
+package cs3500.reversi.model.implem;
+
+import java.util.function.Consumer;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.interf.Cell;
+import cs3500.reversi.model.interf.Player;
+import cs3500.reversi.model.status.CellStatus;
+import cs3500.reversi.model.status.GameStatus;
+
+
+/**
+ * Represents an AI player that searches the game tree with alpha-beta, deepening the search until
+ * its time for the move runs out. The leaves of the search are scored with the same preference
+ * weights as AdvancedAIPlayer, applied to the whole position. The results of the searches are kept
+ * in a transposition table from one move to the next, and so is the history of the move ordering.
+ * If asked to, once few enough cells are empty, the player first tries to solve the rest of the
+ * game exactly in half of its time, and only searches with the weights if that fails. The weights
+ * can also build a PatternEvaluator, which scores the edges and corners by their contents.
+ */
+public class AlphaBetaAIPlayer implements Player {
+
+  private static final long DEFAULT_TABLE_BYTES = 16L << 20;
+
+  /**
+   * A number of empty cells at or below which solving the game pays off, for callers that opt in
+   * to the solver with the constructors taking endgameEmpties.
+   */
+  public static final int DEFAULT_ENDGAME_EMPTIES = 12;
+
+  private final int numOfSide;
+  private final int cornerTendency;
+  private final int nextToCornerPhobia;
+  private final int greedy;
+  private final int cautiousness;
+
+  private final long timeLimitMillis;
+  private final int maxDepth;
+  private final int endgameEmpties;
+  private final boolean patternEvaluation;
+
+  private final TranspositionTable table;
+
+  private Evaluator evaluator;
+
+  private MoveOrderer orderer;
+
+  private long lastNodeCount;
+  private int lastCompletedDepth;
+
+  /**
+   * Constructs an AlphaBetaAIPlayer with the given preference parameters and time for each move,
+   * which never solves the end of the game.
+   *
+   * @param numOfSide the number of sides of a cell of the board
+   * @param cornerTendency the weight of holding a corner
+   * @param nextToCornerPhobia the penalty of holding a cell next to a corner
+   * @param greedy the weight of holding a disc
+   * @param cautiousness the weight of having more legal moves than the opponent
+   * @param timeLimitMillis the time to think about each move, in milliseconds
+   * @throws IllegalArgumentException if the time limit is not positive
+   */
+  public AlphaBetaAIPlayer(int numOfSide, int cornerTendency, int nextToCornerPhobia, int greedy,
+      int cautiousness, long timeLimitMillis) {
+    this(numOfSide, cornerTendency, nextToCornerPhobia, greedy, cautiousness, timeLimitMillis,
+        TranspositionTable.MAX_DEPTH);
+  }
+
+  /**
+   * Constructs an AlphaBetaAIPlayer with the given preference parameters, time for each move and
+   * largest search depth, which never solves the end of the game.
+   *
+   * @param numOfSide the number of sides of a cell of the board
+   * @param cornerTendency the weight of holding a corner
+   * @param nextToCornerPhobia the penalty of holding a cell next to a corner
+   * @param greedy the weight of holding a disc
+   * @param cautiousness the weight of having more legal moves than the opponent
+   * @param timeLimitMillis the time to think about each move, in milliseconds
+   * @param maxDepth the largest depth to search, in plies
+   * @throws IllegalArgumentException if the time limit is not positive, or the depth is not
+   *         between 1 and TranspositionTable.MAX_DEPTH
+   */
+  public AlphaBetaAIPlayer(int numOfSide, int cornerTendency, int nextToCornerPhobia, int greedy,
+      int cautiousness, long timeLimitMillis, int maxDepth) {
+    this(numOfSide, cornerTendency, nextToCornerPhobia, greedy, cautiousness, timeLimitMillis,
+        maxDepth, 0);
+  }
+
+  /**
+   * Constructs an AlphaBetaAIPlayer with the given preference parameters, time for each move,
+   * largest search depth, and number of empty cells from which the end of the game is solved.
+   *
+   * @param numOfSide the number of sides of a cell of the board
+   * @param cornerTendency the weight of holding a corner
+   * @param nextToCornerPhobia the penalty of holding a cell next to a corner
+   * @param greedy the weight of holding a disc
+   * @param cautiousness the weight of having more legal moves than the opponent
+   * @param timeLimitMillis the time to think about each move, in milliseconds
+   * @param maxDepth the largest depth to search, in plies
+   * @param endgameEmpties the number of empty cells at or below which the player tries to solve
+   *        the game exactly, or 0 to never try
+   * @throws IllegalArgumentException if the time limit is not positive, the depth is not between
+   *         1 and TranspositionTable.MAX_DEPTH, or endgameEmpties is negative
+   */
+  public AlphaBetaAIPlayer(int numOfSide, int cornerTendency, int nextToCornerPhobia, int greedy,
+      int cautiousness, long timeLimitMillis, int maxDepth, int endgameEmpties) {
+    this(numOfSide, cornerTendency, nextToCornerPhobia, greedy, cautiousness, timeLimitMillis,
+        maxDepth, endgameEmpties, false);
+  }
+
+  /**
+   * Constructs an AlphaBetaAIPlayer with the given preference parameters, time for each move,
+   * largest search depth, number of empty cells from which the end of the game is solved, and
+   * evaluation.
+   *
+   * @param numOfSide the number of sides of a cell of the board
+   * @param cornerTendency the weight of holding a corner
+   * @param nextToCornerPhobia the penalty of holding a cell next to an empty corner
+   * @param greedy the weight of holding a disc
+   * @param cautiousness the weight of having more legal moves than the opponent
+   * @param timeLimitMillis the time to think about each move, in milliseconds
+   * @param maxDepth the largest depth to search, in plies
+   * @param endgameEmpties the number of empty cells at or below which the player tries to solve
+   *        the game exactly, or 0 to never try
+   * @param patternEvaluation true to score positions with a PatternEvaluator, false with a
+   *        WeightedEvaluator
+   * @throws IllegalArgumentException if the time limit is not positive, the depth is not between
+   *         1 and TranspositionTable.MAX_DEPTH, or endgameEmpties is negative
+   */
+  public AlphaBetaAIPlayer(int numOfSide, int cornerTendency, int nextToCornerPhobia, int greedy,
+      int cautiousness, long timeLimitMillis, int maxDepth, int endgameEmpties,
+      boolean patternEvaluation) {
+    this(numOfSide, cornerTendency, nextToCornerPhobia, greedy, cautiousness, timeLimitMillis,
+        maxDepth, endgameEmpties, patternEvaluation, DEFAULT_TABLE_BYTES);
+  }
+
+  /**
+   * Constructs an AlphaBetaAIPlayer with the given preference parameters, time for each move,
+   * largest search depth, number of empty cells from which the end of the game is solved,
+   * evaluation, and memory for its transposition table. Players that only think briefly, such as
+   * the many players of self-play matches, do well with a small table.
+   *
+   * @param numOfSide the number of sides of a cell of the board
+   * @param cornerTendency the weight of holding a corner
+   * @param nextToCornerPhobia the penalty of holding a cell next to an empty corner
+   * @param greedy the weight of holding a disc
+   * @param cautiousness the weight of having more legal moves than the opponent
+   * @param timeLimitMillis the time to think about each move, in milliseconds
+   * @param maxDepth the largest depth to search, in plies
+   * @param endgameEmpties the number of empty cells at or below which the player tries to solve
+   *        the game exactly, or 0 to never try
+   * @param patternEvaluation true to score positions with a PatternEvaluator, false with a
+   *        WeightedEvaluator
+   * @param tableBytes the memory of the transposition table, in bytes
+   * @throws IllegalArgumentException if the time limit is not positive, the depth is not between
+   *         1 and TranspositionTable.MAX_DEPTH, endgameEmpties is negative, or the table is too
+   *         small to hold one bucket
+   */
+  public AlphaBetaAIPlayer(int numOfSide, int cornerTendency, int nextToCornerPhobia, int greedy,
+      int cautiousness, long timeLimitMillis, int maxDepth, int endgameEmpties,
+      boolean patternEvaluation, long tableBytes) {
+    if (endgameEmpties < 0) {
+      throw new IllegalArgumentException("endgameEmpties cannot be negative");
+    }
+    if (timeLimitMillis <= 0) {
+      throw new IllegalArgumentException("timeLimitMillis must be positive");
+    }
+    if (maxDepth < 1 || maxDepth > TranspositionTable.MAX_DEPTH) {
+      throw new IllegalArgumentException(
+          "maxDepth must be between 1 and " + TranspositionTable.MAX_DEPTH);
+    }
+    this.numOfSide = numOfSide;
+    this.cornerTendency = cornerTendency;
+    this.nextToCornerPhobia = nextToCornerPhobia;
+    this.greedy = greedy;
+    this.cautiousness = cautiousness;
+    this.timeLimitMillis = timeLimitMillis;
+    this.maxDepth = maxDepth;
+    this.endgameEmpties = endgameEmpties;
+    this.patternEvaluation = patternEvaluation;
+    this.table = new TranspositionTable(tableBytes);
+  }
+
+  @Override
+  public Cell move(Board board, GameStatus gameStatus) {
+    if (board == null) {
+      throw new IllegalArgumentException("board cannot be null");
+    }
+    CellStatus toMove;
+    if (gameStatus == GameStatus.BTURN) {
+      toMove = CellStatus.BLACK;
+    } else if (gameStatus == GameStatus.WTURN) {
+      toMove = CellStatus.WHITE;
+    } else {
+      return null;
+    }
+    long start = System.nanoTime();
+    long deadline = start + timeLimitMillis * 1_000_000L;
+
+    if (board.countCells(CellStatus.EMPTY) <= endgameEmpties) {
+      EndgameSolver solver = new EndgameSolver(board.cloneBoard());
+      int solvedMove = solver.solve(toMove, start + timeLimitMillis * 500_000L);
+      if (solver.isSolved()) {
+        return solvedMove < 0 ? null : board.getCellAt(solvedMove);
+      }
+    }
+
+    AlphaBetaSearcher searcher = newSearcher(board);
+    int bestMove = searcher.findBestMove(toMove, deadline, maxDepth);
+    lastNodeCount = searcher.getNodeCount();
+    lastCompletedDepth = searcher.getCompletedDepth();
+    return bestMove < 0 ? null : board.getCellAt(bestMove);
+  }
+
+  /**
+   * Forgets what the player learned during the game, so that it plays the next game as a new
+   * player would, without allocating its transposition table again.
+   */
+  @Override
+  public void gameEnded() {
+    // The next move builds the evaluator again, which clears the table and the move ordering
+    evaluator = null;
+  }
+
+  /**
+   * Analyzes the position on the given board: ranks the best moves of the side to move with their
+   * scores, deepening the search until the time of a move runs out. The analysis of every
+   * completed depth is handed to the listener as soon as it is found, on the calling thread.
+   *
+   * @param board the board to analyze, which is left as it was found
+   * @param gameStatus the current game status
+   * @param moveCount the number of best moves to rank
+   * @param listener the listener of the analysis of every completed depth, or null
+   * @return the analysis of the deepest completed depth, or null if the game is over or the side
+   *         to move has no legal move
+   * @throws IllegalArgumentException if the board is null or moveCount is not positive
+   */
+  public MoveAnalysis analyze(Board board, GameStatus gameStatus, int moveCount,
+      Consumer<MoveAnalysis> listener) {
+    if (board == null) {
+      throw new IllegalArgumentException("board cannot be null");
+    }
+    if (moveCount < 1) {
+      throw new IllegalArgumentException("moveCount must be positive");
+    }
+    CellStatus toMove;
+    if (gameStatus == GameStatus.BTURN) {
+      toMove = CellStatus.BLACK;
+    } else if (gameStatus == GameStatus.WTURN) {
+      toMove = CellStatus.WHITE;
+    } else {
+      return null;
+    }
+    long deadline = System.nanoTime() + timeLimitMillis * 1_000_000L;
+    AlphaBetaSearcher searcher = newSearcher(board);
+    MoveAnalysis analysis = searcher.analyze(toMove, deadline, maxDepth, moveCount, board,
+        listener);
+    lastNodeCount = searcher.getNodeCount();
+    lastCompletedDepth = searcher.getCompletedDepth();
+    return analysis;
+  }
+
+  /**
+   * Gets the number of nodes searched for the last move.
+   *
+   * @return the number of nodes
+   */
+  public long getLastNodeCount() {
+    return lastNodeCount;
+  }
+
+  /**
+   * Gets the deepest iteration completed for the last move.
+   *
+   * @return the completed depth
+   */
+  public int getLastCompletedDepth() {
+    return lastCompletedDepth;
+  }
+
+  /**
+   * Gets the number of cutoffs of the search for the last move.
+   *
+   * @return the number of cutoffs
+   */
+  public long getLastCutoffCount() {
+    return orderer == null ? 0 : orderer.getCutoffCount();
+  }
+
+  /**
+   * Helper method to create a searcher on a copy of the given board, building the evaluator and
+   * the move orderer for the board first if they were built for another one.
+   *
+   * @param board the board to search
+   * @return the searcher
+   */
+  private AlphaBetaSearcher newSearcher(Board board) {
+    if (evaluator == null || !evaluator.fits(board)) {
+      if (patternEvaluation) {
+        evaluator = new PatternEvaluator(board, cornerTendency, nextToCornerPhobia, greedy,
+            cautiousness);
+      } else {
+        evaluator = new WeightedEvaluator(board, numOfSide, cornerTendency, nextToCornerPhobia,
+            greedy, cautiousness);
+      }
+      table.clear();
+      orderer = new MoveOrderer(board.getCellCount());
+    }
+    return new AlphaBetaSearcher(board.cloneBoard(), evaluator, table, orderer);
+  }
+
+  /**
+   * Gets the share of the cutoffs of the search for the last move that came from the first move
+   * tried. The closer to 1, the better the moves were ordered.
+   *
+   * @return the share of first move cutoffs, or 0 if there was no cutoff
+   */
+  public double getLastFirstMoveCutoffRate() {
+    if (orderer == null || orderer.getCutoffCount() == 0) {
+      return 0;
+    }
+    return (double) orderer.getFirstMoveCutoffCount() / orderer.getCutoffCount();
+  }
+}
@@ -0,0 +1,533 @@
+package cs3500.reversi.model.implem;
+
+import java.util.function.Consumer;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.status.CellStatus;
+import cs3500.reversi.model.status.GameStatus;
+
+/**
+ * Searches the game tree of one board with negamax alpha-beta, principal variation search and
+ * iterative deepening, under a deadline. The searcher plays the moves on its own board with
+ * makeMove and undoMove, so it allocates nothing while searching. A searcher is used by one thread
+ * at a time, but several searchers may share one transposition table, and another thread may stop
+ * a searcher.
+ */
+final class AlphaBetaSearcher {
+
+  // Larger than any score
+  static final int INFINITY = 1 << 30;
+
+  // The score of a won game, before the final disc difference is added
+  static final int WIN_SCORE = 1 << 24;
+
+  // How many nodes are searched between two looks at the clock, minus one
+  private static final int CHECK_INTERVAL = 1023;
+
+  private final Board board;
+
+  private final Evaluator evaluator;
+
+  private final TranspositionTable table;
+
+  private final MoveOrderer orderer;
+
+  // The legal moves and the undo record of every ply, created when the search first gets there
+  private int[][] moves;
+  private int[][] undoRecords;
+
+  private long deadline;
+  private boolean checkTime;
+  private boolean aborted;
+
+  // Set by another thread to end the search at the next look at the clock
+  private volatile boolean stopped;
+
+  private long nodes;
+  private int completedDepth;
+  private int bestScore;
+
+  /**
+   * Constructs a searcher on the given board. The board is changed during a search, and left as
+   * it was found after it.
+   *
+   * @param board the board to search
+   * @param evaluator the evaluator of the leaves, built for the geometry of the board
+   * @param table the transposition table
+   */
+  AlphaBetaSearcher(Board board, Evaluator evaluator, TranspositionTable table) {
+    this(board, evaluator, table, new MoveOrderer(board.getCellCount()));
+  }
+
+  /**
+   * Constructs a searcher on the given board, ordering its moves with the given orderer, which
+   * keeps its history from earlier searches.
+   *
+   * @param board the board to search
+   * @param evaluator the evaluator of the leaves, built for the geometry of the board
+   * @param table the transposition table
+   * @param orderer the move orderer, for boards with as many cells as the board
+   */
+  AlphaBetaSearcher(Board board, Evaluator evaluator, TranspositionTable table,
+      MoveOrderer orderer) {
+    this.board = board;
+    this.evaluator = evaluator;
+    this.table = table;
+    this.orderer = orderer;
+    this.moves = new int[0][];
+    this.undoRecords = new int[0][];
+  }
+
+  /**
+   * Finds the best move for the given color, deepening the search one ply at a time until the
+   * deadline or the maximum depth. The first iteration always completes. When the deadline
+   * interrupts an iteration, the best move of that iteration is kept if the iteration already
+   * proved it better than the previous best move.
+   *
+   * @param toMove the color to move
+   * @param deadlineNanos the value of System.nanoTime at which the search must stop
+   * @param maxDepth the largest depth to search
+   * @return the index of the best move, or -1 if the color has no legal move
+   */
+  int findBestMove(CellStatus toMove, long deadlineNanos, int maxDepth) {
+    table.newSearch();
+    return findBestMove(toMove, deadlineNanos, 1, maxDepth);
+  }
+
+  /**
+   * Finds the best move for the given color like findBestMove, but starting at the given depth
+   * and without starting a new search in the transposition table, so that several searchers can
+   * search the same position at staggered depths and share what they find through the table. Only
+   * an iteration at depth 1 is sure to complete.
+   *
+   * @param toMove the color to move
+   * @param deadlineNanos the value of System.nanoTime at which the search must stop
+   * @param firstDepth the depth of the first iteration
+   * @param maxDepth the largest depth to search
+   * @return the index of the best move, or -1 if the color has no legal move
+   */
+  int findBestMove(CellStatus toMove, long deadlineNanos, int firstDepth, int maxDepth) {
+    this.deadline = deadlineNanos;
+    this.nodes = 0;
+    this.completedDepth = 0;
+    this.aborted = false;
+    orderer.newSearch();
+    orderer.resetStatistics();
+    int[] rootMoves = movesAt(0);
+    int count = board.getLegalMoves(toMove, rootMoves);
+    if (count == 0) {
+      return -1;
+    }
+    int bestMove = rootMoves[0];
+    // More plies than this cannot be played: every ply fills a cell or is a pass followed by one
+    int maxPlies = 2 * board.countCells(CellStatus.EMPTY);
+    for (int depth = firstDepth; depth <= maxDepth; depth++) {
+      checkTime = depth > 1;
+      int best = searchRoot(depth, toMove, rootMoves, count);
+      if (best >= 0) {
+        bestMove = rootMoves[best];
+        // The principal move is searched first at the next depth
+        rootMoves[best] = rootMoves[0];
+        rootMoves[0] = bestMove;
+      }
+      if (aborted) {
+        break;
+      }
+      completedDepth = depth;
+      if (depth >= maxPlies) {
+        break;
+      }
+    }
+    return bestMove;
+  }
+
+  /**
+   * Ranks the best moves of the given color, deepening the search one ply at a time like
+   * findBestMove. The best moveCount moves get exact scores; the others are only proven worse.
+   * After every completed iteration, the ranking is handed to the listener, so that callers can
+   * show it before the search ends. An iteration interrupted by the deadline is thrown away.
+   *
+   * @param toMove the color to move
+   * @param deadlineNanos the value of System.nanoTime at which the search must stop
+   * @param maxDepth the largest depth to search
+   * @param moveCount the number of moves to rank
+   * @param cellBoard the board whose cells the analysis refers to
+   * @param listener the listener of every completed iteration, or null
+   * @return the analysis of the deepest completed iteration, or null if the color has no legal
+   *         move
+   */
+  MoveAnalysis analyze(CellStatus toMove, long deadlineNanos, int maxDepth, int moveCount,
+      Board cellBoard, Consumer<MoveAnalysis> listener) {
+    table.newSearch();
+    this.deadline = deadlineNanos;
+    this.nodes = 0;
+    this.completedDepth = 0;
+    this.aborted = false;
+    orderer.newSearch();
+    orderer.resetStatistics();
+    int[] rootMoves = movesAt(0);
+    int count = board.getLegalMoves(toMove, rootMoves);
+    if (count == 0) {
+      return null;
+    }
+    int ranked = Math.min(moveCount, count);
+    int[] scores = new int[count];
+    int[] iterationMoves = new int[count];
+    int[] iterationScores = new int[count];
+    MoveAnalysis analysis = null;
+    int maxPlies = 2 * board.countCells(CellStatus.EMPTY);
+    for (int depth = 1; depth <= maxDepth; depth++) {
+      checkTime = depth > 1;
+      System.arraycopy(rootMoves, 0, iterationMoves, 0, count);
+      searchRootMultiPv(depth, toMove, iterationMoves, iterationScores, count, ranked);
+      if (aborted) {
+        break;
+      }
+      System.arraycopy(iterationMoves, 0, rootMoves, 0, count);
+      System.arraycopy(iterationScores, 0, scores, 0, count);
+      completedDepth = depth;
+      bestScore = scores[0];
+      analysis = new MoveAnalysis(cellBoard, rootMoves, scores, ranked, depth, nodes);
+      if (listener != null) {
+        listener.accept(analysis);
+      }
+      if (depth >= maxPlies) {
+        break;
+      }
+    }
+    return analysis;
+  }
+
+  /**
+   * Stops the search running on another thread, which then returns its best move so far. A
+   * searcher cannot be restarted once stopped.
+   */
+  void stop() {
+    stopped = true;
+  }
+
+  /**
+   * Gets the number of nodes visited by the last search.
+   *
+   * @return the number of nodes
+   */
+  long getNodeCount() {
+    return nodes;
+  }
+
+  /**
+   * Gets the move orderer of the searcher, which holds the cutoff statistics of the last search.
+   *
+   * @return the move orderer
+   */
+  MoveOrderer getMoveOrderer() {
+    return orderer;
+  }
+
+  /**
+   * Gets the deepest iteration the last search completed.
+   *
+   * @return the completed depth
+   */
+  int getCompletedDepth() {
+    return completedDepth;
+  }
+
+  /**
+   * Gets the score of the best move found by the last completed iteration.
+   *
+   * @return the score, from the point of view of the side to move
+   */
+  int getBestScore() {
+    return bestScore;
+  }
+
+  /**
+   * Helper function to search the root moves to the given depth.
+   *
+   * @param depth the depth to search
+   * @param toMove the color to move
+   * @param rootMoves the legal moves of the root
+   * @param count the number of legal moves
+   * @return the position of the best move in rootMoves, or -1 if the deadline came before any
+   *         move was searched
+   */
+  private int searchRoot(int depth, CellStatus toMove, int[] rootMoves, int count) {
+    CellStatus opponent = opposite(toMove);
+    int[] undoRecord = undoRecordAt(0);
+    int alpha = -INFINITY;
+    int best = -1;
+    for (int i = 0; i < count; i++) {
+      board.makeMove(rootMoves[i], toMove, undoRecord);
+      int score;
+      if (i == 0) {
+        score = -search(depth - 1, -INFINITY, INFINITY, opponent, 1);
+      } else {
+        score = -search(depth - 1, -alpha - 1, -alpha, opponent, 1);
+        if (score > alpha && !aborted) {
+          score = -search(depth - 1, -INFINITY, -alpha, opponent, 1);
+        }
+      }
+      board.undoMove(undoRecord);
+      if (aborted) {
+        break;
+      }
+      if (score > alpha) {
+        alpha = score;
+        best = i;
+      }
+    }
+    if (!aborted) {
+      bestScore = alpha;
+      table.store(hashOf(toMove), Math.min(depth, TranspositionTable.MAX_DEPTH),
+          TranspositionTable.EXACT, alpha, rootMoves[best]);
+    }
+    return best;
+  }
+
+  /**
+   * Helper function to search the root moves to the given depth, keeping the exact score of the
+   * best ones. A move only gets an exact score if it can beat the worst of the ranked moves found
+   * so far; the others are searched with a null window and keep an upper bound. The moves are
+   * sorted best first at the end.
+   *
+   * @param depth the depth to search
+   * @param toMove the color to move
+   * @param rootMoves the legal moves of the root, best first by the last iteration
+   * @param scores the array to fill with the score of every move
+   * @param count the number of legal moves
+   * @param ranked the number of moves to rank, at least 1
+   */
+  private void searchRootMultiPv(int depth, CellStatus toMove, int[] rootMoves, int[] scores,
+      int count, int ranked) {
+    CellStatus opponent = opposite(toMove);
+    int[] undoRecord = undoRecordAt(0);
+    // The scores of the ranked moves found so far, best first
+    int[] top = new int[ranked];
+    int topCount = 0;
+    for (int i = 0; i < count; i++) {
+      board.makeMove(rootMoves[i], toMove, undoRecord);
+      int score;
+      if (topCount < ranked) {
+        score = -search(depth - 1, -INFINITY, INFINITY, opponent, 1);
+      } else {
+        int threshold = top[ranked - 1];
+        score = -search(depth - 1, -threshold - 1, -threshold, opponent, 1);
+        if (score > threshold && !aborted) {
+          score = -search(depth - 1, -INFINITY, -threshold, opponent, 1);
+        }
+      }
+      board.undoMove(undoRecord);
+      if (aborted) {
+        return;
+      }
+      scores[i] = score;
+      if (topCount < ranked || score > top[ranked - 1]) {
+        int j = Math.min(topCount, ranked - 1);
+        while (j > 0 && top[j - 1] < score) {
+          top[j] = top[j - 1];
+          j--;
+        }
+        top[j] = score;
+        topCount = Math.min(topCount + 1, ranked);
+      }
+    }
+    // Insertion sort, which keeps the order of the last iteration between equal scores
+    for (int i = 1; i < count; i++) {
+      int move = rootMoves[i];
+      int score = scores[i];
+      int j = i - 1;
+      while (j >= 0 && scores[j] < score) {
+        rootMoves[j + 1] = rootMoves[j];
+        scores[j + 1] = scores[j];
+        j--;
+      }
+      rootMoves[j + 1] = move;
+      scores[j + 1] = score;
+    }
+    table.store(hashOf(toMove), Math.min(depth, TranspositionTable.MAX_DEPTH),
+        TranspositionTable.EXACT, scores[0], rootMoves[0]);
+  }
+
+  /**
+   * Helper function to search a position with negamax alpha-beta and principal variation search.
+   *
+   * @param depth the remaining depth
+   * @param alpha the lower bound of the window
+   * @param beta the upper bound of the window
+   * @param toMove the color to move
+   * @param ply the distance from the root
+   * @return the score of the position for the side to move, or 0 if the search was aborted
+   */
+  private int search(int depth, int alpha, int beta, CellStatus toMove, int ply) {
+    if ((++nodes & CHECK_INTERVAL) == 0 && checkTime
+        && (stopped || System.nanoTime() - deadline > 0)) {
+      aborted = true;
+    }
+    if (aborted) {
+      return 0;
+    }
+    CellStatus opponent = opposite(toMove);
+    long key = hashOf(toMove);
+    int originalAlpha = alpha;
+    int hashMove = -1;
+    long entry = table.probe(key);
+    if (entry != TranspositionTable.MISS) {
+      hashMove = TranspositionTable.getBestMove(entry);
+      if (TranspositionTable.getDepth(entry) >= depth) {
+        int score = TranspositionTable.getScore(entry);
+        int bound = TranspositionTable.getBound(entry);
+        if (bound == TranspositionTable.EXACT) {
+          return score;
+        } else if (bound == TranspositionTable.LOWER_BOUND) {
+          alpha = Math.max(alpha, score);
+        } else {
+          beta = Math.min(beta, score);
+        }
+        if (alpha >= beta) {
+          return score;
+        }
+      }
+    }
+
+    int[] legalMoves = movesAt(ply);
+    int count = board.getLegalMoves(toMove, legalMoves);
+    if (count == 0) {
+      if (board.countLegalMoves(opponent) == 0) {
+        return finalScore(toMove);
+      }
+      if (depth == 0) {
+        return evaluator.evaluate(board, toMove);
+      }
+      return -search(depth - 1, -beta, -alpha, opponent, ply + 1);
+    }
+    if (depth == 0) {
+      return evaluator.evaluate(board, toMove);
+    }
+    orderer.order(legalMoves, count, hashMove, ply, toMove);
+
+    int[] undoRecord = undoRecordAt(ply);
+    int best = -INFINITY;
+    int bestMove = -1;
+    for (int i = 0; i < count; i++) {
+      int move = legalMoves[i];
+      board.makeMove(move, toMove, undoRecord);
+      int score;
+      if (i == 0) {
+        score = -search(depth - 1, -beta, -alpha, opponent, ply + 1);
+      } else {
+        score = -search(depth - 1, -alpha - 1, -alpha, opponent, ply + 1);
+        if (score > alpha && score < beta && !aborted) {
+          score = -search(depth - 1, -beta, -alpha, opponent, ply + 1);
+        }
+      }
+      board.undoMove(undoRecord);
+      if (aborted) {
+        return 0;
+      }
+      if (score > best) {
+        best = score;
+        bestMove = move;
+        if (score > alpha) {
+          alpha = score;
+          if (alpha >= beta) {
+            orderer.recordCutoff(move, i, depth, ply, toMove);
+            break;
+          }
+        }
+      }
+    }
+
+    int bound;
+    if (best <= originalAlpha) {
+      bound = TranspositionTable.UPPER_BOUND;
+    } else if (best >= beta) {
+      bound = TranspositionTable.LOWER_BOUND;
+    } else {
+      bound = TranspositionTable.EXACT;
+    }
+    table.store(key, Math.min(depth, TranspositionTable.MAX_DEPTH), bound, best, bestMove);
+    return best;
+  }
+
+  /**
+   * Helper function to score a finished game for the side to move: a win is worth more than any
+   * evaluation, and bigger wins are worth more.
+   *
+   * @param toMove the color to move
+   * @return the score of the finished game
+   */
+  private int finalScore(CellStatus toMove) {
+    int difference = board.countCells(toMove) - board.countCells(opposite(toMove));
+    if (difference > 0) {
+      return WIN_SCORE + difference;
+    } else if (difference < 0) {
+      return -WIN_SCORE + difference;
+    }
+    return 0;
+  }
+
+  /**
+   * Helper function to get the hash of the position with the given color to move.
+   *
+   * @param toMove the color to move
+   * @return the hash of the position
+   */
+  private long hashOf(CellStatus toMove) {
+    return board.getHash(toMove == CellStatus.BLACK ? GameStatus.BTURN : GameStatus.WTURN);
+  }
+
+  /**
+   * Helper function to get the move list of a ply, creating it on first use.
+   *
+   * @param ply the ply
+   * @return the move list of the ply
+   */
+  private int[] movesAt(int ply) {
+    if (ply >= moves.length) {
+      growTo(ply + 1);
+    }
+    return moves[ply];
+  }
+
+  /**
+   * Helper function to get the undo record of a ply, creating it on first use.
+   *
+   * @param ply the ply
+   * @return the undo record of the ply
+   */
+  private int[] undoRecordAt(int ply) {
+    if (ply >= undoRecords.length) {
+      growTo(ply + 1);
+    }
+    return undoRecords[ply];
+  }
+
+  /**
+   * Helper function to create the move lists and undo records up to the given number of plies.
+   *
+   * @param plies the number of plies
+   */
+  private void growTo(int plies) {
+    int[][] newMoves = new int[plies][];
+    int[][] newUndoRecords = new int[plies][];
+    System.arraycopy(moves, 0, newMoves, 0, moves.length);
+    System.arraycopy(undoRecords, 0, newUndoRecords, 0, undoRecords.length);
+    for (int i = moves.length; i < plies; i++) {
+      newMoves[i] = new int[board.getCellCount()];
+      newUndoRecords[i] = board.newUndoRecord();
+    }
+    moves = newMoves;
+    undoRecords = newUndoRecords;
+  }
+
+  /**
+   * Helper function to get the other color.
+   *
+   * @param cellStatus BLACK or WHITE
+   * @return the other color
+   */
+  private static CellStatus opposite(CellStatus cellStatus) {
+    return cellStatus == CellStatus.BLACK ? CellStatus.WHITE : CellStatus.BLACK;
+  }
+}
@@ -0,0 +1,73 @@
+package cs3500.reversi.model.implem;
+
+/**
+ * The immutable layout of a polygon game board: the shape of every cell in ring order, where each
+ * ring starts, the neighbor table and the spatial index. It is built once per board and shared by
+ * all the clones of that board, which only copy the state of the cells. It also holds the bitboard
+ * engine the clones copy theirs from, built on first use.
+ */
+final class BoardGeometry {
+
+  // The shape of every cell, in the ring order of the grid
+  final CellGeometry[] cells;
+
+  // ringStarts[coordOne] is the index of the cell (coordOne, 0); the last entry is the cell count
+  final int[] ringStarts;
+
+  final int numOfSide;
+
+  final int numOfDirection;
+
+  // neighbors[index * numOfDirection + direction] is the index of the adjacent cell, or -1
+  final int[] neighbors;
+
+  final CellSpatialIndex spatialIndex;
+
+  // zobristKeys[index * 3 + status ordinal] is the hash key of a cell with that status; the keys
+  // of empty cells are 0, so that changing a cell from one status to another is a single XOR
+  final long[] zobristKeys;
+
+  // The bitboard engine of the layout that the copies of a board copy theirs from, built by the
+  // first copy; two copies made at once may both build it, and either one serves
+  volatile AbstractBitboard bitboard;
+
+  /**
+   * Constructs the layout of a board.
+   *
+   * @param cells the shape of every cell, in ring order
+   * @param ringStarts the index of the first cell of every ring, followed by the cell count
+   * @param numOfSide the number of sides of a cell
+   * @param numOfDirection the number of directions a line of cells can run in
+   * @param neighbors the neighbor table
+   * @param spatialIndex the spatial index of the cells
+   */
+  BoardGeometry(CellGeometry[] cells, int[] ringStarts, int numOfSide, int numOfDirection,
+      int[] neighbors, CellSpatialIndex spatialIndex) {
+    this.cells = cells;
+    this.ringStarts = ringStarts;
+    this.numOfSide = numOfSide;
+    this.numOfDirection = numOfDirection;
+    this.neighbors = neighbors;
+    this.spatialIndex = spatialIndex;
+    this.zobristKeys = new long[cells.length * 3];
+    for (int i = 0; i < cells.length; i++) {
+      zobristKeys[i * 3 + 1] = zobristKey(2 * i + 1);
+      zobristKeys[i * 3 + 2] = zobristKey(2 * i + 2);
+    }
+  }
+
+  /**
+   * Generates the nth hash key. The keys are the outputs of the SplitMix64 generator with a fixed
+   * seed, so the same position gets the same hash in every run of the program, which lets hashes
+   * be saved to files and compared across runs.
+   *
+   * @param n the number of the key
+   * @return the nth key
+   */
+  static long zobristKey(long n) {
+    long z = 0x5DEECE66DL + n * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
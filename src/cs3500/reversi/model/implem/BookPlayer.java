@@ -0,0 +1,68 @@
+package cs3500.reversi.model.implem;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.interf.Cell;
+import cs3500.reversi.model.interf.Player;
+import cs3500.reversi.model.status.CellStatus;
+import cs3500.reversi.model.status.GameStatus;
+
+
+/**
+ * Represents a player that plays the moves of an opening book while the game is in the book, and
+ * lets another player choose the moves once it leaves it. A book built for another board shape or
+ * size is never used.
+ */
+public class BookPlayer implements Player {
+
+  private final OpeningBook book;
+  private final Player fallback;
+
+  private boolean lastMoveFromBook;
+
+  /**
+   * Constructs a BookPlayer with the given book, and the player for the positions out of it.
+   *
+   * @param book the opening book
+   * @param fallback the player for the positions that are not in the book
+   * @throws IllegalArgumentException if the book or the player is null
+   */
+  public BookPlayer(OpeningBook book, Player fallback) {
+    if (book == null || fallback == null) {
+      throw new IllegalArgumentException("book and fallback cannot be null");
+    }
+    this.book = book;
+    this.fallback = fallback;
+  }
+
+  @Override
+  public Cell move(Board board, GameStatus gameStatus) {
+    if (board == null) {
+      throw new IllegalArgumentException("board cannot be null");
+    }
+    lastMoveFromBook = false;
+    if ((gameStatus == GameStatus.BTURN || gameStatus == GameStatus.WTURN) && book.fits(board)) {
+      int move = book.lookup(board.getHash(gameStatus));
+      CellStatus toMove = gameStatus == GameStatus.BTURN ? CellStatus.BLACK : CellStatus.WHITE;
+      // A hash collision could give a move of another position
+      if (move >= 0 && move < board.getCellCount() && board.isLegalMove(move, toMove)) {
+        lastMoveFromBook = true;
+        return board.getCellAt(move);
+      }
+    }
+    return fallback.move(board, gameStatus);
+  }
+
+  @Override
+  public void gameEnded() {
+    fallback.gameEnded();
+  }
+
+  /**
+   * Checks if the last move came from the book.
+   *
+   * @return true if the last move was a book move
+   */
+  public boolean isLastMoveFromBook() {
+    return lastMoveFromBook;
+  }
+}
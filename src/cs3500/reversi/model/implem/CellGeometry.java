@@ -0,0 +1,157 @@
+package cs3500.reversi.model.implem;
+
+import java.awt.Color;
+import java.awt.Graphics;
+
+import cs3500.reversi.model.position.PolarPosition;
+import cs3500.reversi.model.position.Position;
+import cs3500.reversi.model.status.CellStatus;
+
+/**
+ * The immutable shape of a polygonal cell: its center, its vertices and how it is drawn. The
+ * vertices are computed once, so copies of a cell and copies of a board share the same geometry
+ * instead of redoing the trigonometry.
+ */
+final class CellGeometry {
+
+  private final Position center;
+
+  private final int sides;
+
+  private final Position[] vertices;
+
+  private final double orientation;
+
+  private final double radius;
+
+  /**
+   * Constructs the shape of a polygonal cell with the given parameters.
+   *
+   * @param center the center position of the cell
+   * @param radius the radius of the cell (distance from the center to any vertex of the cell)
+   * @param sides the number of sides of the cell
+   * @param orientation the orientation of the cell in radians, counter-clockwise from the positive
+   *        x-axis
+   * @throws IllegalArgumentException if radius is less than or equal to 0, or sides is less than 3
+   */
+  CellGeometry(Position center, double radius, int sides, double orientation) {
+    if (radius <= 0) {
+      throw new IllegalArgumentException("radius must be greater than 0");
+    }
+
+    if (sides < 3) {
+      throw new IllegalArgumentException("sides must be greater than or equal to 3");
+    }
+
+    this.center = center;
+    this.sides = sides;
+    this.orientation = orientation;
+    this.radius = radius;
+    vertices = new Position[sides];
+    for (int i = 0; i < sides; i++) {
+      vertices[i] =
+          new PolarPosition(radius, (orientation + i * 2 * Math.PI / sides) % (2 * Math.PI))
+              .add(center);
+    }
+  }
+
+  /**
+   * Gets the center of the cell.
+   *
+   * @return the center of the cell
+   */
+  Position getCenter() {
+    return center;
+  }
+
+  /**
+   * Checks if a position is inside the cell.
+   *
+   * @param targetPosition the position to check
+   * @return true if the position is inside the cell, false otherwise
+   * @throws IllegalArgumentException if targetPosition is null
+   */
+  boolean isPositionInside(Position targetPosition) {
+    if (targetPosition == null) {
+      throw new IllegalArgumentException("targetPosition cannot be null");
+    }
+    int intersections = 0;
+
+    Position start;
+    Position end;
+
+    for (int i = 0; i < sides; i++) {
+      start = vertices[i];
+      end = vertices[(i + 1) % sides];
+      if (targetPosition.rightLineCrossesSegment(start, end)) {
+        intersections++;
+      }
+    }
+    return intersections % 2 == 1;
+  }
+
+  /**
+   * Gets the center of an adjacent cell.
+   *
+   * @param index the index of the adjacent cell (0 is the cell at the right of the first vertex),
+   *        ranging from 0 to sides - 1
+   * @return the center of the adjacent cell
+   * @throws IllegalArgumentException if index is out of range
+   */
+  Position getAdjacentCellCenter(int index) {
+    if (index < 0 || index >= sides) {
+      throw new IllegalArgumentException("index must be between 0 and " + (sides - 1) + ", get"
+              + index) ;
+    }
+    double centerToCenterDist = 2 * radius * Math.cos(Math.PI / sides);
+    return new PolarPosition(centerToCenterDist,
+        (orientation + Math.PI / sides + index * 2 * Math.PI / sides)
+                % (2 * Math.PI)).add(center);
+  }
+
+  /**
+   * Paints the cell with the given state.
+   *
+   * @param g the Graphics object to paint on
+   * @param xCenter the x pixel coordinate of the center of the board
+   * @param yCenter the y pixel coordinate of the center of the board
+   * @param cellStatus the status of the cell
+   * @param isLegalMove if the cell is a legal move for the current turn
+   * @param selected if the cell is selected
+   * @throws IllegalArgumentException if g is null
+   */
+  void paint(Graphics g, int xCenter, int yCenter, CellStatus cellStatus, boolean isLegalMove,
+      boolean selected) {
+    if (g == null) {
+      throw new IllegalArgumentException("g cannot be null");
+    }
+    if (isLegalMove) {
+      if (selected) {
+        g.setColor(Color.CYAN);
+      } else {
+        g.setColor(Color.GREEN);
+      }
+    } else {
+      g.setColor(Color.GRAY);
+    }
+    int[] xPoints = new int[sides];
+    int[] yPoints = new int[sides];
+    for (int i = 0; i < sides; i++) {
+      xPoints[i] = (int) vertices[i].getPixelX(xCenter);
+      yPoints[i] = (int) vertices[i].getPixelY(yCenter);
+    }
+    g.fillPolygon(xPoints, yPoints, sides);
+    g.setColor(Color.BLACK);
+    g.drawPolygon(xPoints, yPoints, sides);
+
+    if (cellStatus == CellStatus.BLACK) {
+      g.setColor(Color.BLACK);
+      g.fillOval((int) center.getPixelX(xCenter) - (int) radius / 2,
+          (int) center.getPixelY(yCenter) - (int) radius / 2, (int) radius, (int) radius);
+    } else if (cellStatus == CellStatus.WHITE) {
+      g.setColor(Color.WHITE);
+      g.fillOval((int) center.getPixelX(xCenter) - (int) radius / 2,
+          (int) center.getPixelY(yCenter) - (int) radius / 2, (int) radius, (int) radius);
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package cs3500.reversi.model.implem;
+
+import cs3500.reversi.model.position.AbstractPosition;
+import cs3500.reversi.model.position.CartesianPosition;
+import cs3500.reversi.model.position.Position;
+
+/**
+ * A uniform hash grid over the cells of a board. Each bucket is one cell across, and every cell is
+ * registered in the buckets its bounding box overlaps, so a position only needs the polygon tests
+ * of the few cells registered in its own bucket, regardless of the size of the board.
+ */
+final class CellSpatialIndex {
+
+  private final CellGeometry[] cells;
+
+  private final double minX;
+
+  private final double minY;
+
+  private final double bucketSize;
+
+  private final int bucketsX;
+
+  private final int bucketsY;
+
+  // The cells of bucket b are bucketCells[bucketStarts[b]] to bucketCells[bucketStarts[b + 1] - 1]
+  private final int[] bucketStarts;
+
+  private final int[] bucketCells;
+
+  /**
+   * Constructs the index of the given cells.
+   *
+   * @param cells the shapes of the cells of the board, in ring order
+   * @param cellRadius the distance from the center of a cell to any of its vertices
+   * @throws IllegalArgumentException if cells is empty or cellRadius is not positive
+   */
+  CellSpatialIndex(CellGeometry[] cells, double cellRadius) {
+    if (cells.length == 0 || cellRadius <= 0) {
+      throw new IllegalArgumentException("the index needs cells with a positive radius");
+    }
+    this.cells = cells;
+    this.bucketSize = 2 * cellRadius;
+
+    double[] xs = new double[cells.length];
+    double[] ys = new double[cells.length];
+    double lowX = Double.MAX_VALUE;
+    double lowY = Double.MAX_VALUE;
+    double highX = -Double.MAX_VALUE;
+    double highY = -Double.MAX_VALUE;
+    for (int i = 0; i < cells.length; i++) {
+      CartesianPosition center = toCartesian(cells[i].getCenter());
+      xs[i] = center.getX();
+      ys[i] = center.getY();
+      lowX = Math.min(lowX, xs[i] - cellRadius);
+      lowY = Math.min(lowY, ys[i] - cellRadius);
+      highX = Math.max(highX, xs[i] + cellRadius);
+      highY = Math.max(highY, ys[i] + cellRadius);
+    }
+    this.minX = lowX;
+    this.minY = lowY;
+    this.bucketsX = (int) Math.floor((highX - lowX) / bucketSize) + 1;
+    this.bucketsY = (int) Math.floor((highY - lowY) / bucketSize) + 1;
+
+    // Count the cells per bucket, then fill the buckets in ring order
+    this.bucketStarts = new int[bucketsX * bucketsY + 1];
+    for (int i = 0; i < cells.length; i++) {
+      for (int bucket : bucketsOf(xs[i], ys[i], cellRadius)) {
+        bucketStarts[bucket + 1]++;
+      }
+    }
+    for (int b = 0; b < bucketsX * bucketsY; b++) {
+      bucketStarts[b + 1] += bucketStarts[b];
+    }
+    this.bucketCells = new int[bucketStarts[bucketsX * bucketsY]];
+    int[] filled = bucketStarts.clone();
+    for (int i = 0; i < cells.length; i++) {
+      for (int bucket : bucketsOf(xs[i], ys[i], cellRadius)) {
+        bucketCells[filled[bucket]++] = i;
+      }
+    }
+  }
+
+  /**
+   * Finds the index of the cell that contains the given position. When the position is on the
+   * shared edge of several cells, the one first in ring order is returned, like a full scan would.
+   *
+   * @param position the position to look up
+   * @return the index of the cell in ring order, or -1 if no cell contains the position
+   */
+  int indexOf(Position position) {
+    CartesianPosition target = toCartesian(position);
+    int bx = (int) Math.floor((target.getX() - minX) / bucketSize);
+    int by = (int) Math.floor((target.getY() - minY) / bucketSize);
+    if (bx < 0 || bx >= bucketsX || by < 0 || by >= bucketsY) {
+      return -1;
+    }
+    int bucket = by * bucketsX + bx;
+    for (int k = bucketStarts[bucket]; k < bucketStarts[bucket + 1]; k++) {
+      // Buckets are filled in ring order, so the first hit is the lowest index
+      if (cells[bucketCells[k]].isPositionInside(target)) {
+        return bucketCells[k];
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Helper function to list the buckets overlapped by the bounding box of a cell.
+   *
+   * @param x the x-coordinate of the center of the cell
+   * @param y the y-coordinate of the center of the cell
+   * @param cellRadius the radius of the cell
+   * @return the buckets overlapped by the cell
+   */
+  private int[] bucketsOf(double x, double y, double cellRadius) {
+    int fromX = bucketX(x - cellRadius);
+    int toX = bucketX(x + cellRadius);
+    int fromY = bucketY(y - cellRadius);
+    int toY = bucketY(y + cellRadius);
+    int[] buckets = new int[(toX - fromX + 1) * (toY - fromY + 1)];
+    int count = 0;
+    for (int by = fromY; by <= toY; by++) {
+      for (int bx = fromX; bx <= toX; bx++) {
+        buckets[count++] = by * bucketsX + bx;
+      }
+    }
+    return buckets;
+  }
+
+  private int bucketX(double x) {
+    return Math.min(bucketsX - 1, Math.max(0, (int) Math.floor((x - minX) / bucketSize)));
+  }
+
+  private int bucketY(double y) {
+    return Math.min(bucketsY - 1, Math.max(0, (int) Math.floor((y - minY) / bucketSize)));
+  }
+
+  private static CartesianPosition toCartesian(Position position) {
+    return ((AbstractPosition) position).toCartesianPosition();
+  }
+}
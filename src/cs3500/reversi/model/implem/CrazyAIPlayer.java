@@ -13,6 +13,24 @@ import java.util.Random;
  */
 public class CrazyAIPlayer implements Player {
 
+  private final Random rand;
+
+  /**
+   * Constructs a CrazyAIPlayer whose moves differ from one run to the next.
+   */
+  public CrazyAIPlayer() {
+    this.rand = new Random();
+  }
+
+  /**
+   * Constructs a CrazyAIPlayer that makes the same moves from one run to the next.
+   *
+   * @param seed the seed of the random moves
+   */
+  public CrazyAIPlayer(long seed) {
+    this.rand = new Random(seed);
+  }
+
   @Override
   public Cell move(Board board, GameStatus gameStatus) {
     if (board == null) {
@@ -30,7 +48,6 @@ public class CrazyAIPlayer implements Player {
     }
 
     if (allLegalMoves.size() != 0) {
-      Random rand = new Random();
       int randomIndex = rand.nextInt(allLegalMoves.size());
       return allLegalMoves.get(randomIndex);
     } 
@@ -0,0 +1,78 @@
+package cs3500.reversi.model.implem;
+
+/**
+ * Represents the rating of one entrant of a tournament on the Elo scale, where a lead of 400
+ * points means winning ten times as often as losing. Ratings are relative: the ratings of the
+ * entrants of a tournament average 0. A rating does not change once built.
+ */
+public final class EloRating {
+
+  private final String name;
+  private final double elo;
+  private final double error;
+  private final int games;
+  private final double score;
+
+  /**
+   * Constructs a rating.
+   *
+   * @param name the name of the entrant
+   * @param elo the rating
+   * @param error the half width of the 95% confidence interval of the rating
+   * @param games the number of games the entrant played
+   * @param score the score of the entrant, a win counting 1 and a draw one half
+   */
+  EloRating(String name, double elo, double error, int games, double score) {
+    this.name = name;
+    this.elo = elo;
+    this.error = error;
+    this.games = games;
+    this.score = score;
+  }
+
+  /**
+   * Gets the name of the entrant.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the rating of the entrant.
+   *
+   * @return the rating, in Elo points
+   */
+  public double getElo() {
+    return elo;
+  }
+
+  /**
+   * Gets how far the true rating may be from the rating: it is within this many points of it with
+   * a confidence of 95%.
+   *
+   * @return the half width of the confidence interval, in Elo points
+   */
+  public double getError() {
+    return error;
+  }
+
+  /**
+   * Gets the number of games the entrant played.
+   *
+   * @return the number of games
+   */
+  public int getGames() {
+    return games;
+  }
+
+  /**
+   * Gets the score of the entrant, a win counting 1 and a draw one half.
+   *
+   * @return the score
+   */
+  public double getScore() {
+    return score;
+  }
+}
@@ -0,0 +1,364 @@
+package cs3500.reversi.model.implem;
+
+import java.util.Arrays;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.status.CellStatus;
+
+/**
+ * Solves the end of a game exactly: it searches every line to the end of the game and scores it
+ * by the final disc difference, so the move it returns is proven to be the best one. A side with
+ * no legal move passes, as AbstractReversi.pass does, and the game ends when neither side can
+ * move.
+ * The moves are ordered fastest-first (the moves leaving the opponent the fewest replies come
+ * first) while many cells are empty, and by parity (moves in a region of the empty cells holding
+ * an odd number of cells come first, so the side to move tends to get the last move of each
+ * region) all the way down. The solver gives up when its time runs out.
+ */
+final class EndgameSolver {
+
+  // How many nodes are searched between two looks at the clock, minus one
+  private static final int CHECK_INTERVAL = 1023;
+
+  // Below this number of empty cells, the moves are ordered by parity only
+  private static final int FASTEST_FIRST_EMPTIES = 6;
+
+  private final Board board;
+
+  // The neighbor table of the board, or null when the board does not share it
+  private final int[] neighbors;
+  private final int numOfDirection;
+
+  // The legal moves, their sort keys and the undo record of every ply, created on first use
+  private int[][] moves;
+  private int[][] keys;
+  private int[][] undoRecords;
+
+  // The empty cells of the root, and the region of every empty cell during parity ordering
+  private final int[] empties;
+  private int emptyCount;
+  private final int[] regions;
+  private final int[] regionSizes;
+  private final int[] queue;
+
+  // Marks the cells already put in a region by the current call to findRegions
+  private final int[] visited;
+  private int visitStamp;
+
+  private long deadline;
+  private boolean aborted;
+  private long nodes;
+  private int score;
+  private boolean solved;
+
+  /**
+   * Constructs a solver on the given board. The board is changed during a search, and left as it
+   * was found after it.
+   *
+   * @param board the board to solve
+   */
+  EndgameSolver(Board board) {
+    this.board = board;
+    if (board instanceof AbstractPolygonGameBoard) {
+      this.neighbors = ((AbstractPolygonGameBoard) board).getNeighbors();
+      this.numOfDirection = ((AbstractPolygonGameBoard) board).getNumOfDirection();
+    } else {
+      this.neighbors = null;
+      this.numOfDirection = 0;
+    }
+    int n = board.getCellCount();
+    this.moves = new int[0][];
+    this.keys = new int[0][];
+    this.undoRecords = new int[0][];
+    this.empties = new int[n];
+    this.regions = new int[n];
+    this.regionSizes = new int[n];
+    this.queue = new int[n];
+    this.visited = new int[n];
+  }
+
+  /**
+   * Finds the best move for the given color by searching to the end of the game.
+   *
+   * @param toMove the color to move
+   * @param deadlineNanos the value of System.nanoTime at which the solver gives up
+   * @return the index of the best move, or -1 if the color has no legal move or the solver ran
+   *         out of time (see isSolved)
+   */
+  int solve(CellStatus toMove, long deadlineNanos) {
+    this.deadline = deadlineNanos;
+    this.aborted = false;
+    this.nodes = 0;
+    this.solved = false;
+    emptyCount = 0;
+    for (int i = 0; i < board.getCellCount(); i++) {
+      if (board.getCellStatus(i) == CellStatus.EMPTY) {
+        empties[emptyCount++] = i;
+      }
+    }
+
+    CellStatus opponent = opposite(toMove);
+    int[] rootMoves = movesAt(0);
+    int count = board.getLegalMoves(toMove, rootMoves);
+    if (count == 0) {
+      return -1;
+    }
+    order(rootMoves, count, toMove, 0);
+    int[] undoRecord = undoRecordAt(0);
+    int infinity = board.getCellCount() + 1;
+    int alpha = -infinity;
+    int bestMove = -1;
+    for (int i = 0; i < count; i++) {
+      board.makeMove(rootMoves[i], toMove, undoRecord);
+      int value = -search(-infinity, -alpha, opponent, 1);
+      board.undoMove(undoRecord);
+      if (aborted) {
+        return -1;
+      }
+      if (value > alpha) {
+        alpha = value;
+        bestMove = rootMoves[i];
+      }
+    }
+    score = alpha;
+    solved = true;
+    return bestMove;
+  }
+
+  /**
+   * Checks if the last call to solve finished in time.
+   *
+   * @return true if the last search was completed
+   */
+  boolean isSolved() {
+    return solved;
+  }
+
+  /**
+   * Gets the final disc difference of the best move, with best play from both sides, found by the
+   * last completed search.
+   *
+   * @return the disc difference for the side to move at the root
+   */
+  int getScore() {
+    return score;
+  }
+
+  /**
+   * Gets the number of nodes visited by the last search.
+   *
+   * @return the number of nodes
+   */
+  long getNodeCount() {
+    return nodes;
+  }
+
+  /**
+   * Helper function to search a position to the end of the game with alpha-beta.
+   *
+   * @param alpha the lower bound of the window
+   * @param beta the upper bound of the window
+   * @param toMove the color to move
+   * @param ply the distance from the root
+   * @return the final disc difference for the side to move, or 0 if the search was aborted
+   */
+  private int search(int alpha, int beta, CellStatus toMove, int ply) {
+    if ((++nodes & CHECK_INTERVAL) == 0 && System.nanoTime() - deadline > 0) {
+      aborted = true;
+    }
+    if (aborted) {
+      return 0;
+    }
+    CellStatus opponent = opposite(toMove);
+    int[] legalMoves = movesAt(ply);
+    int count = board.getLegalMoves(toMove, legalMoves);
+    if (count == 0) {
+      if (board.countLegalMoves(opponent) == 0) {
+        return board.countCells(toMove) - board.countCells(opponent);
+      }
+      return -search(-beta, -alpha, opponent, ply + 1);
+    }
+    if (count > 1) {
+      order(legalMoves, count, toMove, ply);
+    }
+    int[] undoRecord = undoRecordAt(ply);
+    int best = -board.getCellCount() - 1;
+    for (int i = 0; i < count; i++) {
+      board.makeMove(legalMoves[i], toMove, undoRecord);
+      int value = -search(-beta, -alpha, opponent, ply + 1);
+      board.undoMove(undoRecord);
+      if (aborted) {
+        return 0;
+      }
+      if (value > best) {
+        best = value;
+        if (value > alpha) {
+          alpha = value;
+          if (alpha >= beta) {
+            break;
+          }
+        }
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Helper function to sort moves best first: fewest replies left to the opponent while many
+   * cells are empty, then moves in odd regions before moves in even regions.
+   *
+   * @param legalMoves the moves, in their first count entries
+   * @param count the number of moves
+   * @param toMove the color to move
+   * @param ply the distance from the root
+   */
+  private void order(int[] legalMoves, int count, CellStatus toMove, int ply) {
+    int[] moveKeys = keysAt(ply);
+    findRegions();
+    boolean fastestFirst = board.countCells(CellStatus.EMPTY) > FASTEST_FIRST_EMPTIES;
+    CellStatus opponent = opposite(toMove);
+    int[] undoRecord = undoRecordAt(ply);
+    for (int i = 0; i < count; i++) {
+      int move = legalMoves[i];
+      int key = regionSizes[regions[move]] & 1;
+      if (fastestFirst) {
+        board.makeMove(move, toMove, undoRecord);
+        key -= 2 * board.countLegalMoves(opponent);
+        board.undoMove(undoRecord);
+      }
+      moveKeys[i] = key;
+    }
+    for (int i = 1; i < count; i++) {
+      int move = legalMoves[i];
+      int key = moveKeys[i];
+      int j = i - 1;
+      while (j >= 0 && moveKeys[j] < key) {
+        legalMoves[j + 1] = legalMoves[j];
+        moveKeys[j + 1] = moveKeys[j];
+        j--;
+      }
+      legalMoves[j + 1] = move;
+      moveKeys[j + 1] = key;
+    }
+  }
+
+  /**
+   * Helper function to split the current empty cells in regions of adjacent cells. Without a
+   * neighbor table, all the empty cells form one region.
+   */
+  private void findRegions() {
+    if (++visitStamp == 0) {
+      Arrays.fill(visited, 0);
+      visitStamp = 1;
+    }
+    int regionCount = 0;
+    for (int e = 0; e < emptyCount; e++) {
+      int start = empties[e];
+      if (visited[start] == visitStamp || board.getCellStatus(start) != CellStatus.EMPTY) {
+        continue;
+      }
+      int region = regionCount++;
+      int size = 0;
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = start;
+      visited[start] = visitStamp;
+      while (head < tail) {
+        int cell = queue[head++];
+        regions[cell] = region;
+        size++;
+        if (neighbors == null) {
+          // Every empty cell is in the region of the first one
+          for (int k = e + 1; k < emptyCount; k++) {
+            int next = empties[k];
+            if (visited[next] != visitStamp && board.getCellStatus(next) == CellStatus.EMPTY) {
+              visited[next] = visitStamp;
+              queue[tail++] = next;
+            }
+          }
+          continue;
+        }
+        for (int d = 0; d < numOfDirection; d++) {
+          int next = neighbors[cell * numOfDirection + d];
+          if (next >= 0 && visited[next] != visitStamp
+              && board.getCellStatus(next) == CellStatus.EMPTY) {
+            visited[next] = visitStamp;
+            queue[tail++] = next;
+          }
+        }
+      }
+      regionSizes[region] = size;
+    }
+  }
+
+  /**
+   * Helper function to get the move list of a ply, creating it on first use.
+   *
+   * @param ply the ply
+   * @return the move list of the ply
+   */
+  private int[] movesAt(int ply) {
+    if (ply >= moves.length) {
+      growTo(ply + 1);
+    }
+    return moves[ply];
+  }
+
+  /**
+   * Helper function to get the sort keys of a ply, creating them on first use.
+   *
+   * @param ply the ply
+   * @return the sort keys of the ply
+   */
+  private int[] keysAt(int ply) {
+    if (ply >= keys.length) {
+      growTo(ply + 1);
+    }
+    return keys[ply];
+  }
+
+  /**
+   * Helper function to get the undo record of a ply, creating it on first use.
+   *
+   * @param ply the ply
+   * @return the undo record of the ply
+   */
+  private int[] undoRecordAt(int ply) {
+    if (ply >= undoRecords.length) {
+      growTo(ply + 1);
+    }
+    return undoRecords[ply];
+  }
+
+  /**
+   * Helper function to create the per-ply arrays up to the given number of plies.
+   *
+   * @param plies the number of plies
+   */
+  private void growTo(int plies) {
+    int[][] newMoves = new int[plies][];
+    int[][] newKeys = new int[plies][];
+    int[][] newUndoRecords = new int[plies][];
+    System.arraycopy(moves, 0, newMoves, 0, moves.length);
+    System.arraycopy(keys, 0, newKeys, 0, keys.length);
+    System.arraycopy(undoRecords, 0, newUndoRecords, 0, undoRecords.length);
+    for (int i = moves.length; i < plies; i++) {
+      newMoves[i] = new int[board.getCellCount()];
+      newKeys[i] = new int[board.getCellCount()];
+      newUndoRecords[i] = board.newUndoRecord();
+    }
+    moves = newMoves;
+    keys = newKeys;
+    undoRecords = newUndoRecords;
+  }
+
+  /**
+   * Helper function to get the other color.
+   *
+   * @param cellStatus BLACK or WHITE
+   * @return the other color
+   */
+  private static CellStatus opposite(CellStatus cellStatus) {
+    return cellStatus == CellStatus.BLACK ? CellStatus.WHITE : CellStatus.BLACK;
+  }
+}
@@ -0,0 +1,28 @@
+package cs3500.reversi.model.implem;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.status.CellStatus;
+
+/**
+ * Scores the positions at the leaves of the searches of the AI players. An evaluator is built for
+ * one board geometry and does not change once built, so several searches may share it.
+ */
+interface Evaluator {
+
+  /**
+   * Checks if this evaluator was built for boards like the given board.
+   *
+   * @param board the board
+   * @return true if the evaluator can score the positions of the board
+   */
+  boolean fits(Board board);
+
+  /**
+   * Evaluates the position on the given board.
+   *
+   * @param board the board, with the geometry of this evaluator
+   * @param toMove the color of the side to move
+   * @return the score of the position for the side to move
+   */
+  int evaluate(Board board, CellStatus toMove);
+}
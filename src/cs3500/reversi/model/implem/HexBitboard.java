@@ -0,0 +1,204 @@
+package cs3500.reversi.model.implem;
+
+import java.util.Arrays;
+
+import cs3500.reversi.model.status.CellStatus;
+
+/**
+ * Represents the bitboard engine of a hexagon game board of any size. The cells are laid out in
+ * axial coordinates, so that the six directions are shifts of 1, the width of the board, and their
+ * difference. On top of the shifted fills used for the legal moves of a whole color, every cell
+ * has a precomputed ray mask per direction, so the discs flipped by one move are found with a
+ * handful of word-wide AND operations and a bit scan, without walking the ray cell by cell.
+ */
+public class HexBitboard extends AbstractBitboard {
+
+  // Axial steps in the order of the neighbor table of HexagonGameBoard (counter-clockwise)
+  private static final int[][] DIRECTION_VECTORS = {
+      {1, 0}, {0, 1}, {-1, 1}, {-1, 0}, {0, -1}, {1, -1}};
+
+  // rayMasks[bit * numOfDirection + d] holds the cells after the bit in direction d
+  private final long[][] rayMasks;
+
+  // The first and last word touched by each ray, so the scans skip the rest
+  private final int[] rayFirstWord;
+  private final int[] rayLastWord;
+
+  /**
+   * Constructs a bitboard with the geometry and the discs of the given hexagon board.
+   *
+   * @param board the hexagon board
+   * @throws IllegalArgumentException if board is null
+   */
+  public HexBitboard(HexagonGameBoard board) {
+    super(board, DIRECTION_VECTORS);
+    int bits = words * 64;
+    this.rayMasks = new long[bits * numOfDirection][];
+    this.rayFirstWord = new int[bits * numOfDirection];
+    this.rayLastWord = new int[bits * numOfDirection];
+    for (int bit = 0; bit < bits; bit++) {
+      if (!testBit(validMask, bit)) {
+        continue;
+      }
+      for (int d = 0; d < numOfDirection; d++) {
+        long[] ray = new long[words];
+        int first = words;
+        int last = -1;
+        int current = bit;
+        while (testBit(sourceMasks[d], current)) {
+          current += shifts[d];
+          ray[current >>> 6] |= 1L << current;
+          first = Math.min(first, current >>> 6);
+          last = Math.max(last, current >>> 6);
+        }
+        rayMasks[bit * numOfDirection + d] = ray;
+        rayFirstWord[bit * numOfDirection + d] = first;
+        rayLastWord[bit * numOfDirection + d] = last;
+      }
+    }
+  }
+
+  private HexBitboard(HexBitboard that) {
+    super(that);
+    this.rayMasks = that.rayMasks;
+    this.rayFirstWord = that.rayFirstWord;
+    this.rayLastWord = that.rayLastWord;
+  }
+
+  @Override
+  public HexBitboard copy() {
+    return new HexBitboard(this);
+  }
+
+  /**
+   * Gets the precomputed ray of the given cell in the given direction.
+   *
+   * @param bit the bit index of the cell
+   * @param directionIndex the direction, from 0 to 5
+   * @return a copy of the set of cells after the cell in that direction
+   * @throws IllegalArgumentException if bit is not a cell or the direction is out of range
+   */
+  public long[] getRayMask(int bit, int directionIndex) {
+    ringIndexOf(bit);
+    if (directionIndex < 0 || directionIndex >= numOfDirection) {
+      throw new IllegalArgumentException("directionIndex must be between 0 and 5");
+    }
+    return rayMasks[bit * numOfDirection + directionIndex].clone();
+  }
+
+  /**
+   * Checks if the given color can legally place a disc on the given bit.
+   *
+   * @param bit the bit index of the cell
+   * @param cellStatus the color placing the disc
+   * @return true if the move is legal, false otherwise
+   * @throws IllegalArgumentException if cellStatus is EMPTY or null, or bit is not a cell
+   */
+  public boolean isLegalMove(int bit, CellStatus cellStatus) {
+    ringIndexOf(bit);
+    long[] own = discsOf(cellStatus);
+    long[] opp = discsOf(opposite(cellStatus));
+    if (testBit(own, bit) || testBit(opp, bit)) {
+      return false;
+    }
+    for (int d = 0; d < numOfDirection; d++) {
+      int blocker = firstBlocker(bit, d, opp);
+      if (blocker >= 0 && blocker != bit + shifts[d] && testBit(own, blocker)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public long flips(int bit, CellStatus cellStatus) {
+    if (words != 1) {
+      throw new IllegalStateException("the board does not fit in one long");
+    }
+    ringIndexOf(bit);
+    long own = discsOf(cellStatus)[0];
+    long opp = discsOf(opposite(cellStatus))[0];
+    if (((own | opp) & (1L << bit)) != 0) {
+      return 0;
+    }
+    long flips = 0;
+    for (int d = 0; d < numOfDirection; d++) {
+      long ray = rayMasks[bit * numOfDirection + d][0];
+      long blockers = ray & ~opp;
+      if (blockers == 0) {
+        continue;
+      }
+      long blocker = shifts[d] > 0 ? Long.lowestOneBit(blockers) : Long.highestOneBit(blockers);
+      if ((blocker & own) != 0) {
+        // The ray cells strictly between the move and the blocker
+        flips |= ray & (shifts[d] > 0 ? blocker - 1 : -(blocker << 1));
+      }
+    }
+    return flips;
+  }
+
+  @Override
+  public int flips(int bit, CellStatus cellStatus, long[] result) {
+    if (result == null || result.length < words) {
+      throw new IllegalArgumentException("result must hold " + words + " longs");
+    }
+    ringIndexOf(bit);
+    long[] own = discsOf(cellStatus);
+    long[] opp = discsOf(opposite(cellStatus));
+    Arrays.fill(result, 0, words, 0);
+    if (testBit(own, bit) || testBit(opp, bit)) {
+      return 0;
+    }
+    int count = 0;
+    for (int d = 0; d < numOfDirection; d++) {
+      int blocker = firstBlocker(bit, d, opp);
+      if (blocker < 0 || !testBit(own, blocker)) {
+        continue;
+      }
+      long[] ray = rayMasks[bit * numOfDirection + d];
+      int low = Math.min(bit, blocker);
+      int high = Math.max(bit, blocker);
+      for (int w = low >>> 6; w <= high >>> 6; w++) {
+        long between = ray[w];
+        if (w == low >>> 6) {
+          between &= -(2L << (low & 63));
+        }
+        if (w == high >>> 6) {
+          between &= (1L << (high & 63)) - 1;
+        }
+        result[w] |= between;
+        count += Long.bitCount(between);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Helper function to find the first cell along a ray that is not a disc of the opponent.
+   *
+   * @param bit the bit index the ray starts from
+   * @param directionIndex the direction of the ray
+   * @param opp the discs of the opponent
+   * @return the bit index of the first such cell, or -1 if the ray has none
+   */
+  private int firstBlocker(int bit, int directionIndex, long[] opp) {
+    int ray = bit * numOfDirection + directionIndex;
+    long[] mask = rayMasks[ray];
+    if (shifts[directionIndex] > 0) {
+      for (int w = rayFirstWord[ray]; w <= rayLastWord[ray]; w++) {
+        long blockers = mask[w] & ~opp[w];
+        if (blockers != 0) {
+          return (w << 6) + Long.numberOfTrailingZeros(blockers);
+        }
+      }
+    } else {
+      for (int w = rayLastWord[ray]; w >= rayFirstWord[ray]; w--) {
+        long blockers = mask[w] & ~opp[w];
+        if (blockers != 0) {
+          return (w << 6) + 63 - Long.numberOfLeadingZeros(blockers);
+        }
+      }
+    }
+    return -1;
+  }
+}
@@ -4,10 +4,7 @@ import java.util.ArrayList;
 import cs3500.reversi.model.position.CartesianPosition;
 import cs3500.reversi.model.position.PolarPosition;
 import cs3500.reversi.model.position.Position;
-import cs3500.reversi.model.status.CellStatus;
-import cs3500.reversi.model.status.GameStatus;
 import cs3500.reversi.model.interf.Board;
-import cs3500.reversi.model.interf.Cell;
 
 
 /**
@@ -35,15 +32,16 @@ public class HexagonGameBoard extends AbstractPolygonGameBoard {
     this.size = size;
     this.radius = radius;
     this.orientation = orientation;
-    grid = new ArrayList<ArrayList<Cell>>();
+    ArrayList<ArrayList<PolygonCell>> grid = new ArrayList<ArrayList<PolygonCell>>();
 
     this.numOfSide = 6;
+    this.numOfDirection = 6;
 
     // Initialize the grid
     double centerToCenterDist = 2 * radius * Math.cos(Math.PI / numOfSide);
 
     for (int i = 0; i < size; i++) {
-      grid.add(new ArrayList<Cell>());
+      grid.add(new ArrayList<PolygonCell>());
 
       // The center of the board at (0, 0)
       if (i == 0) {
@@ -62,122 +60,33 @@ public class HexagonGameBoard extends AbstractPolygonGameBoard {
         }
       }
     }
+    initialize(grid);
   }
 
-  @Override
-  public Board cloneBoard() {
-    HexagonGameBoard clone = new HexagonGameBoard(size, radius, orientation);
-    for (int i = 0; i < size; i++) {
-      for (int j = 0; j < grid.get(i).size(); j++) {
-        clone.grid.get(i).set(j, new PolygonCell(grid.get(i).get(j)));
-      }
-    }
-    return clone;
+  /**
+   * Constructs a copy of the given board, sharing its layout.
+   *
+   * @param that the board to copy
+   */
+  private HexagonGameBoard(HexagonGameBoard that) {
+    super(that);
+    this.size = that.size;
+    this.radius = that.radius;
+    this.orientation = that.orientation;
   }
 
   @Override
-  public boolean onSameLine(Cell gridOne, Cell gridTwo) {
-    if (gridOne == null || gridTwo == null) {
-      throw new IllegalArgumentException("gridOne and gridTwo cannot be null");
-    }
-    for (int i = 0; i < numOfSide; i++) {
-      Cell adjacentCell = getAdjacentCell(gridOne, i);
-      while (adjacentCell != null) {
-        if (adjacentCell.equals(gridTwo)) {
-          return true;
-        }
-        adjacentCell = getAdjacentCell(adjacentCell, i);
-      }
-    }
-    return false;
+  public Board cloneBoard() {
+    return new HexagonGameBoard(this);
   }
 
   @Override
-  public boolean isLegalMove(Cell cell, GameStatus gameStatus) {
-    switch (gameStatus) {
-      case BTURN:
-        return isLegalMoveForCellState(cell, CellStatus.BLACK);
-      case WTURN:
-        return isLegalMoveForCellState(cell, CellStatus.WHITE);
-      default:
-        return false;
-    }
-  }
-
-  /**
-   * Helper function to check if the given cell is a legal move for the given cell status.
-   * 
-   * @param cell the given cell
-   * @param cellStatus the given cell status
-   * @return true if the given cell is a legal move for the given cell status, false otherwise
-   * @throws IllegalArgumentException if cell is null
-   */
-  private boolean isLegalMoveForCellState(Cell cell, CellStatus cellStatus)
-      throws IllegalArgumentException {
-    if (cell == null) {
-      throw new IllegalArgumentException("cell cannot be null");
-    }
-    if (cell.getCellStatus() != CellStatus.EMPTY) {
-      return false;
-    }
-    for (int i = 0; i < numOfSide; i++) {
-      Cell adjacentCell = getAdjacentCell(cell, i);
-      if (adjacentCell == null || adjacentCell.getCellStatus() == CellStatus.EMPTY
-          || adjacentCell.getCellStatus() == cellStatus) {
-        continue;
-      }
-      while (adjacentCell != null) {
-        if (adjacentCell.getCellStatus() == cellStatus) {
-          return true;
-        } else if (adjacentCell.getCellStatus() == CellStatus.EMPTY) {
-          break;
-        } else {
-          adjacentCell = getAdjacentCell(adjacentCell, i);
-        }
-      }
-    }
-    return false;
+  protected double getCellRadius() {
+    return radius;
   }
 
   @Override
-  public void oneMove(Cell cell, CellStatus cellStatus) {
-
-    if (cell == null) {
-      throw new IllegalArgumentException("cell cannot be null");
-    }
-    if (cellStatus == CellStatus.EMPTY) {
-      throw new IllegalArgumentException("cellStatus cannot be EMPTY");
-    }
-    if (cell.getCellStatus() != CellStatus.EMPTY) {
-      throw new IllegalArgumentException("cellStatus cannot be set to EMPTY");
-    }
-    cell.setCellStatus(cellStatus);
-
-    for (int i = 0; i < numOfSide; i++) {
-      ArrayList<Cell> cellsToFlip = new ArrayList<Cell>();
-      Cell adjacentCell = getAdjacentCell(cell, i);
-
-      if (adjacentCell == null || adjacentCell.getCellStatus() == CellStatus.EMPTY
-          || adjacentCell.getCellStatus() == cellStatus) {
-        continue;
-      }
-      while (true) {
-        if (adjacentCell == null) {
-          cellsToFlip = new ArrayList<Cell>();
-          break;
-        } else if (adjacentCell.getCellStatus() == cellStatus) {
-          break;
-        } else if (adjacentCell.getCellStatus() == CellStatus.EMPTY) {
-          cellsToFlip = new ArrayList<Cell>();
-          break;
-        } else {
-          cellsToFlip.add(adjacentCell);
-          adjacentCell = getAdjacentCell(adjacentCell, i);
-        }
-      }
-      for (Cell cellToFlip : cellsToFlip) {
-        cellToFlip.flip();
-      }
-    }
+  public HexBitboard toBitboard() {
+    return new HexBitboard(this);
   }
 }
@@ -0,0 +1,176 @@
+package cs3500.reversi.model.implem;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.interf.Cell;
+import cs3500.reversi.model.interf.Player;
+import cs3500.reversi.model.status.CellStatus;
+import cs3500.reversi.model.status.GameStatus;
+
+
+/**
+ * Represents an AI player that searches the game tree on several threads at once (Lazy SMP). The
+ * main thread runs the same alpha-beta search as AlphaBetaAIPlayer, while helper threads search
+ * the same position on their own copies of the board, every other one starting a ply deeper. The
+ * threads never talk to each other: they only share one transposition table, so the results of
+ * each thread cut the search of the others. The main thread reports the move.
+ * The helper threads end after a while idle, or when the player is closed.
+ */
+public class LazySmpAIPlayer implements Player, AutoCloseable {
+
+  private static final long DEFAULT_TABLE_BYTES = 64L << 20;
+
+  // How long the helper threads wait idle before they end
+  private static final long HELPER_KEEP_ALIVE_SECONDS = 30;
+
+  private final int numOfSide;
+  private final int cornerTendency;
+  private final int nextToCornerPhobia;
+  private final int greedy;
+  private final int cautiousness;
+
+  private final long timeLimitMillis;
+  private final int threads;
+
+  private final TranspositionTable table;
+
+  // The helper threads, created on the first move
+  private ThreadPoolExecutor helpers;
+
+  // Set once the player is closed; a closed player still moves, searching on its own thread only
+  private boolean closed;
+
+  private WeightedEvaluator evaluator;
+
+  private long lastNodeCount;
+
+  /**
+   * Constructs a LazySmpAIPlayer with the given preference parameters, time for each move and
+   * number of threads.
+   *
+   * @param numOfSide the number of sides of a cell of the board
+   * @param cornerTendency the weight of holding a corner
+   * @param nextToCornerPhobia the penalty of holding a cell next to a corner
+   * @param greedy the weight of holding a disc
+   * @param cautiousness the weight of having more legal moves than the opponent
+   * @param timeLimitMillis the time to think about each move, in milliseconds
+   * @param threads the number of searching threads, counting the main thread
+   * @throws IllegalArgumentException if the time limit or the number of threads is not positive
+   */
+  public LazySmpAIPlayer(int numOfSide, int cornerTendency, int nextToCornerPhobia, int greedy,
+      int cautiousness, long timeLimitMillis, int threads) {
+    if (timeLimitMillis <= 0) {
+      throw new IllegalArgumentException("timeLimitMillis must be positive");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be positive");
+    }
+    this.numOfSide = numOfSide;
+    this.cornerTendency = cornerTendency;
+    this.nextToCornerPhobia = nextToCornerPhobia;
+    this.greedy = greedy;
+    this.cautiousness = cautiousness;
+    this.timeLimitMillis = timeLimitMillis;
+    this.threads = threads;
+    this.table = new TranspositionTable(DEFAULT_TABLE_BYTES);
+  }
+
+  @Override
+  public Cell move(Board board, GameStatus gameStatus) {
+    if (board == null) {
+      throw new IllegalArgumentException("board cannot be null");
+    }
+    CellStatus toMove;
+    if (gameStatus == GameStatus.BTURN) {
+      toMove = CellStatus.BLACK;
+    } else if (gameStatus == GameStatus.WTURN) {
+      toMove = CellStatus.WHITE;
+    } else {
+      return null;
+    }
+    long deadline = System.nanoTime() + timeLimitMillis * 1_000_000L;
+
+    if (evaluator == null || !evaluator.fits(board)) {
+      evaluator = new WeightedEvaluator(board, numOfSide, cornerTendency, nextToCornerPhobia,
+          greedy, cautiousness);
+      table.clear();
+    }
+    table.newSearch();
+
+    ArrayList<AlphaBetaSearcher> helperSearchers = new ArrayList<AlphaBetaSearcher>();
+    ArrayList<Future<?>> helperResults = new ArrayList<Future<?>>();
+    int helperCount = closed ? 0 : threads - 1;
+    for (int i = 1; i <= helperCount; i++) {
+      AlphaBetaSearcher helper = new AlphaBetaSearcher(board.cloneBoard(), evaluator, table);
+      int firstDepth = 1 + (i & 1);
+      helperSearchers.add(helper);
+      helperResults.add(getHelpers().submit(() -> helper.findBestMove(toMove, deadline,
+          firstDepth, TranspositionTable.MAX_DEPTH)));
+    }
+
+    AlphaBetaSearcher main = new AlphaBetaSearcher(board.cloneBoard(), evaluator, table);
+    int bestMove = main.findBestMove(toMove, deadline, 1, TranspositionTable.MAX_DEPTH);
+
+    long nodes = main.getNodeCount();
+    for (int i = 0; i < helperSearchers.size(); i++) {
+      helperSearchers.get(i).stop();
+    }
+    for (int i = 0; i < helperSearchers.size(); i++) {
+      try {
+        helperResults.get(i).get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("a helper search failed", e.getCause());
+      }
+      nodes += helperSearchers.get(i).getNodeCount();
+    }
+    lastNodeCount = nodes;
+    return bestMove < 0 ? null : board.getCellAt(bestMove);
+  }
+
+  /**
+   * Gets the number of nodes all the threads searched for the last move.
+   *
+   * @return the number of nodes
+   */
+  public long getLastNodeCount() {
+    return lastNodeCount;
+  }
+
+  /**
+   * Ends the helper threads. The player can still move, searching on its own thread only.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    if (helpers != null) {
+      helpers.shutdown();
+    }
+  }
+
+  /**
+   * Helper method to get the helper threads, creating them on first use. The threads do not keep
+   * the program running, and end after a while idle, to be started again by the next move.
+   *
+   * @return the helper threads
+   */
+  private ThreadPoolExecutor getHelpers() {
+    if (helpers == null) {
+      helpers = new ThreadPoolExecutor(threads - 1, threads - 1, HELPER_KEEP_ALIVE_SECONDS,
+          TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), runnable -> {
+            Thread thread = new Thread(runnable, "reversi-search-helper");
+            thread.setDaemon(true);
+            return thread;
+          });
+      helpers.allowCoreThreadTimeOut(true);
+    }
+    return helpers;
+  }
+}
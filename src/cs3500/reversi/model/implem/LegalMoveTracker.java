@@ -0,0 +1,188 @@
+package cs3500.reversi.model.implem;
+
+import java.util.Arrays;
+
+import cs3500.reversi.model.status.CellStatus;
+
+/**
+ * Keeps the set of legal moves of both colors of a board up to date as the board changes. The
+ * board reports every cell whose status changes, and the sets are brought up to date lazily the
+ * next time they are read. A move can only change the legality of the changed cells themselves and
+ * of the first empty cell found from each of them along every direction (walking over discs), so
+ * only those cells are checked again, instead of the whole board.
+ */
+final class LegalMoveTracker {
+
+  private static final CellStatus[] COLORS = {CellStatus.BLACK, CellStatus.WHITE};
+
+  private final AbstractPolygonGameBoard board;
+
+  // members[c] holds the legal moves of COLORS[c] in its first sizes[c] entries
+  private final int[][] members;
+
+  // positions[c][i] is the position of cell i in members[c], or -1 if it is not a legal move
+  private final int[][] positions;
+
+  private final int[] sizes;
+
+  // The cells changed since the sets were last brought up to date
+  private final int[] changed;
+  private final boolean[] isChanged;
+  private int changedCount;
+
+  // Marks the cells already checked during one update, to check each of them only once
+  private final int[] checkedStamps;
+  private int stamp;
+
+  private boolean rebuild;
+
+  /**
+   * Constructs a tracker for the given board. The sets are built from the board on first use.
+   *
+   * @param board the board to track
+   */
+  LegalMoveTracker(AbstractPolygonGameBoard board) {
+    this.board = board;
+    int n = board.getCellCount();
+    this.members = new int[COLORS.length][n];
+    this.positions = new int[COLORS.length][n];
+    this.sizes = new int[COLORS.length];
+    this.changed = new int[n];
+    this.isChanged = new boolean[n];
+    this.checkedStamps = new int[n];
+    this.rebuild = true;
+  }
+
+  /**
+   * Records that the status of the cell at the given index has changed.
+   *
+   * @param index the index of the cell
+   */
+  void cellChanged(int index) {
+    if (!rebuild && !isChanged[index]) {
+      isChanged[index] = true;
+      changed[changedCount++] = index;
+    }
+  }
+
+  /**
+   * Gets the number of legal moves of the given color.
+   *
+   * @param cellStatus the color, BLACK or WHITE
+   * @return the number of legal moves
+   */
+  int count(CellStatus cellStatus) {
+    update();
+    return sizes[colorIndex(cellStatus)];
+  }
+
+  /**
+   * Copies the legal moves of the given color into the given array.
+   *
+   * @param cellStatus the color, BLACK or WHITE
+   * @param result the array to fill with the indices of the legal moves
+   * @return the number of legal moves
+   * @throws IllegalArgumentException if result is null or too small
+   */
+  int copyTo(CellStatus cellStatus, int[] result) {
+    update();
+    int c = colorIndex(cellStatus);
+    if (result == null || result.length < sizes[c]) {
+      throw new IllegalArgumentException("result must hold " + sizes[c] + " indices");
+    }
+    System.arraycopy(members[c], 0, result, 0, sizes[c]);
+    return sizes[c];
+  }
+
+  /**
+   * Helper function to bring the sets up to date with the cells changed since the last update.
+   */
+  private void update() {
+    if (rebuild) {
+      for (int c = 0; c < COLORS.length; c++) {
+        sizes[c] = 0;
+        Arrays.fill(positions[c], -1);
+      }
+      for (int i = 0; i < changed.length; i++) {
+        check(i);
+      }
+      rebuild = false;
+      return;
+    }
+    if (changedCount == 0) {
+      return;
+    }
+    if (++stamp == 0) {
+      Arrays.fill(checkedStamps, 0);
+      stamp = 1;
+    }
+    int[] table = board.getNeighbors();
+    int numOfDirection = board.getNumOfDirection();
+    for (int k = 0; k < changedCount; k++) {
+      int index = changed[k];
+      isChanged[index] = false;
+      checkOnce(index);
+      for (int d = 0; d < numOfDirection; d++) {
+        int current = table[index * numOfDirection + d];
+        while (current >= 0 && board.getCellStatus(current) != CellStatus.EMPTY) {
+          current = table[current * numOfDirection + d];
+        }
+        if (current >= 0) {
+          checkOnce(current);
+        }
+      }
+    }
+    changedCount = 0;
+  }
+
+  /**
+   * Helper function to check the cell at the given index again, unless it was already checked
+   * during the current update.
+   *
+   * @param index the index of the cell
+   */
+  private void checkOnce(int index) {
+    if (checkedStamps[index] != stamp) {
+      checkedStamps[index] = stamp;
+      check(index);
+    }
+  }
+
+  /**
+   * Helper function to put the cell at the given index in or out of the set of each color.
+   *
+   * @param index the index of the cell
+   */
+  private void check(int index) {
+    for (int c = 0; c < COLORS.length; c++) {
+      boolean legal = board.isLegalMove(index, COLORS[c]);
+      int position = positions[c][index];
+      if (legal && position < 0) {
+        positions[c][index] = sizes[c];
+        members[c][sizes[c]++] = index;
+      } else if (!legal && position >= 0) {
+        // Move the last member into the hole
+        int last = members[c][--sizes[c]];
+        members[c][position] = last;
+        positions[c][last] = position;
+        positions[c][index] = -1;
+      }
+    }
+  }
+
+  /**
+   * Helper function to get the index of the sets of the given color.
+   *
+   * @param cellStatus the color
+   * @return 0 for BLACK, 1 for WHITE
+   * @throws IllegalArgumentException if cellStatus is EMPTY or null
+   */
+  private static int colorIndex(CellStatus cellStatus) {
+    if (cellStatus == CellStatus.BLACK) {
+      return 0;
+    } else if (cellStatus == CellStatus.WHITE) {
+      return 1;
+    }
+    throw new IllegalArgumentException("cellStatus must be BLACK or WHITE");
+  }
+}
@@ -0,0 +1,163 @@
+package cs3500.reversi.model.implem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.interf.Cell;
+import cs3500.reversi.model.interf.Player;
+import cs3500.reversi.model.status.CellStatus;
+import cs3500.reversi.model.status.GameStatus;
+
+
+/**
+ * Represents an AI player that uses Monte Carlo tree search: it plays many random games from the
+ * current position, grows a tree of the moves that did best with UCT, and plays the move visited
+ * most. It needs no evaluation, so it plays any board, hexagon or square, of any size.
+ * The playouts run on a work-stealing pool of workers, shared by the players with as many workers.
+ * Every worker grows its own tree on its own copy of the board, and the visits of the root moves of
+ * all the trees are added up. The search stops after the given number of playouts or the given
+ * time, whichever comes first. With a fixed seed, the same number of workers and no time limit,
+ * the moves are the same from one run to the next. A search interrupted while waiting for its
+ * workers throws an IllegalStateException rather than play a move from part of the trees.
+ */
+public class MctsAIPlayer implements Player {
+
+  private final long timeLimitMillis;
+  private final long maxPlayouts;
+  private final int workers;
+
+  private final Random seeds;
+
+  private long lastPlayoutCount;
+
+  /**
+   * Constructs an MctsAIPlayer that stops on a time limit or a number of playouts for each move.
+   *
+   * @param timeLimitMillis the time to think about each move, in milliseconds, or 0 for no limit
+   * @param maxPlayouts the number of playouts for each move, or 0 for no limit
+   * @param workers the number of threads running playouts
+   * @throws IllegalArgumentException if a limit is negative, both limits are 0, or workers is not
+   *         positive
+   */
+  public MctsAIPlayer(long timeLimitMillis, long maxPlayouts, int workers) {
+    this(timeLimitMillis, maxPlayouts, workers, System.nanoTime());
+  }
+
+  /**
+   * Constructs an MctsAIPlayer that stops on a time limit or a number of playouts for each move,
+   * with the given seed for its random playouts.
+   *
+   * @param timeLimitMillis the time to think about each move, in milliseconds, or 0 for no limit
+   * @param maxPlayouts the number of playouts for each move, or 0 for no limit
+   * @param workers the number of threads running playouts
+   * @param seed the seed of the random playouts
+   * @throws IllegalArgumentException if a limit is negative, both limits are 0, or workers is not
+   *         positive
+   */
+  public MctsAIPlayer(long timeLimitMillis, long maxPlayouts, int workers, long seed) {
+    if (timeLimitMillis < 0 || maxPlayouts < 0) {
+      throw new IllegalArgumentException("the limits cannot be negative");
+    }
+    if (timeLimitMillis == 0 && maxPlayouts == 0) {
+      throw new IllegalArgumentException("a time limit or a number of playouts must be given");
+    }
+    if (workers < 1) {
+      throw new IllegalArgumentException("workers must be positive");
+    }
+    this.timeLimitMillis = timeLimitMillis;
+    this.maxPlayouts = maxPlayouts;
+    this.workers = workers;
+    this.seeds = new Random(seed);
+  }
+
+  @Override
+  public Cell move(Board board, GameStatus gameStatus) {
+    if (board == null) {
+      throw new IllegalArgumentException("board cannot be null");
+    }
+    CellStatus toMove;
+    if (gameStatus == GameStatus.BTURN) {
+      toMove = CellStatus.BLACK;
+    } else if (gameStatus == GameStatus.WTURN) {
+      toMove = CellStatus.WHITE;
+    } else {
+      return null;
+    }
+    long deadline = timeLimitMillis == 0 ? Long.MAX_VALUE
+        : System.nanoTime() + timeLimitMillis * 1_000_000L;
+    long playoutLimit = maxPlayouts == 0 ? Long.MAX_VALUE : maxPlayouts;
+
+    int[] rootMoves = new int[board.getCellCount()];
+    int rootCount = board.getLegalMoves(toMove, rootMoves);
+    if (rootCount == 0) {
+      return null;
+    }
+
+    // Every worker gets its share of the playouts and its own seed
+    List<Callable<int[]>> tasks = new ArrayList<Callable<int[]>>();
+    MctsSearcher[] searchers = new MctsSearcher[workers];
+    for (int w = 0; w < workers; w++) {
+      MctsSearcher searcher = new MctsSearcher(board.cloneBoard(), seeds.nextLong());
+      long share = playoutLimit == Long.MAX_VALUE ? Long.MAX_VALUE
+          : playoutLimit / workers + (w < playoutLimit % workers ? 1 : 0);
+      searchers[w] = searcher;
+      tasks.add(() -> searcher.search(toMove, rootMoves, rootCount, deadline, share));
+    }
+
+    int[] visits = new int[rootCount];
+    if (workers == 1) {
+      addTo(visits, searchers[0].search(toMove, rootMoves, rootCount, deadline, playoutLimit));
+    } else {
+      // The workers share a pool, so players thrown away do not leave threads behind
+      try {
+        for (Future<int[]> result : SharedPools.get(workers).invokeAll(tasks)) {
+          addTo(visits, result.get());
+        }
+      } catch (InterruptedException e) {
+        // A move built from the visits of some of the trees is not the move asked for
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("the search was interrupted", e);
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("a playout worker failed", e.getCause());
+      }
+    }
+    lastPlayoutCount = 0;
+    for (MctsSearcher searcher : searchers) {
+      lastPlayoutCount += searcher.getPlayoutCount();
+    }
+
+    int best = 0;
+    for (int i = 1; i < rootCount; i++) {
+      if (visits[i] > visits[best]) {
+        best = i;
+      }
+    }
+    return board.getCellAt(rootMoves[best]);
+  }
+
+  /**
+   * Gets the number of playouts run for the last move, by all the workers.
+   *
+   * @return the number of playouts
+   */
+  public long getLastPlayoutCount() {
+    return lastPlayoutCount;
+  }
+
+  /**
+   * Helper method to add the visits of one tree to the total.
+   *
+   * @param total the total visits of each root move
+   * @param visits the visits of each root move in one tree
+   */
+  private static void addTo(int[] total, int[] visits) {
+    for (int i = 0; i < total.length; i++) {
+      total[i] += visits[i];
+    }
+  }
+}
@@ -0,0 +1,263 @@
+package cs3500.reversi.model.implem;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.status.CellStatus;
+
+/**
+ * Grows one Monte Carlo search tree from a position, with UCT selection and random playouts. The
+ * searcher plays on its own copy of the board and undoes every playout, so the only memory it
+ * takes while searching is one tree node per playout. A searcher is used by one thread at a time;
+ * parallel searches each build their own tree and add up the visits of the root moves.
+ */
+final class MctsSearcher {
+
+  // The move of a node reached by passing
+  private static final int PASS = -1;
+
+  // The exploration constant of UCT
+  private static final double EXPLORATION = Math.sqrt(2);
+
+  private final Board board;
+
+  private final SplittableRandom random;
+
+  // The undo record of every ply of a playout, created when a playout first gets that deep
+  private final ArrayList<int[]> undoRecords;
+
+  // The legal moves of the current position of a playout
+  private final int[] legalMoves;
+
+  // The nodes of the tree visited by the current playout
+  private final ArrayList<Node> path;
+
+  private long playouts;
+
+  /**
+   * Constructs a searcher on the given board. The board is changed during a search, and left as
+   * it was found after it.
+   *
+   * @param board the board to search
+   * @param seed the seed of the random moves
+   */
+  MctsSearcher(Board board, long seed) {
+    this.board = board;
+    this.random = new SplittableRandom(seed);
+    this.undoRecords = new ArrayList<int[]>();
+    this.legalMoves = new int[board.getCellCount()];
+    this.path = new ArrayList<Node>();
+  }
+
+  /**
+   * Searches the position until the deadline or the given number of playouts.
+   *
+   * @param toMove the color to move, which must have a legal move
+   * @param rootMoves the legal moves of the color to move
+   * @param rootCount the number of legal moves
+   * @param deadlineNanos the value of System.nanoTime at which the search must stop
+   * @param maxPlayouts the number of playouts to run at most
+   * @return the number of visits of each root move, in the order of rootMoves
+   */
+  int[] search(CellStatus toMove, int[] rootMoves, int rootCount, long deadlineNanos,
+      long maxPlayouts) {
+    Node root = new Node(PASS, opposite(toMove));
+    root.untried = new int[rootCount];
+    System.arraycopy(rootMoves, 0, root.untried, 0, rootCount);
+    root.untriedCount = rootCount;
+    root.children = new Node[rootCount];
+    playouts = 0;
+    // At least one playout, so that every search says something about the root moves
+    do {
+      playout(root, toMove);
+      playouts++;
+    } while (playouts < maxPlayouts && System.nanoTime() - deadlineNanos < 0);
+
+    int[] visits = new int[rootCount];
+    for (int c = 0; c < root.childCount; c++) {
+      Node child = root.children[c];
+      for (int i = 0; i < rootCount; i++) {
+        if (rootMoves[i] == child.move) {
+          visits[i] = child.visits;
+          break;
+        }
+      }
+    }
+    return visits;
+  }
+
+  /**
+   * Gets the number of playouts run by the last search.
+   *
+   * @return the number of playouts
+   */
+  long getPlayoutCount() {
+    return playouts;
+  }
+
+  /**
+   * Helper function to run one playout: walk down the tree with UCT, add one node, play random
+   * moves to the end of the game, and count the result in every node on the way.
+   *
+   * @param root the root of the tree
+   * @param toMove the color to move at the root
+   */
+  private void playout(Node root, CellStatus toMove) {
+    path.clear();
+    path.add(root);
+    int plies = 0;
+    Node node = root;
+    CellStatus color = toMove;
+
+    // Selection
+    while (node.untriedCount == 0 && node.childCount > 0) {
+      node = select(node);
+      plies = play(node.move, color, plies);
+      color = opposite(color);
+      path.add(node);
+    }
+
+    // Expansion
+    if (node.untriedCount > 0) {
+      int pick = random.nextInt(node.untriedCount);
+      int move = node.untried[pick];
+      node.untried[pick] = node.untried[--node.untriedCount];
+      plies = play(move, color, plies);
+      Node child = new Node(move, color);
+      color = opposite(color);
+      expand(child, color);
+      node.children[node.childCount++] = child;
+      path.add(child);
+    }
+
+    // Simulation
+    while (true) {
+      int count = board.getLegalMoves(color, legalMoves);
+      if (count == 0) {
+        if (board.countLegalMoves(opposite(color)) == 0) {
+          break;
+        }
+      } else {
+        plies = play(legalMoves[random.nextInt(count)], color, plies);
+      }
+      color = opposite(color);
+    }
+    int difference = board.countCells(CellStatus.BLACK) - board.countCells(CellStatus.WHITE);
+    for (int i = plies - 1; i >= 0; i--) {
+      board.undoMove(undoRecords.get(i));
+    }
+
+    // Backpropagation
+    for (int i = 0; i < path.size(); i++) {
+      Node visited = path.get(i);
+      visited.visits++;
+      if (difference == 0) {
+        visited.wins += 0.5;
+      } else if ((difference > 0) == (visited.mover == CellStatus.BLACK)) {
+        visited.wins += 1;
+      }
+    }
+  }
+
+  /**
+   * Helper function to pick the child of a fully expanded node with the best UCT value.
+   *
+   * @param node the node
+   * @return the child to visit
+   */
+  private Node select(Node node) {
+    double logVisits = Math.log(node.visits);
+    Node best = null;
+    double bestValue = Double.NEGATIVE_INFINITY;
+    for (int c = 0; c < node.childCount; c++) {
+      Node child = node.children[c];
+      double value = child.wins / child.visits
+          + EXPLORATION * Math.sqrt(logVisits / child.visits);
+      if (value > bestValue) {
+        bestValue = value;
+        best = child;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Helper function to list the moves of a new node: its legal moves, a pass if it has none but
+   * the opponent has some, or nothing if the game is over.
+   *
+   * @param node the new node
+   * @param toMove the color to move at the node
+   */
+  private void expand(Node node, CellStatus toMove) {
+    int count = board.getLegalMoves(toMove, legalMoves);
+    if (count == 0) {
+      if (board.countLegalMoves(opposite(toMove)) == 0) {
+        node.untried = new int[0];
+      } else {
+        node.untried = new int[] {PASS};
+        count = 1;
+      }
+    } else {
+      node.untried = new int[count];
+      System.arraycopy(legalMoves, 0, node.untried, 0, count);
+    }
+    node.untriedCount = count;
+    node.children = new Node[count];
+  }
+
+  /**
+   * Helper function to play a move of a playout, recording it to be undone.
+   *
+   * @param move the index of the cell, or PASS
+   * @param color the color to move
+   * @param plies the number of moves recorded so far
+   * @return the number of moves recorded after this one
+   */
+  private int play(int move, CellStatus color, int plies) {
+    if (move == PASS) {
+      return plies;
+    }
+    if (plies == undoRecords.size()) {
+      undoRecords.add(board.newUndoRecord());
+    }
+    board.makeMove(move, color, undoRecords.get(plies));
+    return plies + 1;
+  }
+
+  /**
+   * Helper function to get the other color.
+   *
+   * @param cellStatus BLACK or WHITE
+   * @return the other color
+   */
+  private static CellStatus opposite(CellStatus cellStatus) {
+    return cellStatus == CellStatus.BLACK ? CellStatus.WHITE : CellStatus.BLACK;
+  }
+
+  /**
+   * A node of the search tree: a position, reached by a move of one color.
+   */
+  private static final class Node {
+
+    private final int move;
+
+    // The color that played the move into this node, whose wins the node counts
+    private final CellStatus mover;
+
+    // The moves not yet tried from this node, in the first untriedCount entries
+    private int[] untried;
+    private int untriedCount;
+
+    private Node[] children;
+    private int childCount;
+
+    private int visits;
+    private double wins;
+
+    private Node(int move, CellStatus mover) {
+      this.move = move;
+      this.mover = mover;
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package cs3500.reversi.model.implem;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.interf.Cell;
+
+/**
+ * Represents the result of analyzing a position to some depth: the best moves found, ranked best
+ * first, with their scores from the point of view of the side to move, and how much searching it
+ * took. A score above WIN_SCORE is a proven win, by the score minus WIN_SCORE discs, and a score
+ * below -WIN_SCORE a proven loss. An analysis does not change once built.
+ */
+public final class MoveAnalysis {
+
+  /**
+   * The score of a proven win, before the final disc difference is added.
+   */
+  public static final int WIN_SCORE = AlphaBetaSearcher.WIN_SCORE;
+
+  private final Cell[] moves;
+  private final int[] scores;
+  private final int depth;
+  private final long nodeCount;
+
+  /**
+   * Constructs an analysis of the given moves, resolved to the cells of the given board.
+   *
+   * @param board the board analyzed
+   * @param moves the indices of the moves, best first
+   * @param scores the score of every move
+   * @param count the number of moves
+   * @param depth the depth of the search, in plies
+   * @param nodeCount the number of nodes searched so far
+   */
+  MoveAnalysis(Board board, int[] moves, int[] scores, int count, int depth, long nodeCount) {
+    this.moves = new Cell[count];
+    this.scores = new int[count];
+    for (int i = 0; i < count; i++) {
+      this.moves[i] = board.getCellAt(moves[i]);
+      this.scores[i] = scores[i];
+    }
+    this.depth = depth;
+    this.nodeCount = nodeCount;
+  }
+
+  /**
+   * Gets the number of moves ranked by the analysis.
+   *
+   * @return the number of moves
+   */
+  public int getMoveCount() {
+    return moves.length;
+  }
+
+  /**
+   * Gets the move at the given rank.
+   *
+   * @param rank the rank, from 0 for the best move
+   * @return the cell of the move
+   * @throws IllegalArgumentException if the rank is out of range
+   */
+  public Cell getMove(int rank) {
+    checkRank(rank);
+    return moves[rank];
+  }
+
+  /**
+   * Gets the score of the move at the given rank.
+   *
+   * @param rank the rank, from 0 for the best move
+   * @return the score of the move for the side to move
+   * @throws IllegalArgumentException if the rank is out of range
+   */
+  public int getScore(int rank) {
+    checkRank(rank);
+    return scores[rank];
+  }
+
+  /**
+   * Gets the depth the moves were searched to.
+   *
+   * @return the depth, in plies
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Gets the number of nodes searched to reach this analysis, counting the shallower iterations.
+   *
+   * @return the number of nodes
+   */
+  public long getNodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * Helper function to check that a rank is in range.
+   *
+   * @param rank the rank
+   * @throws IllegalArgumentException if the rank is out of range
+   */
+  private void checkRank(int rank) {
+    if (rank < 0 || rank >= moves.length) {
+      throw new IllegalArgumentException("rank must be between 0 and " + (moves.length - 1));
+    }
+  }
+}
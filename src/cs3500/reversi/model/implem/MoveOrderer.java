@@ -0,0 +1,176 @@
+package cs3500.reversi.model.implem;
+
+import java.util.Arrays;
+
+import cs3500.reversi.model.status.CellStatus;
+
+/**
+ * Orders the moves of a depth-limited search so that the moves most likely to cut the search off
+ * are tried first: the move stored in the transposition table, then the two killer moves of the
+ * ply (the last moves that caused a cutoff at the same distance from the root), then the other
+ * moves by their history score (how much they caused cutoffs anywhere in the tree, for each cell
+ * and color). All the tables are primitive arrays, and ordering allocates nothing.
+ * The orderer also counts the cutoffs, and how many of them came from the first move tried, to
+ * measure how good the ordering is. An orderer is used by one search at a time.
+ */
+final class MoveOrderer {
+
+  private static final int HASH_MOVE_KEY = Integer.MAX_VALUE;
+
+  private static final int FIRST_KILLER_KEY = Integer.MAX_VALUE - 1;
+
+  private static final int SECOND_KILLER_KEY = Integer.MAX_VALUE - 2;
+
+  // History scores are halved when one of them gets past this, to keep them below the killer keys
+  private static final int HISTORY_LIMIT = 1 << 28;
+
+  // history[index * 2 + color] is the history score of a move of a color on a cell
+  private final int[] history;
+
+  // killers[ply * 2] and killers[ply * 2 + 1] are the killer moves of a ply, or -1
+  private int[] killers;
+
+  // The sort keys of the moves being ordered
+  private final int[] keys;
+
+  private long cutoffs;
+  private long firstMoveCutoffs;
+  private long cutoffMoveNumbers;
+
+  /**
+   * Constructs an orderer for boards with the given number of cells.
+   *
+   * @param cellCount the number of cells of the board
+   */
+  MoveOrderer(int cellCount) {
+    this.history = new int[cellCount * 2];
+    this.killers = new int[0];
+    this.keys = new int[cellCount];
+  }
+
+  /**
+   * Prepares the orderer for a new search of a new position: the killer moves are forgotten and
+   * the history scores are halved, so that older searches count less.
+   */
+  void newSearch() {
+    Arrays.fill(killers, -1);
+    for (int i = 0; i < history.length; i++) {
+      history[i] >>= 1;
+    }
+  }
+
+  /**
+   * Sorts the given moves, best first.
+   *
+   * @param moves the moves to sort, in their first count entries
+   * @param count the number of moves
+   * @param hashMove the move stored in the transposition table, or -1
+   * @param ply the distance from the root
+   * @param color the color to move
+   */
+  void order(int[] moves, int count, int hashMove, int ply, CellStatus color) {
+    int firstKiller = -1;
+    int secondKiller = -1;
+    if (ply * 2 < killers.length) {
+      firstKiller = killers[ply * 2];
+      secondKiller = killers[ply * 2 + 1];
+    }
+    int side = color == CellStatus.BLACK ? 0 : 1;
+    for (int i = 0; i < count; i++) {
+      int move = moves[i];
+      if (move == hashMove) {
+        keys[i] = HASH_MOVE_KEY;
+      } else if (move == firstKiller) {
+        keys[i] = FIRST_KILLER_KEY;
+      } else if (move == secondKiller) {
+        keys[i] = SECOND_KILLER_KEY;
+      } else {
+        keys[i] = history[move * 2 + side];
+      }
+    }
+    // Insertion sort: the lists are short, and it keeps equal moves in their order
+    for (int i = 1; i < count; i++) {
+      int move = moves[i];
+      int key = keys[i];
+      int j = i - 1;
+      while (j >= 0 && keys[j] < key) {
+        moves[j + 1] = moves[j];
+        keys[j + 1] = keys[j];
+        j--;
+      }
+      moves[j + 1] = move;
+      keys[j + 1] = key;
+    }
+  }
+
+  /**
+   * Records that a move caused a cutoff: it becomes the first killer move of the ply, and its
+   * history score grows with the square of the remaining depth.
+   *
+   * @param move the move
+   * @param moveNumber the position of the move in the order it was tried, from 0
+   * @param depth the remaining depth of the search
+   * @param ply the distance from the root
+   * @param color the color that played the move
+   */
+  void recordCutoff(int move, int moveNumber, int depth, int ply, CellStatus color) {
+    cutoffs++;
+    cutoffMoveNumbers += moveNumber;
+    if (moveNumber == 0) {
+      firstMoveCutoffs++;
+    }
+    if (ply * 2 >= killers.length) {
+      int oldLength = killers.length;
+      killers = Arrays.copyOf(killers, Math.max(16, (ply + 1) * 4));
+      Arrays.fill(killers, oldLength, killers.length, -1);
+    }
+    if (killers[ply * 2] != move) {
+      killers[ply * 2 + 1] = killers[ply * 2];
+      killers[ply * 2] = move;
+    }
+    int slot = move * 2 + (color == CellStatus.BLACK ? 0 : 1);
+    history[slot] += depth * depth;
+    if (history[slot] > HISTORY_LIMIT) {
+      for (int i = 0; i < history.length; i++) {
+        history[i] >>= 1;
+      }
+    }
+  }
+
+  /**
+   * Sets the cutoff statistics back to zero.
+   */
+  void resetStatistics() {
+    cutoffs = 0;
+    firstMoveCutoffs = 0;
+    cutoffMoveNumbers = 0;
+  }
+
+  /**
+   * Gets the number of cutoffs since the statistics were reset.
+   *
+   * @return the number of cutoffs
+   */
+  long getCutoffCount() {
+    return cutoffs;
+  }
+
+  /**
+   * Gets the number of cutoffs caused by the first move tried since the statistics were reset.
+   *
+   * @return the number of first move cutoffs
+   */
+  long getFirstMoveCutoffCount() {
+    return firstMoveCutoffs;
+  }
+
+  /**
+   * Gets the average position, from 0, of the moves that caused a cutoff since the statistics
+   * were reset. The lower, the better the ordering.
+   *
+   * @return the average position of the cutoff moves, or 0 if there was no cutoff
+   */
+  double getAverageCutoffMoveNumber() {
+    return cutoffs == 0 ? 0 : (double) cutoffMoveNumbers / cutoffs;
+  }
+}
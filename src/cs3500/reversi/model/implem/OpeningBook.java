@@ -0,0 +1,133 @@
+package cs3500.reversi.model.implem;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import cs3500.reversi.model.interf.Board;
+
+/**
+ * Represents an opening book read from a file written by OpeningBookBuilder: the best move of
+ * every position of the first plies of a game, keyed by the Zobrist hash of the position (with the
+ * side to move). The file is mapped in memory and never read as a whole, so opening a book costs
+ * nothing however large it is, and every process playing with the same book shares its pages.
+ * The file is made of a header and of entries sorted by hash, looked up by binary search.
+ * <pre>
+ *   header  int magic, int version, int cell count, int number of directions, int entry count
+ *   entry   long hash, int move
+ * </pre>
+ * A book is only read once it is opened, so it can be used by many threads at once.
+ */
+public final class OpeningBook {
+
+  static final int MAGIC = 0x52424b31;
+
+  static final int VERSION = 1;
+
+  static final int HEADER_BYTES = 5 * Integer.BYTES;
+
+  static final int ENTRY_BYTES = Long.BYTES + Integer.BYTES;
+
+  private final MappedByteBuffer entries;
+
+  private final int cellCount;
+  private final int numOfDirection;
+  private final int size;
+
+  /**
+   * Opens the opening book in the given file.
+   *
+   * @param file the book file
+   * @throws IllegalArgumentException if the file is null
+   * @throws IOException if the file cannot be read, or is not an opening book
+   */
+  public OpeningBook(Path file) throws IOException {
+    if (file == null) {
+      throw new IllegalArgumentException("file cannot be null");
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long length = channel.size();
+      if (length < HEADER_BYTES) {
+        throw new IOException(file + " is not an opening book");
+      }
+      // The mapping stays valid after the channel is closed
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+      if (buffer.getInt(0) != MAGIC) {
+        throw new IOException(file + " is not an opening book");
+      }
+      if (buffer.getInt(4) != VERSION) {
+        throw new IOException(file + " has an unknown book version " + buffer.getInt(4));
+      }
+      this.cellCount = buffer.getInt(8);
+      this.numOfDirection = buffer.getInt(12);
+      this.size = buffer.getInt(16);
+      if (size < 0 || length != HEADER_BYTES + (long) size * ENTRY_BYTES) {
+        throw new IOException(file + " is truncated");
+      }
+      this.entries = buffer;
+    }
+  }
+
+  /**
+   * Checks if this book was built for boards of the shape and size of the given board.
+   *
+   * @param board the board
+   * @return true if the positions of the board can be looked up in this book
+   * @throws IllegalArgumentException if the board is null
+   */
+  public boolean fits(Board board) {
+    if (board == null) {
+      throw new IllegalArgumentException("board cannot be null");
+    }
+    return board.getCellCount() == cellCount && directionsOf(board) == numOfDirection;
+  }
+
+  /**
+   * Looks up the book move of a position.
+   *
+   * @param hash the hash of the position, as given by Board.getHash(GameStatus)
+   * @return the index of the cell to play, or -1 if the position is not in the book
+   */
+  public int lookup(long hash) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int offset = HEADER_BYTES + middle * ENTRY_BYTES;
+      long entryHash = entries.getLong(offset);
+      if (entryHash < hash) {
+        low = middle + 1;
+      } else if (entryHash > hash) {
+        high = middle - 1;
+      } else {
+        return entries.getInt(offset + Long.BYTES);
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Gets the number of positions in the book.
+   *
+   * @return the number of positions
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Helper function to get the number of directions of a board, which tells the hexagon boards
+   * from the square ones.
+   *
+   * @param board the board
+   * @return the number of directions, or 0 if the board does not tell
+   */
+  static int directionsOf(Board board) {
+    if (board instanceof AbstractPolygonGameBoard) {
+      return ((AbstractPolygonGameBoard) board).getNumOfDirection();
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,172 @@
+package cs3500.reversi.model.implem;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.interf.Cell;
+import cs3500.reversi.model.interf.Player;
+import cs3500.reversi.model.interf.ReversiModel;
+import cs3500.reversi.model.status.CellStatus;
+import cs3500.reversi.model.status.GameStatus;
+
+/**
+ * Builds opening books offline: it plays every line of the first plies of a game, asks a player
+ * for its move in every position it reaches, and writes the answers to a file that OpeningBook
+ * reads. A position reached by several lines is only asked once. A side with no legal move passes,
+ * and a pass counts as a ply.
+ */
+public class OpeningBookBuilder {
+
+  private final Player teacher;
+  private final int plies;
+
+  // The book moves found so far, by position hash
+  private final Map<Long, Integer> moves;
+
+  /**
+   * Constructs a builder that asks the given player for the moves of the book.
+   *
+   * @param teacher the player whose moves the book holds
+   * @param plies the number of plies of the book
+   * @throws IllegalArgumentException if the player is null or plies is not positive
+   */
+  public OpeningBookBuilder(Player teacher, int plies) {
+    if (teacher == null) {
+      throw new IllegalArgumentException("teacher cannot be null");
+    }
+    if (plies < 1) {
+      throw new IllegalArgumentException("plies must be positive");
+    }
+    this.teacher = teacher;
+    this.plies = plies;
+    this.moves = new HashMap<Long, Integer>();
+  }
+
+  /**
+   * Builds the book of the given game from its current position, and writes it to the given file.
+   *
+   * @param model the game, whose board is left as it was found
+   * @param file the file to write
+   * @return the number of positions in the book
+   * @throws IllegalArgumentException if the game or the file is null
+   * @throws IOException if the file cannot be written
+   */
+  public int build(ReversiModel model, Path file) throws IOException {
+    if (model == null || file == null) {
+      throw new IllegalArgumentException("model and file cannot be null");
+    }
+    GameStatus gameStatus = model.getGameState();
+    if (gameStatus != GameStatus.BTURN && gameStatus != GameStatus.WTURN) {
+      throw new IllegalArgumentException("the game is over");
+    }
+    Board board = model.getBoard().cloneBoard();
+    moves.clear();
+    int[][] undoRecords = new int[plies][];
+    for (int i = 0; i < plies; i++) {
+      undoRecords[i] = board.newUndoRecord();
+    }
+    explore(board, gameStatus, 0, undoRecords);
+    write(board, file);
+    return moves.size();
+  }
+
+  /**
+   * Helper function to add the position and every position reachable from it within the plies of
+   * the book.
+   *
+   * @param board the board of the position
+   * @param gameStatus the side to move
+   * @param ply the distance from the first position
+   * @param undoRecords the undo record of every ply
+   */
+  private void explore(Board board, GameStatus gameStatus, int ply, int[][] undoRecords) {
+    if (ply == plies) {
+      return;
+    }
+    CellStatus toMove = gameStatus == GameStatus.BTURN ? CellStatus.BLACK : CellStatus.WHITE;
+    CellStatus opponent = toMove == CellStatus.BLACK ? CellStatus.WHITE : CellStatus.BLACK;
+    GameStatus next = gameStatus == GameStatus.BTURN ? GameStatus.WTURN : GameStatus.BTURN;
+    int[] legalMoves = new int[board.getCellCount()];
+    int count = board.getLegalMoves(toMove, legalMoves);
+    if (count == 0) {
+      if (board.countLegalMoves(opponent) > 0) {
+        explore(board, next, ply + 1, undoRecords);
+      }
+      return;
+    }
+    long hash = board.getHash(gameStatus);
+    if (moves.containsKey(hash)) {
+      return;
+    }
+    moves.put(hash, ask(board, gameStatus, legalMoves, count));
+    for (int i = 0; i < count; i++) {
+      board.makeMove(legalMoves[i], toMove, undoRecords[ply]);
+      explore(board, next, ply + 1, undoRecords);
+      board.undoMove(undoRecords[ply]);
+    }
+  }
+
+  /**
+   * Helper function to ask the teacher for its move in a position. The teacher plays on its own
+   * copy of the board, with the legal moves marked on the cells as the game marks them.
+   *
+   * @param board the board of the position
+   * @param gameStatus the side to move
+   * @param legalMoves the legal moves of the side to move
+   * @param count the number of legal moves
+   * @return the index of the move of the teacher
+   * @throws IllegalStateException if the teacher does not answer with a legal move
+   */
+  private int ask(Board board, GameStatus gameStatus, int[] legalMoves, int count) {
+    Board copy = board.cloneBoard();
+    for (int i = 0; i < copy.getCellCount(); i++) {
+      copy.getCellAt(i).setLegalMove(false);
+    }
+    for (int i = 0; i < count; i++) {
+      copy.getCellAt(legalMoves[i]).setLegalMove(true);
+    }
+    Cell cell = teacher.move(copy, gameStatus);
+    int move = cell == null ? -1 : copy.getCellIndex(cell);
+    for (int i = 0; i < count; i++) {
+      if (legalMoves[i] == move) {
+        return move;
+      }
+    }
+    throw new IllegalStateException("the teacher did not play a legal move");
+  }
+
+  /**
+   * Helper function to write the book, sorted by hash.
+   *
+   * @param board a board of the shape and size of the book
+   * @param file the file to write
+   * @throws IOException if the file cannot be written
+   */
+  private void write(Board board, Path file) throws IOException {
+    long[] hashes = new long[moves.size()];
+    int n = 0;
+    for (long hash : moves.keySet()) {
+      hashes[n++] = hash;
+    }
+    Arrays.sort(hashes);
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeInt(OpeningBook.MAGIC);
+      out.writeInt(OpeningBook.VERSION);
+      out.writeInt(board.getCellCount());
+      out.writeInt(OpeningBook.directionsOf(board));
+      out.writeInt(hashes.length);
+      for (long hash : hashes) {
+        out.writeLong(hash);
+        out.writeInt(moves.get(hash));
+      }
+    }
+  }
+}
@@ -0,0 +1,222 @@
+package cs3500.reversi.model.implem;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.status.CellStatus;
+
+/**
+ * Evaluates positions with tables of weights of patterns, the way strong Othello programs do: the
+ * contents of the edges, the corner blocks and the diagonals laid out by a PatternLayout are read
+ * as indices in flat tables, so scoring a position is one array lookup per pattern, plus the disc
+ * and the mobility differences. The pattern indices live on the board and are updated as discs are
+ * placed and flipped, so they are never read from the cells again during a search.
+ * The weights are from the point of view of black, in one table per family of patterns, and the
+ * score of white is the opposite. The default weights are built from the preference weights of the
+ * AI players, but unlike WeightedEvaluator they look at the cells around a cell: a cell next to a
+ * corner only costs while the corner is empty, the discs that run along an edge from a corner of
+ * their color are stable and count again, and a disc next to an empty corner costs more when the
+ * opponent can take the corner along the diagonal.
+ */
+final class PatternEvaluator implements Evaluator {
+
+  // The places of the cells next to the corner in a CORNER block
+  private static final int[] NEXT_TO_CORNER = {1, 3, 4};
+
+  private final PatternLayout layout;
+
+  // The weights of the families of patterns, at the offsets of PatternLayout.familyOffsets
+  private final short[] weights;
+
+  // The offset of the table of every pattern in weights
+  private final int[] patternOffsets;
+
+  private final int discWeight;
+  private final int mobilityWeight;
+
+  /**
+   * Constructs an evaluator for boards with the geometry of the given board, with default weights
+   * built from the preference weights of the AI players.
+   *
+   * @param board a board with the geometry to evaluate
+   * @param cornerTendency the weight of a corner
+   * @param nextToCornerPhobia the penalty of a cell next to an empty corner
+   * @param greedy the weight of a disc
+   * @param cautiousness the weight of a legal move
+   */
+  PatternEvaluator(Board board, int cornerTendency, int nextToCornerPhobia, int greedy,
+      int cautiousness) {
+    this.layout = new PatternLayout(board);
+    this.weights = defaultWeights(layout, cornerTendency, nextToCornerPhobia, greedy);
+    this.patternOffsets = patternOffsets(layout);
+    this.discWeight = greedy;
+    this.mobilityWeight = cautiousness;
+  }
+
+  /**
+   * Constructs an evaluator for boards with the geometry of the given board, with the given
+   * weights.
+   *
+   * @param board a board with the geometry to evaluate
+   * @param weights the weights of the patterns, for black, laid out as getWeights returns them
+   * @param discWeight the weight of a disc
+   * @param mobilityWeight the weight of a legal move
+   * @throws IllegalArgumentException if the weights do not fit the patterns of the board
+   */
+  PatternEvaluator(Board board, short[] weights, int discWeight, int mobilityWeight) {
+    this.layout = new PatternLayout(board);
+    if (weights == null || weights.length != layout.familyOffsets[PatternLayout.FAMILY_COUNT]) {
+      throw new IllegalArgumentException("the weights do not fit the patterns of the board");
+    }
+    this.weights = weights.clone();
+    this.patternOffsets = patternOffsets(layout);
+    this.discWeight = discWeight;
+    this.mobilityWeight = mobilityWeight;
+  }
+
+  @Override
+  public boolean fits(Board board) {
+    return layout.fits(board);
+  }
+
+  @Override
+  public int evaluate(Board board, CellStatus toMove) {
+    int[] indices;
+    if (board instanceof AbstractPolygonGameBoard) {
+      indices = ((AbstractPolygonGameBoard) board).getPatternIndices(layout);
+    } else {
+      indices = new int[layout.patternCount()];
+      layout.computeIndices(board, indices);
+    }
+    int score = 0;
+    for (int p = 0; p < indices.length; p++) {
+      score += weights[patternOffsets[p] + indices[p]];
+    }
+    score += discWeight * (board.countCells(CellStatus.BLACK) - board.countCells(CellStatus.WHITE));
+    if (mobilityWeight != 0) {
+      score += mobilityWeight
+          * (board.countLegalMoves(CellStatus.BLACK) - board.countLegalMoves(CellStatus.WHITE));
+    }
+    return toMove == CellStatus.BLACK ? score : -score;
+  }
+
+  /**
+   * Gets a copy of the weights of the patterns: the table of each family of patterns, one after
+   * the other, indexed by the base 3 number of the cells of a pattern, its corner being the lowest
+   * digit.
+   *
+   * @return the weights, for black
+   */
+  short[] getWeights() {
+    return weights.clone();
+  }
+
+  /**
+   * Helper function to find the offset of the table of every pattern.
+   *
+   * @param layout the layout of the patterns
+   * @return the offset of the table of every pattern in the weights
+   */
+  private static int[] patternOffsets(PatternLayout layout) {
+    int[] offsets = new int[layout.patternCount()];
+    for (int p = 0; p < offsets.length; p++) {
+      offsets[p] = layout.familyOffsets[layout.families[p]];
+    }
+    return offsets;
+  }
+
+  /**
+   * Helper function to build the default weights of every pattern of every family.
+   *
+   * @param layout the layout of the patterns
+   * @param cornerTendency the weight of a corner
+   * @param nextToCornerPhobia the penalty of a cell next to an empty corner
+   * @param greedy the weight of a disc
+   * @return the weights
+   */
+  private static short[] defaultWeights(PatternLayout layout, int cornerTendency,
+      int nextToCornerPhobia, int greedy) {
+    short[] weights = new short[layout.familyOffsets[PatternLayout.FAMILY_COUNT]];
+    for (int f = 0; f < PatternLayout.FAMILY_COUNT; f++) {
+      int length = layout.familyLengths[f];
+      if (length == 0) {
+        continue;
+      }
+      int[] signs = new int[length];
+      for (int index = 0; index < PatternLayout.power(length); index++) {
+        int rest = index;
+        for (int k = 0; k < length; k++) {
+          int digit = rest % 3;
+          signs[k] = digit == 1 ? 1 : digit == 2 ? -1 : 0;
+          rest /= 3;
+        }
+        int weight;
+        if (f == PatternLayout.EDGE) {
+          weight = edgeWeight(signs, greedy);
+        } else if (f == PatternLayout.CORNER) {
+          weight = cornerWeight(signs, cornerTendency, nextToCornerPhobia);
+        } else {
+          weight = diagonalWeight(signs, cornerTendency);
+        }
+        weights[layout.familyOffsets[f] + index] =
+            (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, weight));
+      }
+    }
+    return weights;
+  }
+
+  /**
+   * Helper function to weigh an edge: the discs that run from a corner of their color are stable.
+   *
+   * @param signs the cells of the edge from the corner: 1 for black, -1 for white, 0 for empty
+   * @param greedy the weight of a disc
+   * @return the weight of the edge
+   */
+  private static int edgeWeight(int[] signs, int greedy) {
+    int weight = 0;
+    for (int k = 1; k < signs.length && signs[0] != 0 && signs[k] == signs[0]; k++) {
+      weight += signs[0] * greedy;
+    }
+    return weight;
+  }
+
+  /**
+   * Helper function to weigh a corner block: the corner, and the cells next to it while it is
+   * empty.
+   *
+   * @param signs the cells of the block: 1 for black, -1 for white, 0 for empty
+   * @param cornerTendency the weight of a corner
+   * @param nextToCornerPhobia the penalty of a cell next to an empty corner
+   * @return the weight of the block
+   */
+  private static int cornerWeight(int[] signs, int cornerTendency, int nextToCornerPhobia) {
+    if (signs[0] != 0) {
+      return signs[0] * cornerTendency;
+    }
+    int weight = 0;
+    for (int k : NEXT_TO_CORNER) {
+      weight -= signs[k] * nextToCornerPhobia;
+    }
+    return weight;
+  }
+
+  /**
+   * Helper function to weigh a diagonal: a disc next to an empty corner that the opponent can take
+   * along the diagonal costs half a corner.
+   *
+   * @param signs the cells of the diagonal from the corner: 1 for black, -1 for white, 0 for empty
+   * @param cornerTendency the weight of a corner
+   * @return the weight of the diagonal
+   */
+  private static int diagonalWeight(int[] signs, int cornerTendency) {
+    if (signs.length < 3 || signs[0] != 0 || signs[1] == 0) {
+      return 0;
+    }
+    int k = 2;
+    while (k < signs.length && signs[k] == signs[1]) {
+      k++;
+    }
+    if (k < signs.length && signs[k] == -signs[1]) {
+      return -signs[1] * cornerTendency / 2;
+    }
+    return 0;
+  }
+}
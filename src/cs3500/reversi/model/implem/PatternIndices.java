@@ -0,0 +1,43 @@
+package cs3500.reversi.model.implem;
+
+import cs3500.reversi.model.interf.Board;
+
+/**
+ * Keeps the index of every pattern of a PatternLayout up to date as the cells of one board change.
+ * The board reports every change of status, and each change adds the difference of the digits of
+ * the cell, times its power of 3, to the index of every pattern holding the cell, so a move costs a
+ * few additions for each flipped disc instead of reading the patterns again.
+ */
+final class PatternIndices {
+
+  final PatternLayout layout;
+
+  // The index of every pattern, as PatternLayout.computeIndices would compute it
+  final int[] indices;
+
+  /**
+   * Constructs the indices of the patterns of the given layout on the given board.
+   *
+   * @param layout the layout of the patterns
+   * @param board the board, with the geometry of the layout
+   */
+  PatternIndices(PatternLayout layout, Board board) {
+    this.layout = layout;
+    this.indices = new int[layout.patternCount()];
+    layout.computeIndices(board, indices);
+  }
+
+  /**
+   * Records that the status of the cell at the given index has changed.
+   *
+   * @param index the index of the cell
+   * @param oldStatus the ordinal of the old status of the cell
+   * @param newStatus the ordinal of the new status of the cell
+   */
+  void cellChanged(int index, int oldStatus, int newStatus) {
+    int difference = newStatus - oldStatus;
+    for (int r = layout.refStarts[index]; r < layout.refStarts[index + 1]; r++) {
+      indices[layout.refPatterns[r]] += difference * layout.refPowers[r];
+    }
+  }
+}
@@ -0,0 +1,278 @@
+package cs3500.reversi.model.implem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import cs3500.reversi.model.interf.Board;
+
+/**
+ * The patterns of one board geometry that PatternEvaluator scores: short lines and blocks of cells
+ * around the corners, whose contents are read as base 3 numbers (a digit per cell: 0 empty, 1
+ * black, 2 white) and used as indices in tables of weights. It works the same on hexagon and
+ * square boards: a corner is a cell with half of its sides on the edge of the board, and every
+ * pattern is laid out from a corner along its two edge directions e1 and e2, e1 being the first
+ * side after the edge of the board counterclockwise. The patterns of all the corners are rotations
+ * of each other, so they share their weights. There are three families of patterns:
+ * <pre>
+ *   EDGE      the cells from a corner along e1, or along e2, at most 10
+ *   CORNER    the cells a * e1 + b * e2 away from a corner, for a and b from 0 to 2, in the
+ *             order of a then b
+ *   DIAGONAL  the cells (e1 + e2) * k away from a corner, at most 8
+ * </pre>
+ * The first cell of every pattern is its corner.
+ */
+final class PatternLayout {
+
+  static final int EDGE = 0;
+
+  static final int CORNER = 1;
+
+  static final int DIAGONAL = 2;
+
+  static final int FAMILY_COUNT = 3;
+
+  private static final int MAX_EDGE_CELLS = 10;
+
+  private static final int CORNER_SPAN = 3;
+
+  private static final int MAX_DIAGONAL_CELLS = 8;
+
+  final int cellCount;
+
+  final int numOfDirection;
+
+  // The cells of pattern p are cells[starts[p]] to cells[starts[p + 1] - 1], corner first
+  final int[] cells;
+  final int[] starts;
+
+  // The family of every pattern
+  final int[] families;
+
+  // The number of cells of the longest pattern of every family
+  final int[] familyLengths;
+
+  // The weights of family f start at familyOffsets[f]; the last entry is the size of all tables
+  final int[] familyOffsets;
+
+  // The patterns holding cell i are refPatterns[refStarts[i]] to refPatterns[refStarts[i + 1] - 1],
+  // and refPowers holds the power of 3 of the cell in each of them
+  final int[] refStarts;
+  final int[] refPatterns;
+  final int[] refPowers;
+
+  /**
+   * Constructs the patterns of the geometry of the given board. A board that is not a polygon game
+   * board has no patterns.
+   *
+   * @param board a board with the geometry
+   */
+  PatternLayout(Board board) {
+    this.cellCount = board.getCellCount();
+    ArrayList<int[]> patterns = new ArrayList<int[]>();
+    ArrayList<Integer> patternFamilies = new ArrayList<Integer>();
+    if (board instanceof AbstractPolygonGameBoard) {
+      AbstractPolygonGameBoard polygonBoard = (AbstractPolygonGameBoard) board;
+      this.numOfDirection = polygonBoard.getNumOfDirection();
+      addPatterns(polygonBoard.getNeighbors(), polygonBoard.numOfSide, patterns, patternFamilies);
+    } else {
+      this.numOfDirection = 0;
+    }
+
+    this.starts = new int[patterns.size() + 1];
+    this.families = new int[patterns.size()];
+    this.familyLengths = new int[FAMILY_COUNT];
+    for (int p = 0; p < patterns.size(); p++) {
+      starts[p + 1] = starts[p] + patterns.get(p).length;
+      families[p] = patternFamilies.get(p);
+      familyLengths[families[p]] = Math.max(familyLengths[families[p]], patterns.get(p).length);
+    }
+    this.cells = new int[starts[patterns.size()]];
+    for (int p = 0; p < patterns.size(); p++) {
+      System.arraycopy(patterns.get(p), 0, cells, starts[p], patterns.get(p).length);
+    }
+    this.familyOffsets = new int[FAMILY_COUNT + 1];
+    for (int f = 0; f < FAMILY_COUNT; f++) {
+      familyOffsets[f + 1] = familyOffsets[f] + power(familyLengths[f]);
+    }
+
+    this.refStarts = new int[cellCount + 1];
+    for (int i = 0; i < cells.length; i++) {
+      refStarts[cells[i] + 1]++;
+    }
+    for (int i = 0; i < cellCount; i++) {
+      refStarts[i + 1] += refStarts[i];
+    }
+    this.refPatterns = new int[cells.length];
+    this.refPowers = new int[cells.length];
+    int[] filled = Arrays.copyOf(refStarts, cellCount);
+    for (int p = 0; p < patterns.size(); p++) {
+      for (int k = starts[p]; k < starts[p + 1]; k++) {
+        int ref = filled[cells[k]]++;
+        refPatterns[ref] = p;
+        refPowers[ref] = power(k - starts[p]);
+      }
+    }
+  }
+
+  /**
+   * Checks if this layout was built for boards like the given board.
+   *
+   * @param board the board
+   * @return true if the board has the cell count and the number of directions of this layout
+   */
+  boolean fits(Board board) {
+    int directions = board instanceof AbstractPolygonGameBoard
+        ? ((AbstractPolygonGameBoard) board).getNumOfDirection() : 0;
+    return board.getCellCount() == cellCount && directions == numOfDirection;
+  }
+
+  /**
+   * Gets the number of patterns.
+   *
+   * @return the number of patterns
+   */
+  int patternCount() {
+    return families.length;
+  }
+
+  /**
+   * Computes the index of every pattern from the cells of the given board.
+   *
+   * @param board the board, with this geometry
+   * @param indices the array to fill, one entry per pattern
+   */
+  void computeIndices(Board board, int[] indices) {
+    for (int p = 0; p < families.length; p++) {
+      int index = 0;
+      for (int k = starts[p + 1] - 1; k >= starts[p]; k--) {
+        index = index * 3 + board.getCellStatus(cells[k]).ordinal();
+      }
+      indices[p] = index;
+    }
+  }
+
+  /**
+   * Computes 3 to the given power.
+   *
+   * @param exponent the exponent, at most 19
+   * @return 3 to the given power
+   */
+  static int power(int exponent) {
+    int result = 1;
+    for (int i = 0; i < exponent; i++) {
+      result *= 3;
+    }
+    return result;
+  }
+
+  /**
+   * Helper function to lay out the patterns of every corner.
+   *
+   * @param neighbors the neighbor table of the geometry
+   * @param numOfSide the number of sides of a cell; the first directions are the sides, in
+   *        counterclockwise order
+   * @param patterns the list to add the cells of the patterns to
+   * @param patternFamilies the list to add the family of the patterns to
+   */
+  private void addPatterns(int[] neighbors, int numOfSide, ArrayList<int[]> patterns,
+      ArrayList<Integer> patternFamilies) {
+    for (int corner = 0; corner < cellCount; corner++) {
+      int missing = 0;
+      for (int d = 0; d < numOfSide; d++) {
+        if (neighbors[corner * numOfDirection + d] < 0) {
+          missing++;
+        }
+      }
+      if (missing != numOfSide / 2) {
+        continue;
+      }
+      // e1 is the first side on the board after a side off it, e2 the last one before
+      int e1 = -1;
+      int e2 = -1;
+      for (int d = 0; d < numOfSide; d++) {
+        int previous = (d + numOfSide - 1) % numOfSide;
+        boolean on = neighbors[corner * numOfDirection + d] >= 0;
+        boolean previousOn = neighbors[corner * numOfDirection + previous] >= 0;
+        if (on && !previousOn) {
+          e1 = d;
+        }
+        if (!on && previousOn) {
+          e2 = previous;
+        }
+      }
+      if (e1 < 0 || e2 < 0 || e1 == e2) {
+        continue;
+      }
+
+      patterns.add(line(neighbors, corner, e1, -1, MAX_EDGE_CELLS));
+      patternFamilies.add(EDGE);
+      patterns.add(line(neighbors, corner, e2, -1, MAX_EDGE_CELLS));
+      patternFamilies.add(EDGE);
+
+      int[] block = new int[CORNER_SPAN * CORNER_SPAN];
+      int size = 0;
+      for (int a = 0; a < CORNER_SPAN; a++) {
+        for (int b = 0; b < CORNER_SPAN; b++) {
+          int cell = walk(neighbors, walk(neighbors, corner, e1, a), e2, b);
+          if (cell >= 0) {
+            block[size++] = cell;
+          }
+        }
+      }
+      // Every cell of a block keeps its place, so a block cut off by the edge of a small board is
+      // left out
+      if (size == block.length) {
+        patterns.add(block);
+        patternFamilies.add(CORNER);
+      }
+
+      int[] diagonal = line(neighbors, corner, e1, e2, MAX_DIAGONAL_CELLS);
+      if (diagonal.length > 1) {
+        patterns.add(diagonal);
+        patternFamilies.add(DIAGONAL);
+      }
+    }
+  }
+
+  /**
+   * Helper function to list the cells of a straight line from a cell. Every step of the line
+   * crosses one side, or two sides one after the other.
+   *
+   * @param neighbors the neighbor table of the geometry
+   * @param start the first cell of the line
+   * @param first the side of the first crossing of a step
+   * @param second the side of the second crossing of a step, or -1 for one crossing
+   * @param maxCells the largest number of cells of the line
+   * @return the cells of the line, from the first one
+   */
+  private int[] line(int[] neighbors, int start, int first, int second, int maxCells) {
+    int[] line = new int[maxCells];
+    int size = 0;
+    int cell = start;
+    while (cell >= 0 && size < maxCells) {
+      line[size++] = cell;
+      cell = walk(neighbors, cell, first, 1);
+      if (second >= 0) {
+        cell = walk(neighbors, cell, second, 1);
+      }
+    }
+    return Arrays.copyOf(line, size);
+  }
+
+  /**
+   * Helper function to cross the same side of cells several times.
+   *
+   * @param neighbors the neighbor table of the geometry
+   * @param start the cell to start from, or -1
+   * @param direction the side to cross
+   * @param steps the number of crossings
+   * @return the cell reached, or -1 if the walk leaves the board
+   */
+  private int walk(int[] neighbors, int start, int direction, int steps) {
+    int cell = start;
+    for (int i = 0; i < steps && cell >= 0; i++) {
+      cell = neighbors[cell * numOfDirection + direction];
+    }
+    return cell;
+  }
+}
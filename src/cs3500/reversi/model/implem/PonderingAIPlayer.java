@@ -0,0 +1,314 @@
+package cs3500.reversi.model.implem;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.interf.Cell;
+import cs3500.reversi.model.interf.Player;
+import cs3500.reversi.model.status.CellStatus;
+import cs3500.reversi.model.status.GameStatus;
+
+
+/**
+ * Represents an AI player that searches like AlphaBetaAIPlayer, and keeps thinking while the
+ * opponent chooses its move (pondering). After each of its moves, the player plays the replies of
+ * the opponent on its own copy of the board, the most likely first, and searches its answer to
+ * each of them on a background thread, for as long as a move is allowed to take. When the reply
+ * actually played was searched to the end, the player answers at once; otherwise it searches as
+ * usual, starting from a transposition table already filled by the pondering.
+ * The pondering stops when the game ends, and the pondering thread ends after a while idle or when
+ * the player is closed.
+ */
+public class PonderingAIPlayer implements Player, AutoCloseable {
+
+  private static final long DEFAULT_TABLE_BYTES = 16L << 20;
+
+  // How long the pondering thread waits idle before it ends
+  private static final long PONDERER_KEEP_ALIVE_SECONDS = 30;
+
+  private final int numOfSide;
+  private final int cornerTendency;
+  private final int nextToCornerPhobia;
+  private final int greedy;
+  private final int cautiousness;
+
+  private final long timeLimitMillis;
+
+  private final TranspositionTable table;
+
+  private WeightedEvaluator evaluator;
+
+  private MoveOrderer orderer;
+
+  // The pondering thread, created on the first move
+  private ThreadPoolExecutor ponderer;
+
+  // Set once the player is closed; a closed player still moves, but no longer ponders
+  private boolean closed;
+
+  // The running pondering, or null
+  private Future<?> pondering;
+
+  // Set to end the pondering; the pondering checks it before every search it starts
+  private volatile boolean stopPondering;
+
+  // The search the pondering is running, or null
+  private volatile AlphaBetaSearcher ponderSearcher;
+
+  // The answers found by the pondering, by position hash
+  private final Map<Long, Integer> ponderedMoves;
+
+  private boolean lastMoveFromPondering;
+  private long lastNodeCount;
+
+  /**
+   * Constructs a PonderingAIPlayer with the given preference parameters and time for each move.
+   *
+   * @param numOfSide the number of sides of a cell of the board
+   * @param cornerTendency the weight of holding a corner
+   * @param nextToCornerPhobia the penalty of holding a cell next to a corner
+   * @param greedy the weight of holding a disc
+   * @param cautiousness the weight of having more legal moves than the opponent
+   * @param timeLimitMillis the time to think about each move, and about each reply while
+   *        pondering, in milliseconds
+   * @throws IllegalArgumentException if the time limit is not positive
+   */
+  public PonderingAIPlayer(int numOfSide, int cornerTendency, int nextToCornerPhobia, int greedy,
+      int cautiousness, long timeLimitMillis) {
+    if (timeLimitMillis <= 0) {
+      throw new IllegalArgumentException("timeLimitMillis must be positive");
+    }
+    this.numOfSide = numOfSide;
+    this.cornerTendency = cornerTendency;
+    this.nextToCornerPhobia = nextToCornerPhobia;
+    this.greedy = greedy;
+    this.cautiousness = cautiousness;
+    this.timeLimitMillis = timeLimitMillis;
+    this.table = new TranspositionTable(DEFAULT_TABLE_BYTES);
+    this.ponderedMoves = new HashMap<Long, Integer>();
+  }
+
+  @Override
+  public Cell move(Board board, GameStatus gameStatus) {
+    if (board == null) {
+      throw new IllegalArgumentException("board cannot be null");
+    }
+    stopPondering();
+    lastMoveFromPondering = false;
+    lastNodeCount = 0;
+    CellStatus toMove;
+    if (gameStatus == GameStatus.BTURN) {
+      toMove = CellStatus.BLACK;
+    } else if (gameStatus == GameStatus.WTURN) {
+      toMove = CellStatus.WHITE;
+    } else {
+      return null;
+    }
+
+    if (evaluator == null || !evaluator.fits(board)) {
+      evaluator = new WeightedEvaluator(board, numOfSide, cornerTendency, nextToCornerPhobia,
+          greedy, cautiousness);
+      table.clear();
+      orderer = new MoveOrderer(board.getCellCount());
+      ponderedMoves.clear();
+    }
+
+    int bestMove;
+    Integer pondered = ponderedMoves.get(board.getHash(gameStatus));
+    if (pondered != null && board.isLegalMove(pondered, toMove)) {
+      bestMove = pondered;
+      lastMoveFromPondering = true;
+    } else {
+      AlphaBetaSearcher searcher = new AlphaBetaSearcher(board.cloneBoard(), evaluator, table,
+          orderer);
+      bestMove = searcher.findBestMove(toMove, System.nanoTime() + timeLimitMillis * 1_000_000L,
+          TranspositionTable.MAX_DEPTH);
+      lastNodeCount = searcher.getNodeCount();
+    }
+    ponderedMoves.clear();
+    if (bestMove < 0) {
+      return null;
+    }
+
+    Board afterMove = board.cloneBoard();
+    afterMove.makeMove(bestMove, toMove, afterMove.newUndoRecord());
+    // Nothing to ponder once the move ends the game
+    CellStatus opponent = toMove == CellStatus.BLACK ? CellStatus.WHITE : CellStatus.BLACK;
+    if (!closed && (afterMove.countLegalMoves(opponent) > 0
+        || afterMove.countLegalMoves(toMove) > 0)) {
+      startPondering(afterMove, toMove);
+    }
+    return board.getCellAt(bestMove);
+  }
+
+  @Override
+  public void gameEnded() {
+    stopPondering();
+    ponderedMoves.clear();
+  }
+
+  /**
+   * Stops the pondering and ends the pondering thread. The player can still move, without
+   * pondering.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    stopPondering();
+    if (ponderer != null) {
+      ponderer.shutdown();
+    }
+  }
+
+  /**
+   * Stops the pondering, if it is running, and waits for it to end. The answers it found so far
+   * are kept for the next move.
+   */
+  public void stopPondering() {
+    if (pondering == null) {
+      return;
+    }
+    stopPondering = true;
+    AlphaBetaSearcher searcher = ponderSearcher;
+    if (searcher != null) {
+      searcher.stop();
+    }
+    try {
+      pondering.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("the pondering failed", e.getCause());
+    }
+    pondering = null;
+  }
+
+  /**
+   * Checks if the last move was found while pondering.
+   *
+   * @return true if the last move was answered from the pondering
+   */
+  public boolean isLastMoveFromPondering() {
+    return lastMoveFromPondering;
+  }
+
+  /**
+   * Gets the number of nodes searched for the last move, not counting the pondering.
+   *
+   * @return the number of nodes
+   */
+  public long getLastNodeCount() {
+    return lastNodeCount;
+  }
+
+  /**
+   * Helper method to start pondering the position after a move of this player.
+   *
+   * @param board the board after the move, owned by the pondering from now on
+   * @param color the color of this player
+   */
+  private void startPondering(Board board, CellStatus color) {
+    stopPondering = false;
+    ponderSearcher = null;
+    pondering = getPonderer().submit(() -> ponder(board, color));
+  }
+
+  /**
+   * Helper method to search the answer to every reply of the opponent, the most likely reply
+   * first, until all are searched or the pondering is stopped. A reply is more likely the worse
+   * it leaves the position for this player. When the opponent has to pass, the position after
+   * the pass is searched. Replies after which this player cannot move are skipped.
+   *
+   * @param board the board after the move of this player
+   * @param color the color of this player
+   */
+  private void ponder(Board board, CellStatus color) {
+    CellStatus opponent = color == CellStatus.BLACK ? CellStatus.WHITE : CellStatus.BLACK;
+    GameStatus ownTurn = color == CellStatus.BLACK ? GameStatus.BTURN : GameStatus.WTURN;
+    int[] replies = new int[board.getCellCount()];
+    int count = board.getLegalMoves(opponent, replies);
+    int[] undoRecord = board.newUndoRecord();
+    if (count == 0) {
+      if (board.countLegalMoves(color) > 0) {
+        ponderAnswer(board, ownTurn, color);
+      }
+      return;
+    }
+
+    int[] values = new int[count];
+    for (int i = 0; i < count; i++) {
+      board.makeMove(replies[i], opponent, undoRecord);
+      values[i] = evaluator.evaluate(board, color);
+      board.undoMove(undoRecord);
+    }
+    // Insertion sort, lowest value for this player first
+    for (int i = 1; i < count; i++) {
+      int reply = replies[i];
+      int value = values[i];
+      int j = i - 1;
+      while (j >= 0 && values[j] > value) {
+        replies[j + 1] = replies[j];
+        values[j + 1] = values[j];
+        j--;
+      }
+      replies[j + 1] = reply;
+      values[j + 1] = value;
+    }
+
+    for (int i = 0; i < count && !stopPondering; i++) {
+      board.makeMove(replies[i], opponent, undoRecord);
+      // After a reply that leaves this player no move there is nothing to answer
+      if (board.countLegalMoves(color) > 0) {
+        ponderAnswer(board, ownTurn, color);
+      }
+      board.undoMove(undoRecord);
+    }
+  }
+
+  /**
+   * Helper method to search the answer of this player in one position, and keep it if the search
+   * ran for the whole time of a move.
+   *
+   * @param board the board of the position
+   * @param ownTurn the game status of this player to move
+   * @param color the color of this player
+   */
+  private void ponderAnswer(Board board, GameStatus ownTurn, CellStatus color) {
+    AlphaBetaSearcher searcher = new AlphaBetaSearcher(board, evaluator, table, orderer);
+    ponderSearcher = searcher;
+    // Checked after the searcher is published, so that stopPondering either sees it or is seen
+    if (stopPondering) {
+      return;
+    }
+    int answer = searcher.findBestMove(color, System.nanoTime() + timeLimitMillis * 1_000_000L,
+        TranspositionTable.MAX_DEPTH);
+    if (answer >= 0 && !stopPondering) {
+      ponderedMoves.put(board.getHash(ownTurn), answer);
+    }
+  }
+
+  /**
+   * Helper method to get the pondering thread, creating it on first use. The thread does not keep
+   * the program running, and ends after a while idle, to be started again by the next pondering.
+   *
+   * @return the pondering thread
+   */
+  private ThreadPoolExecutor getPonderer() {
+    if (ponderer == null) {
+      ponderer = new ThreadPoolExecutor(1, 1, PONDERER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>(), runnable -> {
+            Thread thread = new Thread(runnable, "reversi-ponder");
+            thread.setDaemon(true);
+            return thread;
+          });
+      ponderer.allowCoreThreadTimeOut(true);
+    }
+    return ponderer;
+  }
+}
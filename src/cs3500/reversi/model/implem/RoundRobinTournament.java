@@ -0,0 +1,576 @@
+package cs3500.reversi.model.implem;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+import cs3500.reversi.model.interf.Player;
+
+/**
+ * Ranks several players by a round robin: every two entrants play the same number of games, each
+ * of them black in every other game, on a pool of threads. The result of every game is appended to
+ * a CSV file as soon as the game ends. The file starts with a line of the settings of the
+ * tournament, then the header of the columns
+ * <pre>
+ *   black,white,round,result,disc_difference
+ * </pre>
+ * where round counts the games of a pairing from 0, result is 1-0, 0-1 or 1/2-1/2, and the disc
+ * difference is the discs of black minus the discs of white. A tournament run again with the same
+ * file only plays the games missing from it, so a tournament that crashed resumes where it stopped,
+ * or plays more rounds of every pairing; a file written with other settings is rejected, since its
+ * games are not games of this tournament.
+ * Games are seeded from the seed of the tournament, the names of their pairing and their round, so
+ * the games of a resumed tournament are the ones it would have played.
+ * At the end, the entrants are rated on the Elo scale by the maximum likelihood of the
+ * Bradley-Terry model of all the games in the file, a draw counting as half a win and half a loss,
+ * with one more virtual draw in every pairing so that an entrant that won or lost every game still
+ * has a finite rating. The confidence intervals come from the curvature of the likelihood at its
+ * maximum.
+ */
+public class RoundRobinTournament {
+
+  /**
+   * The first line of the results file.
+   */
+  public static final String HEADER = "black,white,round,result,disc_difference";
+
+  /**
+   * The start of the first line of the results file, which holds the settings of the tournament.
+   */
+  public static final String SETTINGS_PREFIX = "# ";
+
+  // The number of standard errors on each side of a 95% confidence interval
+  private static final double Z_95 = 1.96;
+
+  // Elo points per unit of the natural logarithm of the odds of winning
+  private static final double ELO_PER_LOG_ODDS = 400 / Math.log(10);
+
+  private static final double VIRTUAL_DRAWS = 1;
+
+  private static final int MAX_ITERATIONS = 100_000;
+
+  private static final double TOLERANCE = 1e-12;
+
+  private final int numOfSide;
+  private final int size;
+  private final String[] names;
+  private final List<LongFunction<Player>> players;
+  private final int gamesPerPairing;
+  private final int randomPlies;
+  private final int threads;
+  private final String entrantSettings;
+
+  /**
+   * Constructs a round robin between the given entrants on boards of the given shape and size,
+   * whose results file only records the settings of the tournament, not those of the entrants.
+   *
+   * @param numOfSide the number of sides of a cell: 6 for hexagon boards, 4 for square boards
+   * @param size the size of the boards
+   * @param entrants the factory of the player of every entrant, by name, given a seed for every
+   *        game; the pairings are played in the order of the entrants
+   * @param gamesPerPairing the number of games every two entrants play
+   * @param randomPlies the number of plies played at random at the start of every game
+   * @param threads the number of games played at once
+   * @throws IllegalArgumentException if numOfSide is neither 6 nor 4, the size is not positive,
+   *         there are fewer than two entrants, a name is empty or holds a comma or a line break, a
+   *         factory is null, gamesPerPairing is not positive, randomPlies is negative, or threads
+   *         is not positive
+   */
+  public RoundRobinTournament(int numOfSide, int size, Map<String, LongFunction<Player>> entrants,
+      int gamesPerPairing, int randomPlies, int threads) {
+    this(numOfSide, size, entrants, gamesPerPairing, randomPlies, threads, "");
+  }
+
+  /**
+   * Constructs a round robin between the given entrants on boards of the given shape and size,
+   * whose results file also records what the players of the entrants are, so that it is only
+   * resumed with the same players.
+   *
+   * @param numOfSide the number of sides of a cell: 6 for hexagon boards, 4 for square boards
+   * @param size the size of the boards
+   * @param entrants the factory of the player of every entrant, by name, given a seed for every
+   *        game; the pairings are played in the order of the entrants
+   * @param gamesPerPairing the number of games every two entrants play
+   * @param randomPlies the number of plies played at random at the start of every game
+   * @param threads the number of games played at once
+   * @param entrantSettings what the players of the entrants are, such as their weights
+   * @throws IllegalArgumentException if numOfSide is neither 6 nor 4, the size is not positive,
+   *         there are fewer than two entrants, a name is empty or holds a comma or a line break, a
+   *         factory is null, gamesPerPairing is not positive, randomPlies is negative, threads is
+   *         not positive, or entrantSettings is null or holds a line break
+   */
+  public RoundRobinTournament(int numOfSide, int size, Map<String, LongFunction<Player>> entrants,
+      int gamesPerPairing, int randomPlies, int threads, String entrantSettings) {
+    if (numOfSide != 6 && numOfSide != 4) {
+      throw new IllegalArgumentException("numOfSide must be 6 or 4");
+    }
+    if (size <= 0) {
+      throw new IllegalArgumentException("size must be positive");
+    }
+    if (entrants == null || entrants.size() < 2) {
+      throw new IllegalArgumentException("a tournament needs at least two entrants");
+    }
+    if (gamesPerPairing < 1) {
+      throw new IllegalArgumentException("gamesPerPairing must be positive");
+    }
+    if (randomPlies < 0) {
+      throw new IllegalArgumentException("randomPlies cannot be negative");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be positive");
+    }
+    if (entrantSettings == null || entrantSettings.contains("\n")
+        || entrantSettings.contains("\r")) {
+      throw new IllegalArgumentException("invalid entrant settings: " + entrantSettings);
+    }
+    this.names = new String[entrants.size()];
+    this.players = new ArrayList<LongFunction<Player>>();
+    for (Map.Entry<String, LongFunction<Player>> entrant : entrants.entrySet()) {
+      String name = entrant.getKey();
+      if (name == null || name.isEmpty() || name.contains(",") || name.contains("\n")
+          || name.contains("\r")) {
+        throw new IllegalArgumentException("invalid entrant name: " + name);
+      }
+      if (entrant.getValue() == null) {
+        throw new IllegalArgumentException("the player factory of " + name + " cannot be null");
+      }
+      names[players.size()] = name;
+      players.add(entrant.getValue());
+    }
+    this.numOfSide = numOfSide;
+    this.size = size;
+    this.gamesPerPairing = gamesPerPairing;
+    this.randomPlies = randomPlies;
+    this.threads = threads;
+    this.entrantSettings = entrantSettings;
+  }
+
+  /**
+   * Plays the games of the tournament missing from the given results file, appending their
+   * results to it, and rates the entrants from all the games in the file between them. A line of
+   * the file that cannot be read is dropped, and so is a last line with no line break after it,
+   * which a tournament that crashed may have left half written even when it reads as a game.
+   *
+   * @param results the results file, created if it does not exist
+   * @param seed the seed of the tournament
+   * @return the ratings of the entrants, best first
+   * @throws IOException if the results file cannot be read or written
+   * @throws IllegalArgumentException if the results file was written with other settings
+   * @throws IllegalStateException if a player fails, or stops choosing moves before the end of a
+   *         game
+   */
+  public List<EloRating> run(Path results, long seed) throws IOException {
+    List<String> lines = new ArrayList<String>();
+    List<GameRecord> records = new ArrayList<GameRecord>();
+    Set<String> played = new HashSet<String>();
+    String settings = settingsLine(seed);
+    if (Files.exists(results)) {
+      String content = new String(Files.readAllBytes(results), StandardCharsets.UTF_8);
+      List<String> fileLines = completeLines(content);
+      if (!fileLines.isEmpty() && !fileLines.get(0).equals(settings)) {
+        throw new IllegalArgumentException("the results file was written with other settings: "
+            + fileLines.get(0));
+      }
+      for (String line : fileLines.subList(Math.min(1, fileLines.size()), fileLines.size())) {
+        GameRecord record = GameRecord.parse(line);
+        if (record != null && played.add(record.key())) {
+          lines.add(line);
+          records.add(record);
+        }
+      }
+    }
+    // Rewrite the file without the lines dropped, so that new lines are not appended to a broken
+    // one
+    lines.add(0, HEADER);
+    lines.add(0, settings);
+    Path temporary = results.resolveSibling(results.getFileName() + ".tmp");
+    Files.write(temporary, lines, StandardCharsets.UTF_8);
+    Files.move(temporary, results, StandardCopyOption.REPLACE_EXISTING);
+
+    List<Callable<GameRecord>> tasks = new ArrayList<Callable<GameRecord>>();
+    try (BufferedWriter writer = Files.newBufferedWriter(results, StandardCharsets.UTF_8,
+        StandardOpenOption.APPEND)) {
+      for (int i = 0; i < names.length; i++) {
+        for (int j = i + 1; j < names.length; j++) {
+          SelfPlayRunner pairing = new SelfPlayRunner(numOfSide, size, players.get(i),
+              players.get(j), randomPlies, 1);
+          for (int round = 0; round < gamesPerPairing; round++) {
+            boolean firstIsBlack = round % 2 == 0;
+            GameRecord game = new GameRecord(firstIsBlack ? names[i] : names[j],
+                firstIsBlack ? names[j] : names[i], round);
+            if (!played.contains(game.key())) {
+              // Both games of a round pair share their seed, so they share their opening
+              long gameSeed = gameSeed(seed, names[i], names[j], round / 2);
+              tasks.add(() -> play(pairing, game, gameSeed, firstIsBlack, writer));
+            }
+          }
+        }
+      }
+      records.addAll(playAll(tasks));
+    }
+    return rate(names, records);
+  }
+
+  /**
+   * Helper method to write the settings the games of the tournament depend on, as the first line
+   * of its results file.
+   *
+   * @param seed the seed of the tournament
+   * @return the line of the settings
+   */
+  private String settingsLine(long seed) {
+    return SETTINGS_PREFIX + "numOfSide=" + numOfSide + ",size=" + size + ",randomPlies="
+        + randomPlies + ",seed=" + seed + ",entrants=" + String.join(";", names)
+        + ",entrantSettings=" + entrantSettings;
+  }
+
+  /**
+   * Splits the content of a results file into its lines, leaving out the last line when no line
+   * break ends it.
+   *
+   * @param content the content of the file
+   * @return the lines ended by a line break, without it
+   */
+  static List<String> completeLines(String content) {
+    List<String> lines = new ArrayList<String>();
+    int start = 0;
+    for (int end = content.indexOf('\n'); end >= 0; end = content.indexOf('\n', start)) {
+      int stop = end > start && content.charAt(end - 1) == '\r' ? end - 1 : end;
+      lines.add(content.substring(start, stop));
+      start = end + 1;
+    }
+    return lines;
+  }
+
+  /**
+   * Rates entrants from the records of their games, ignoring the games of anyone else.
+   *
+   * @param names the names of the entrants
+   * @param records the records of the games
+   * @return the ratings of the entrants, best first
+   */
+  static List<EloRating> rate(String[] names, List<GameRecord> records) {
+    int count = names.length;
+    List<String> order = Arrays.asList(names);
+    double[][] points = new double[count][count];
+    double[][] games = new double[count][count];
+    int[] played = new int[count];
+    double[] scores = new double[count];
+    for (GameRecord record : records) {
+      int black = order.indexOf(record.black);
+      int white = order.indexOf(record.white);
+      if (black < 0 || white < 0 || black == white) {
+        continue;
+      }
+      points[black][white] += record.blackScore;
+      points[white][black] += 1 - record.blackScore;
+      games[black][white]++;
+      games[white][black]++;
+      played[black]++;
+      played[white]++;
+      scores[black] += record.blackScore;
+      scores[white] += 1 - record.blackScore;
+    }
+    for (int i = 0; i < count; i++) {
+      for (int j = 0; j < count; j++) {
+        if (i != j) {
+          points[i][j] += VIRTUAL_DRAWS / 2;
+          games[i][j] += VIRTUAL_DRAWS;
+        }
+      }
+    }
+
+    double[] strengths = strengths(points, games);
+    double[] variances = variances(strengths, games);
+    List<EloRating> ratings = new ArrayList<EloRating>();
+    for (int i = 0; i < count; i++) {
+      ratings.add(new EloRating(names[i], ELO_PER_LOG_ODDS * Math.log(strengths[i]),
+          Z_95 * ELO_PER_LOG_ODDS * Math.sqrt(Math.max(0, variances[i])), played[i], scores[i]));
+    }
+    ratings.sort((a, b) -> Double.compare(b.getElo(), a.getElo()));
+    return ratings;
+  }
+
+  /**
+   * Helper method to play one game and append its result to the results file.
+   *
+   * @param pairing the runner of the pairing of the game
+   * @param game the record of the game to fill
+   * @param gameSeed the seed of the game
+   * @param firstIsBlack true if the first entrant of the pairing plays black
+   * @param writer the writer of the results file
+   * @return the record of the game
+   * @throws IOException if the result cannot be written
+   */
+  private static GameRecord play(SelfPlayRunner pairing, GameRecord game, long gameSeed,
+      boolean firstIsBlack, BufferedWriter writer) throws IOException {
+    long[] outcome = pairing.playGame(gameSeed, firstIsBlack);
+    double firstScore = outcome[SelfPlayRunner.WIN] + outcome[SelfPlayRunner.DRAW] / 2.0;
+    game.blackScore = firstIsBlack ? firstScore : 1 - firstScore;
+    game.discDifference = (int) (firstIsBlack ? outcome[SelfPlayRunner.DISCS]
+        : -outcome[SelfPlayRunner.DISCS]);
+    synchronized (writer) {
+      writer.write(game.toString());
+      writer.newLine();
+      writer.flush();
+    }
+    return game;
+  }
+
+  /**
+   * Helper method to play games on the pool of threads and wait for all of them to end.
+   *
+   * @param tasks the games
+   * @return the records of the games
+   * @throws IOException if a result cannot be written
+   */
+  private List<GameRecord> playAll(List<Callable<GameRecord>> tasks) throws IOException {
+    List<GameRecord> records = new ArrayList<GameRecord>();
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      for (Future<GameRecord> result : pool.invokeAll(tasks)) {
+        records.add(result.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("the tournament was interrupted", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IllegalStateException("a game failed", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+    return records;
+  }
+
+  /**
+   * Helper function to find the seed of a game from where it stands in the tournament.
+   *
+   * @param seed the seed of the tournament
+   * @param first the name of the first entrant of the pairing
+   * @param second the name of the second entrant of the pairing
+   * @param roundPair the round of the game divided by 2
+   * @return the seed of the game
+   */
+  private static long gameSeed(long seed, String first, String second, int roundPair) {
+    long mixed = seed;
+    mixed = mixed * 31 + first.hashCode();
+    mixed = mixed * 31 + second.hashCode();
+    mixed = mixed * 31 + roundPair;
+    return new SplittableRandom(mixed).nextLong();
+  }
+
+  /**
+   * Helper function to find the strengths of the entrants that make the points they scored most
+   * likely, by the minorization-maximization iteration of the Bradley-Terry model, in which i beats
+   * j with the probability s_i / (s_i + s_j).
+   *
+   * @param points the points every entrant scored against every other entrant
+   * @param games the number of games every two entrants played
+   * @return the strengths, with a geometric mean of 1
+   */
+  private static double[] strengths(double[][] points, double[][] games) {
+    int count = points.length;
+    double[] strengths = new double[count];
+    Arrays.fill(strengths, 1);
+    double[] next = new double[count];
+    for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+      double logSum = 0;
+      for (int i = 0; i < count; i++) {
+        double wins = 0;
+        double denominator = 0;
+        for (int j = 0; j < count; j++) {
+          if (i != j) {
+            wins += points[i][j];
+            denominator += games[i][j] / (strengths[i] + strengths[j]);
+          }
+        }
+        next[i] = wins / denominator;
+        logSum += Math.log(next[i]);
+      }
+      double scale = Math.exp(-logSum / count);
+      double change = 0;
+      for (int i = 0; i < count; i++) {
+        next[i] *= scale;
+        change = Math.max(change, Math.abs(Math.log(next[i] / strengths[i])));
+      }
+      System.arraycopy(next, 0, strengths, 0, count);
+      if (change < TOLERANCE) {
+        break;
+      }
+    }
+    return strengths;
+  }
+
+  /**
+   * Helper function to find the variance of the logarithm of every strength, from the inverse of
+   * the Fisher information of the model. The information matrix H is singular, as adding the same
+   * amount to every logarithm changes nothing, so its pseudo-inverse is taken as the inverse of
+   * H + J / n, minus J / n, J being the matrix of ones.
+   *
+   * @param strengths the strengths of the entrants
+   * @param games the number of games every two entrants played
+   * @return the variances
+   */
+  private static double[] variances(double[] strengths, double[][] games) {
+    int count = strengths.length;
+    double[][] information = new double[count][count];
+    for (int i = 0; i < count; i++) {
+      for (int j = 0; j < count; j++) {
+        if (i != j) {
+          double p = strengths[i] / (strengths[i] + strengths[j]);
+          double curvature = games[i][j] * p * (1 - p);
+          information[i][i] += curvature;
+          information[i][j] -= curvature;
+        }
+      }
+    }
+    for (int i = 0; i < count; i++) {
+      for (int j = 0; j < count; j++) {
+        information[i][j] += 1.0 / count;
+      }
+    }
+    double[][] inverse = invert(information);
+    double[] variances = new double[count];
+    for (int i = 0; i < count; i++) {
+      variances[i] = inverse[i][i] - 1.0 / count;
+    }
+    return variances;
+  }
+
+  /**
+   * Helper function to invert a matrix by Gauss-Jordan elimination with partial pivoting.
+   *
+   * @param matrix the matrix, which is overwritten
+   * @return the inverse
+   * @throws IllegalStateException if the matrix is singular
+   */
+  private static double[][] invert(double[][] matrix) {
+    int count = matrix.length;
+    double[][] inverse = new double[count][count];
+    for (int i = 0; i < count; i++) {
+      inverse[i][i] = 1;
+    }
+    for (int column = 0; column < count; column++) {
+      int pivot = column;
+      for (int row = column + 1; row < count; row++) {
+        if (Math.abs(matrix[row][column]) > Math.abs(matrix[pivot][column])) {
+          pivot = row;
+        }
+      }
+      if (matrix[pivot][column] == 0) {
+        throw new IllegalStateException("the information matrix is singular");
+      }
+      double[] swap = matrix[column];
+      matrix[column] = matrix[pivot];
+      matrix[pivot] = swap;
+      swap = inverse[column];
+      inverse[column] = inverse[pivot];
+      inverse[pivot] = swap;
+      double factor = matrix[column][column];
+      for (int k = 0; k < count; k++) {
+        matrix[column][k] /= factor;
+        inverse[column][k] /= factor;
+      }
+      for (int row = 0; row < count; row++) {
+        if (row != column && matrix[row][column] != 0) {
+          double multiple = matrix[row][column];
+          for (int k = 0; k < count; k++) {
+            matrix[row][k] -= multiple * matrix[column][k];
+            inverse[row][k] -= multiple * inverse[column][k];
+          }
+        }
+      }
+    }
+    return inverse;
+  }
+
+  /**
+   * The record of one game of the tournament, as one line of the results file.
+   */
+  static final class GameRecord {
+
+    private final String black;
+    private final String white;
+    private final int round;
+    private double blackScore;
+    private int discDifference;
+
+    /**
+     * Constructs the record of a game not played yet.
+     *
+     * @param black the name of the black entrant
+     * @param white the name of the white entrant
+     * @param round the round of the game in its pairing
+     */
+    GameRecord(String black, String white, int round) {
+      this.black = black;
+      this.white = white;
+      this.round = round;
+    }
+
+    /**
+     * Reads the record of a game from a line of the results file.
+     *
+     * @param line the line
+     * @return the record, or null if the line is not the record of a game
+     */
+    static GameRecord parse(String line) {
+      String[] fields = line.split(",", -1);
+      if (fields.length != 5 || fields[0].isEmpty() || fields[1].isEmpty()) {
+        return null;
+      }
+      GameRecord record;
+      try {
+        record = new GameRecord(fields[0], fields[1], Integer.parseInt(fields[2]));
+        record.discDifference = Integer.parseInt(fields[4]);
+      } catch (NumberFormatException e) {
+        return null;
+      }
+      if (fields[3].equals("1-0")) {
+        record.blackScore = 1;
+      } else if (fields[3].equals("0-1")) {
+        record.blackScore = 0;
+      } else if (fields[3].equals("1/2-1/2")) {
+        record.blackScore = 0.5;
+      } else {
+        return null;
+      }
+      return record;
+    }
+
+    /**
+     * Gets what tells this game apart from the other games of the tournament.
+     *
+     * @return the key of the game
+     */
+    String key() {
+      return black + "," + white + "," + round;
+    }
+
+    @Override
+    public String toString() {
+      String result = blackScore == 1 ? "1-0" : blackScore == 0 ? "0-1" : "1/2-1/2";
+      return key() + "," + result + "," + discDifference;
+    }
+  }
+}
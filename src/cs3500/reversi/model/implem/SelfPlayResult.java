@@ -0,0 +1,134 @@
+package cs3500.reversi.model.implem;
+
+/**
+ * Represents the results of a match of self-play games between two players, A and B: how the games
+ * ended for player A, and how fast they were played. A result does not change once built.
+ */
+public final class SelfPlayResult {
+
+  private final int wins;
+  private final int draws;
+  private final int losses;
+  private final long discDifference;
+  private final long movesA;
+  private final long moveNanosA;
+  private final long movesB;
+  private final long moveNanosB;
+  private final long wallNanos;
+
+  /**
+   * Constructs the results of a match.
+   *
+   * @param wins the number of games won by player A
+   * @param draws the number of games drawn
+   * @param losses the number of games lost by player A
+   * @param discDifference the discs of player A minus the discs of player B, over all the games
+   * @param movesA the number of moves chosen by player A
+   * @param moveNanosA the time player A took to choose them, in nanoseconds
+   * @param movesB the number of moves chosen by player B
+   * @param moveNanosB the time player B took to choose them, in nanoseconds
+   * @param wallNanos the time the whole match took, in nanoseconds
+   */
+  SelfPlayResult(int wins, int draws, int losses, long discDifference, long movesA,
+      long moveNanosA, long movesB, long moveNanosB, long wallNanos) {
+    this.wins = wins;
+    this.draws = draws;
+    this.losses = losses;
+    this.discDifference = discDifference;
+    this.movesA = movesA;
+    this.moveNanosA = moveNanosA;
+    this.movesB = movesB;
+    this.moveNanosB = moveNanosB;
+    this.wallNanos = wallNanos;
+  }
+
+  /**
+   * Gets the number of games played.
+   *
+   * @return the number of games
+   */
+  public int getGameCount() {
+    return wins + draws + losses;
+  }
+
+  /**
+   * Gets the number of games won by player A.
+   *
+   * @return the number of wins
+   */
+  public int getWins() {
+    return wins;
+  }
+
+  /**
+   * Gets the number of games drawn.
+   *
+   * @return the number of draws
+   */
+  public int getDraws() {
+    return draws;
+  }
+
+  /**
+   * Gets the number of games lost by player A.
+   *
+   * @return the number of losses
+   */
+  public int getLosses() {
+    return losses;
+  }
+
+  /**
+   * Gets the score of player A, a win counting 1 and a draw one half.
+   *
+   * @return the score, between 0 and the number of games
+   */
+  public double getScore() {
+    return wins + draws / 2.0;
+  }
+
+  /**
+   * Gets the average number of discs player A ended a game with more than player B.
+   *
+   * @return the average disc difference, negative if player B had more discs
+   */
+  public double getAverageDiscDifference() {
+    return getGameCount() == 0 ? 0 : (double) discDifference / getGameCount();
+  }
+
+  /**
+   * Gets the number of games played per second of the match.
+   *
+   * @return the number of games per second
+   */
+  public double getGamesPerSecond() {
+    return wallNanos == 0 ? 0 : getGameCount() * 1e9 / wallNanos;
+  }
+
+  /**
+   * Gets the average time player A took to choose a move.
+   *
+   * @return the average time, in milliseconds
+   */
+  public double getAverageMoveMillisA() {
+    return movesA == 0 ? 0 : moveNanosA / 1e6 / movesA;
+  }
+
+  /**
+   * Gets the average time player B took to choose a move.
+   *
+   * @return the average time, in milliseconds
+   */
+  public double getAverageMoveMillisB() {
+    return movesB == 0 ? 0 : moveNanosB / 1e6 / movesB;
+  }
+
+  /**
+   * Gets the time the whole match took.
+   *
+   * @return the time, in milliseconds
+   */
+  public long getWallMillis() {
+    return wallNanos / 1_000_000L;
+  }
+}
@@ -0,0 +1,239 @@
+package cs3500.reversi.model.implem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.interf.Cell;
+import cs3500.reversi.model.interf.Player;
+import cs3500.reversi.model.interf.ReversiModel;
+import cs3500.reversi.model.status.CellStatus;
+import cs3500.reversi.model.status.GameStatus;
+
+/**
+ * Plays matches of many games between two players without a window, one game per task on a pool
+ * of threads, to compare AI settings. Players come from factories, which get a seed of the game,
+ * so random players can be seeded and a match played again with the same seed is dealt the same
+ * openings. A factory may make a player for every game, or hand the same player to all the games
+ * of one thread of the pool, which play one after the other; players are told when each game
+ * ends, so that they can forget it.
+ * The games are played in pairs that share a seed: player A is black in the first game of a pair
+ * and white in the second. The first plies of every game can be played at random from the seed,
+ * so that players that always choose the same move do not play the same game over and over; each
+ * opening is then played once from each side.
+ */
+public class SelfPlayRunner {
+
+  // The entries of the outcome of one game, from the point of view of player A
+  static final int WIN = 0;
+  static final int DRAW = 1;
+  static final int LOSS = 2;
+  static final int DISCS = 3;
+  static final int MOVES_A = 4;
+  static final int NANOS_A = 5;
+  static final int MOVES_B = 6;
+  static final int NANOS_B = 7;
+  static final int RESULT_LENGTH = 8;
+
+  private final int numOfSide;
+  private final int size;
+  private final LongFunction<Player> playerA;
+  private final LongFunction<Player> playerB;
+  private final int randomPlies;
+  private final int threads;
+
+  /**
+   * Constructs a runner of matches between two players on boards of the given shape and size.
+   *
+   * @param numOfSide the number of sides of a cell: 6 for hexagon boards, 4 for square boards
+   * @param size the size of the boards
+   * @param playerA the factory of player A, given a seed for every game
+   * @param playerB the factory of player B, given a seed for every game
+   * @param randomPlies the number of plies played at random at the start of every game
+   * @param threads the number of games played at once
+   * @throws IllegalArgumentException if numOfSide is neither 6 nor 4, the size is not positive, a
+   *         factory is null, randomPlies is negative, or threads is not positive
+   */
+  public SelfPlayRunner(int numOfSide, int size, LongFunction<Player> playerA,
+      LongFunction<Player> playerB, int randomPlies, int threads) {
+    if (numOfSide != 6 && numOfSide != 4) {
+      throw new IllegalArgumentException("numOfSide must be 6 or 4");
+    }
+    if (size <= 0) {
+      throw new IllegalArgumentException("size must be positive");
+    }
+    if (playerA == null || playerB == null) {
+      throw new IllegalArgumentException("the player factories cannot be null");
+    }
+    if (randomPlies < 0) {
+      throw new IllegalArgumentException("randomPlies cannot be negative");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be positive");
+    }
+    this.numOfSide = numOfSide;
+    this.size = size;
+    this.playerA = playerA;
+    this.playerB = playerB;
+    this.randomPlies = randomPlies;
+    this.threads = threads;
+  }
+
+  /**
+   * Plays a match of the given number of games and waits for all of them to end.
+   *
+   * @param games the number of games
+   * @param seed the seed the seeds of the games are drawn from
+   * @return the results of the match
+   * @throws IllegalArgumentException if the number of games is negative
+   * @throws IllegalStateException if a player fails, or stops choosing moves before the end of a
+   *         game
+   */
+  public SelfPlayResult play(int games, long seed) {
+    if (games < 0) {
+      throw new IllegalArgumentException("games cannot be negative");
+    }
+    Random seeds = new Random(seed);
+    long[] gameSeeds = new long[(games + 1) / 2];
+    for (int i = 0; i < gameSeeds.length; i++) {
+      gameSeeds[i] = seeds.nextLong();
+    }
+    List<Callable<long[]>> tasks = new ArrayList<Callable<long[]>>();
+    for (int game = 0; game < games; game++) {
+      long gameSeed = gameSeeds[game / 2];
+      boolean aIsBlack = game % 2 == 0;
+      tasks.add(() -> playGame(gameSeed, aIsBlack));
+    }
+
+    long start = System.nanoTime();
+    long[] totals = new long[RESULT_LENGTH];
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      for (Future<long[]> result : pool.invokeAll(tasks)) {
+        long[] outcome = result.get();
+        for (int i = 0; i < RESULT_LENGTH; i++) {
+          totals[i] += outcome[i];
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("the match was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("a game failed", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+    long wallNanos = System.nanoTime() - start;
+    return new SelfPlayResult((int) totals[WIN], (int) totals[DRAW], (int) totals[LOSS],
+        totals[DISCS], totals[MOVES_A], totals[NANOS_A], totals[MOVES_B], totals[NANOS_B],
+        wallNanos);
+  }
+
+  /**
+   * Plays one game to its end, on the calling thread.
+   *
+   * @param gameSeed the seed of the game
+   * @param aIsBlack true if player A plays black
+   * @return the outcome of the game, laid out as the entries WIN to NANOS_B
+   * @throws IllegalStateException if a player stops choosing moves before the end of the game
+   */
+  long[] playGame(long gameSeed, boolean aIsBlack) {
+    SplittableRandom random = new SplittableRandom(gameSeed);
+    long[] outcome = new long[RESULT_LENGTH];
+    // Both players of a game count the plies, to know when the random opening is over
+    int[] plies = new int[1];
+    SplittableRandom opening = random.split();
+    Player a = new TimedPlayer(playerA.apply(random.nextLong()), opening, plies, outcome, MOVES_A);
+    Player b = new TimedPlayer(playerB.apply(random.nextLong()), opening, plies, outcome, MOVES_B);
+    Player black = aIsBlack ? a : b;
+    Player white = aIsBlack ? b : a;
+
+    ReversiModel model;
+    if (numOfSide == 6) {
+      model = new HexagonReversi(size, 1, Math.PI / 2, black, white);
+    } else {
+      model = new SquareReversi(size, 1, Math.PI / 4, black, white);
+    }
+    model.update();
+
+    GameStatus state = model.getGameState();
+    if (state == GameStatus.BTURN || state == GameStatus.WTURN) {
+      throw new IllegalStateException("a player stopped choosing moves at ply " + plies[0]);
+    }
+    int discsA = model.getBoard().countCells(aIsBlack ? CellStatus.BLACK : CellStatus.WHITE);
+    int discsB = model.getBoard().countCells(aIsBlack ? CellStatus.WHITE : CellStatus.BLACK);
+    if (state == GameStatus.DRAW) {
+      outcome[DRAW] = 1;
+    } else if ((state == GameStatus.BWINS) == aIsBlack) {
+      outcome[WIN] = 1;
+    } else {
+      outcome[LOSS] = 1;
+    }
+    outcome[DISCS] = discsA - discsB;
+    return outcome;
+  }
+
+  /**
+   * A player of one game that plays at random during the opening and then times the moves of the
+   * player it stands for.
+   */
+  private final class TimedPlayer implements Player {
+
+    private final Player player;
+    private final SplittableRandom opening;
+    private final int[] plies;
+    private final long[] outcome;
+    private final int movesEntry;
+
+    /**
+     * Constructs a timed player.
+     *
+     * @param player the player it stands for
+     * @param opening the random source of the opening, shared by both players of the game
+     * @param plies the number of plies played, shared by both players of the game
+     * @param outcome the outcome of the game to add the moves and their time to
+     * @param movesEntry the entry of the outcome counting the moves, followed by their time
+     */
+    TimedPlayer(Player player, SplittableRandom opening, int[] plies, long[] outcome,
+        int movesEntry) {
+      this.player = player;
+      this.opening = opening;
+      this.plies = plies;
+      this.outcome = outcome;
+      this.movesEntry = movesEntry;
+    }
+
+    @Override
+    public Cell move(Board board, GameStatus gameStatus) {
+      Cell move;
+      if (plies[0] < randomPlies) {
+        CellStatus toMove = gameStatus == GameStatus.BTURN ? CellStatus.BLACK : CellStatus.WHITE;
+        int[] moves = new int[board.getCellCount()];
+        int count = board.getLegalMoves(toMove, moves);
+        move = count == 0 ? null : board.getCellAt(moves[opening.nextInt(count)]);
+      } else {
+        long start = System.nanoTime();
+        move = player.move(board, gameStatus);
+        outcome[movesEntry + 1] += System.nanoTime() - start;
+        outcome[movesEntry]++;
+      }
+      if (move != null) {
+        plies[0]++;
+      }
+      return move;
+    }
+
+    @Override
+    public void gameEnded() {
+      player.gameEnded();
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package cs3500.reversi.model.implem;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The pools of threads the parallel AI players share, one per level of parallelism, so that
+ * players made and thrown away, such as one per game of a self-play match, do not each leave a
+ * pool of idle threads behind. The threads are daemons and end on their own after a while idle.
+ */
+final class SharedPools {
+
+  private static final ConcurrentHashMap<Integer, ForkJoinPool> POOLS =
+      new ConcurrentHashMap<Integer, ForkJoinPool>();
+
+  /**
+   * Does not construct; the pools are shared.
+   */
+  private SharedPools() {
+  }
+
+  /**
+   * Gets the shared pool of the given number of threads, creating it on first use.
+   *
+   * @param parallelism the number of threads
+   * @return the pool
+   * @throws IllegalArgumentException if parallelism is not positive
+   */
+  static ForkJoinPool get(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive");
+    }
+    return POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+  }
+}
@@ -0,0 +1,34 @@
+package cs3500.reversi.model.implem;
+
+/**
+ * Represents the bitboard engine of a square game board. The cells are laid out in rows of the
+ * board, so that the eight directions (the four edges, then the four diagonals) are shifts of
+ * 1, the width of the board, and their sums. A board of size 4 (8 x 8 cells) or less fits in one
+ * long per color.
+ */
+public class SquareBitboard extends AbstractBitboard {
+
+  // Lattice steps in the order of the neighbor table of SquareGameBoard
+  private static final int[][] DIRECTION_VECTORS = {
+      {1, 0}, {0, 1}, {-1, 0}, {0, -1},
+      {1, 1}, {-1, 1}, {-1, -1}, {1, -1}};
+
+  /**
+   * Constructs a bitboard with the geometry and the discs of the given square board.
+   *
+   * @param board the square board
+   * @throws IllegalArgumentException if board is null
+   */
+  public SquareBitboard(SquareGameBoard board) {
+    super(board, DIRECTION_VECTORS);
+  }
+
+  private SquareBitboard(SquareBitboard that) {
+    super(that);
+  }
+
+  @Override
+  public SquareBitboard copy() {
+    return new SquareBitboard(this);
+  }
+}
@@ -3,12 +3,9 @@ package cs3500.reversi.model.implem;
 import java.util.ArrayList;
 
 import cs3500.reversi.model.interf.Board;
-import cs3500.reversi.model.interf.Cell;
 import cs3500.reversi.model.position.CartesianPosition;
 import cs3500.reversi.model.position.PolarPosition;
 import cs3500.reversi.model.position.Position;
-import cs3500.reversi.model.status.CellStatus;
-import cs3500.reversi.model.status.GameStatus;
 
 /**
  * This class represents a game board for a square Reversi game.
@@ -36,13 +33,15 @@ public class SquareGameBoard extends AbstractPolygonGameBoard {
     this.size = size;
     this.radius = radius;
     this.orientation = orientation;
-    grid = new ArrayList<ArrayList<Cell>>();
+    ArrayList<ArrayList<PolygonCell>> grid = new ArrayList<ArrayList<PolygonCell>>();
 
     this.numOfSide = 4;
+    // The four edges, then the four diagonals
+    this.numOfDirection = 8;
 
     // Initialize the grid
     for (int i = 0; i < size; i++) {
-      grid.add(new ArrayList<Cell>());
+      grid.add(new ArrayList<PolygonCell>());
 
       if (i == 0) {
         for (int j = 0; j < 4; j++) {
@@ -65,186 +64,44 @@ public class SquareGameBoard extends AbstractPolygonGameBoard {
         }
       }
     }
+    initialize(grid);
   }
 
-  @Override
-  public Board cloneBoard() {
-    SquareGameBoard clone = new SquareGameBoard(size, radius, orientation);
-    for (int i = 0; i < size; i++) {
-      for (int j = 0; j < grid.get(i).size(); j++) {
-        clone.grid.get(i).set(j, new PolygonCell(grid.get(i).get(j)));
-      }
-    }
-    return clone;
+  /**
+   * Constructs a copy of the given board, sharing its layout.
+   *
+   * @param that the board to copy
+   */
+  private SquareGameBoard(SquareGameBoard that) {
+    super(that);
+    this.size = that.size;
+    this.radius = that.radius;
+    this.orientation = that.orientation;
   }
 
-
   @Override
-  public boolean onSameLine(Cell gridOne, Cell gridTwo) {
-    if (gridOne == null || gridTwo == null) {
-      throw new IllegalArgumentException("gridOne and gridTwo cannot be null");
-    }
-    for (int i = 0; i < numOfSide; i++) {
-      Cell adjacentCell = getAdjacentCell(gridOne, i);
-      while (adjacentCell != null) {
-        if (adjacentCell.equals(gridTwo)) {
-          return true;
-        }
-        adjacentCell = getAdjacentCell(adjacentCell, i);
-      }
-    }
-
-    // Diagonal line
-    for (int i = 0; i < numOfSide; i++) {
-      Cell adjacentCell = getAdjacentCell(gridOne, i);
-      adjacentCell = getAdjacentCell(adjacentCell, (i + 1) % numOfSide);
-      while (adjacentCell != null) {
-        if (adjacentCell.equals(gridTwo)) {
-          return true;
-        }
-        adjacentCell = getAdjacentCell(adjacentCell, i);
-      }
-    }
-    return false;
+  public Board cloneBoard() {
+    return new SquareGameBoard(this);
   }
 
-  /**
-   * Helper function to check if the given cell is a legal move for the given cell status.
-   * 
-   * @param cell the given cell
-   * @param cellStatus the given cell status
-   * @return true if the given cell is a legal move for the given cell status, false otherwise
-   * @throws IllegalArgumentException if cell is null
-   */
-  private boolean isLegalMoveForCellState(Cell cell, CellStatus cellStatus)
-      throws IllegalArgumentException {
-    if (cell == null) {
-      throw new IllegalArgumentException("cell cannot be null");
-    }
-    if (cell.getCellStatus() != CellStatus.EMPTY) {
-      return false;
-    }
-
-    for (int i = 0; i < numOfSide; i++) {
-      Cell adjacentCell = getAdjacentCell(cell, i);
-      if (adjacentCell == null || adjacentCell.getCellStatus() == CellStatus.EMPTY
-          || adjacentCell.getCellStatus() == cellStatus) {
-        continue;
-      }
-      while (adjacentCell != null) {
-        if (adjacentCell.getCellStatus() == cellStatus) {
-          return true;
-        } else if (adjacentCell.getCellStatus() == CellStatus.EMPTY) {
-          break;
-        } else {
-          adjacentCell = getAdjacentCell(adjacentCell, i);
-        }
-      }
-    }
-
-    for (int i = 0; i < numOfSide; i++) {
-      Cell adjacentCell = getAdjacentCell(cell, i);
-      adjacentCell = getAdjacentCell(adjacentCell, (i + 1) % 4);
-
-      if (adjacentCell == null || adjacentCell.getCellStatus() == CellStatus.EMPTY
-          || adjacentCell.getCellStatus() == cellStatus) {
-        continue;
-      }
-      while (adjacentCell != null) {
-        if (adjacentCell.getCellStatus() == cellStatus) {
-          return true;
-        } else if (adjacentCell.getCellStatus() == CellStatus.EMPTY) {
-          break;
-        } else {
-          adjacentCell = getAdjacentCell(adjacentCell, i);
-          adjacentCell = getAdjacentCell(adjacentCell, (i + 1) % 4);
-        }
-      }
-    }
-
-    return false;
+  @Override
+  protected double getCellRadius() {
+    return radius;
   }
 
   @Override
-  public boolean isLegalMove(Cell cell, GameStatus gameStatus) {
-    switch (gameStatus) {
-      case BTURN:
-        return isLegalMoveForCellState(cell, CellStatus.BLACK);
-      case WTURN:
-        return isLegalMoveForCellState(cell, CellStatus.WHITE);
-      default:
-        return false;
-    }
+  public SquareBitboard toBitboard() {
+    return new SquareBitboard(this);
   }
 
   @Override
-  public void oneMove(Cell cell, CellStatus cellStatus) {
-
-    if (cell == null) {
-      throw new IllegalArgumentException("cell cannot be null");
-    }
-    if (cellStatus == CellStatus.EMPTY) {
-      throw new IllegalArgumentException("cellStatus cannot be EMPTY");
-    }
-    if (cell.getCellStatus() != CellStatus.EMPTY) {
-      throw new IllegalArgumentException("cellStatus cannot be set to EMPTY");
-    }
-
-    cell.setCellStatus(cellStatus);
-
-    for (int i = 0; i < numOfSide; i++) {
-      ArrayList<Cell> cellsToFlip = new ArrayList<Cell>();
-      Cell adjacentCell = getAdjacentCell(cell, i);
-
-      if (adjacentCell == null || adjacentCell.getCellStatus() == CellStatus.EMPTY
-          || adjacentCell.getCellStatus() == cellStatus) {
-        continue;
-      }
-      while (true) {
-        if (adjacentCell == null) {
-          cellsToFlip = new ArrayList<Cell>();
-          break;
-        } else if (adjacentCell.getCellStatus() == cellStatus) {
-          break;
-        } else if (adjacentCell.getCellStatus() == CellStatus.EMPTY) {
-          cellsToFlip = new ArrayList<Cell>();
-          break;
-        } else {
-          cellsToFlip.add(adjacentCell);
-          adjacentCell = getAdjacentCell(adjacentCell, i);
-        }
-      }
-      for (Cell cellToFlip : cellsToFlip) {
-        cellToFlip.flip();
-      }
-    }
-
-    for (int i = 0; i < numOfSide; i++) {
-      ArrayList<Cell> cellsToFlip = new ArrayList<Cell>();
-      Cell adjacentCell = getAdjacentCell(cell, i);
-      adjacentCell = getAdjacentCell(adjacentCell, (i + 1) % numOfSide);
-      if (adjacentCell == null || adjacentCell.getCellStatus() == CellStatus.EMPTY
-          || adjacentCell.getCellStatus() == cellStatus) {
-        continue;
-      }
-      while (true) {
-        if (adjacentCell == null) {
-          cellsToFlip = new ArrayList<Cell>();
-          break;
-        } else if (adjacentCell.getCellStatus() == cellStatus) {
-          break;
-        } else if (adjacentCell.getCellStatus() == CellStatus.EMPTY) {
-          cellsToFlip = new ArrayList<Cell>();
-          break;
-        } else {
-          cellsToFlip.add(adjacentCell);
-          adjacentCell = getAdjacentCell(adjacentCell, i);
-          adjacentCell = getAdjacentCell(adjacentCell, (i + 1) % numOfSide);
-        }
-      }
-      for (Cell cellToFlip : cellsToFlip) {
-        cellToFlip.flip();
-      }
+  protected int findExtraNeighbor(int index, int directionIndex, int[] edgeNeighbors) {
+    // Diagonal i goes across edge i and then across edge i + 1
+    int edgeIndex = directionIndex - numOfSide;
+    int adjacent = edgeNeighbors[index * numOfDirection + edgeIndex];
+    if (adjacent < 0) {
+      return -1;
     }
+    return edgeNeighbors[adjacent * numOfDirection + (edgeIndex + 1) % numOfSide];
   }
 }
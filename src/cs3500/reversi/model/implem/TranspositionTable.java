@@ -0,0 +1,241 @@
+package cs3500.reversi.model.implem;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Represents a fixed-size transposition table for the search based players: a cache of the
+ * results of searching positions, keyed by the Zobrist hash of the position. The table lives in a
+ * single array of longs and allocates nothing once it is built.
+ * The table is split in buckets of two entries. The first entry of a bucket keeps the deepest
+ * result of the current search, and the second entry always takes the latest result that did not
+ * go in the first, so that fresh shallow results are not lost to old deep ones.
+ * An entry is two longs: the key of the position XORed with the data, and the data packed as
+ * follows.
+ * <pre>
+ *   bits  0-31  score (signed)
+ *   bits 32-49  best move + 1 (0 for none)
+ *   bits 50-57  depth
+ *   bits 58-59  bound type
+ *   bits 60-63  generation (the search that stored the entry)
+ * </pre>
+ * A table can be shared by searches running on several threads without locks. Every slot is read
+ * and written atomically, and an entry is only returned when its two longs agree (the key word
+ * XORed with the data word gives the key looked up), so an entry torn by two threads writing the
+ * same bucket at once reads as a miss instead of as wrong data. Concurrent writes may lose
+ * entries, which only costs search time.
+ */
+public class TranspositionTable {
+
+  /**
+   * The score is the exact score of the position.
+   */
+  public static final int EXACT = 1;
+
+  /**
+   * The score is a lower bound of the score of the position (the search failed high).
+   */
+  public static final int LOWER_BOUND = 2;
+
+  /**
+   * The score is an upper bound of the score of the position (the search failed low).
+   */
+  public static final int UPPER_BOUND = 3;
+
+  /**
+   * The result of probe when the position is not in the table. No stored entry has this value,
+   * since the bound type of a stored entry is never 0.
+   */
+  public static final long MISS = 0;
+
+  /**
+   * The largest depth an entry can hold.
+   */
+  public static final int MAX_DEPTH = 255;
+
+  /**
+   * The largest best move an entry can hold.
+   */
+  public static final int MAX_MOVE = (1 << 18) - 2;
+
+  // Longs per bucket: two entries of a key and a data word
+  private static final int BUCKET_LONGS = 4;
+
+  private static final int BYTES_PER_BUCKET = BUCKET_LONGS * Long.BYTES;
+
+  // Opaque access makes every read and write of a slot atomic, without ordering them
+  private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(long[].class);
+
+  private final long[] slots;
+
+  private final int bucketMask;
+
+  private volatile int generation;
+
+  /**
+   * Constructs a table that uses at most the given number of bytes. The number of buckets is the
+   * largest power of two that fits in the budget.
+   *
+   * @param memoryBytes the memory budget of the table, in bytes
+   * @throws IllegalArgumentException if the budget cannot hold one bucket (32 bytes), or needs
+   *         more buckets than an array can hold
+   */
+  public TranspositionTable(long memoryBytes) {
+    if (memoryBytes < BYTES_PER_BUCKET) {
+      throw new IllegalArgumentException("memoryBytes must be at least " + BYTES_PER_BUCKET);
+    }
+    long buckets = Long.highestOneBit(memoryBytes / BYTES_PER_BUCKET);
+    if (buckets > (1 << 28)) {
+      throw new IllegalArgumentException("memoryBytes cannot be more than 8 GiB");
+    }
+    this.slots = new long[(int) buckets * BUCKET_LONGS];
+    this.bucketMask = (int) buckets - 1;
+  }
+
+  /**
+   * Gets the number of entries the table can hold.
+   *
+   * @return the number of entries
+   */
+  public int getCapacity() {
+    return slots.length / 2;
+  }
+
+  /**
+   * Empties the table. No search may be using the table meanwhile.
+   */
+  public void clear() {
+    Arrays.fill(slots, 0);
+    generation = 0;
+  }
+
+  /**
+   * Starts a new search. The entries of earlier searches stay readable, but the deep entries they
+   * hold no longer keep newer results out of the depth-preferred entries.
+   */
+  public void newSearch() {
+    generation = (generation + 1) & 15;
+  }
+
+  /**
+   * Looks up the given position.
+   *
+   * @param key the Zobrist hash of the position
+   * @return the packed data of the entry, to read with the static getters, or MISS
+   */
+  public long probe(long key) {
+    int bucket = bucketOf(key);
+    long data = (long) SLOT.getOpaque(slots, bucket + 1);
+    if (data != MISS && ((long) SLOT.getOpaque(slots, bucket) ^ data) == key) {
+      return data;
+    }
+    data = (long) SLOT.getOpaque(slots, bucket + 3);
+    if (data != MISS && ((long) SLOT.getOpaque(slots, bucket + 2) ^ data) == key) {
+      return data;
+    }
+    return MISS;
+  }
+
+  /**
+   * Stores the result of searching the given position.
+   *
+   * @param key the Zobrist hash of the position
+   * @param depth the depth searched, from 0 to MAX_DEPTH
+   * @param bound EXACT, LOWER_BOUND or UPPER_BOUND
+   * @param score the score found
+   * @param bestMove the index of the best move found, or -1 for none
+   * @throws IllegalArgumentException if the depth, bound or best move is out of range
+   */
+  public void store(long key, int depth, int bound, int score, int bestMove) {
+    if (depth < 0 || depth > MAX_DEPTH) {
+      throw new IllegalArgumentException("depth must be between 0 and " + MAX_DEPTH);
+    }
+    if (bound < EXACT || bound > UPPER_BOUND) {
+      throw new IllegalArgumentException("bound must be EXACT, LOWER_BOUND or UPPER_BOUND");
+    }
+    if (bestMove < -1 || bestMove > MAX_MOVE) {
+      throw new IllegalArgumentException("bestMove must be between -1 and " + MAX_MOVE);
+    }
+    long data = (score & 0xFFFFFFFFL) | ((long) (bestMove + 1) << 32) | ((long) depth << 50)
+        | ((long) bound << 58) | ((long) generation << 60);
+    int bucket = bucketOf(key);
+    long preferred = (long) SLOT.getOpaque(slots, bucket + 1);
+    long preferredWord = (long) SLOT.getOpaque(slots, bucket);
+    boolean sameKey = (preferredWord ^ preferred) == key;
+    if (preferred == MISS || sameKey || getGeneration(preferred) != generation
+        || depth >= getDepth(preferred)) {
+      if (!sameKey && preferred != MISS) {
+        // Keep what the depth-preferred entry held, in place of the always-replace entry
+        SLOT.setOpaque(slots, bucket + 2, preferredWord);
+        SLOT.setOpaque(slots, bucket + 3, preferred);
+      }
+      SLOT.setOpaque(slots, bucket, key ^ data);
+      SLOT.setOpaque(slots, bucket + 1, data);
+    } else {
+      SLOT.setOpaque(slots, bucket + 2, key ^ data);
+      SLOT.setOpaque(slots, bucket + 3, data);
+    }
+  }
+
+  /**
+   * Gets the score of an entry.
+   *
+   * @param entry the data returned by probe
+   * @return the score stored
+   */
+  public static int getScore(long entry) {
+    return (int) entry;
+  }
+
+  /**
+   * Gets the best move of an entry.
+   *
+   * @param entry the data returned by probe
+   * @return the index of the best move stored, or -1 for none
+   */
+  public static int getBestMove(long entry) {
+    return (int) ((entry >>> 32) & 0x3FFFF) - 1;
+  }
+
+  /**
+   * Gets the depth of an entry.
+   *
+   * @param entry the data returned by probe
+   * @return the depth stored
+   */
+  public static int getDepth(long entry) {
+    return (int) ((entry >>> 50) & 0xFF);
+  }
+
+  /**
+   * Gets the bound type of an entry.
+   *
+   * @param entry the data returned by probe
+   * @return EXACT, LOWER_BOUND or UPPER_BOUND
+   */
+  public static int getBound(long entry) {
+    return (int) ((entry >>> 58) & 3);
+  }
+
+  /**
+   * Helper function to get the generation of an entry.
+   *
+   * @param entry the data of the entry
+   * @return the generation stored
+   */
+  private static int getGeneration(long entry) {
+    return (int) (entry >>> 60);
+  }
+
+  /**
+   * Helper function to get the first slot of the bucket of a key.
+   *
+   * @param key the key
+   * @return the index of the first long of the bucket
+   */
+  private int bucketOf(long key) {
+    // Fold the high half in, so that every bit of the key takes part in picking the bucket
+    return ((int) ((key >>> 32) ^ key) & bucketMask) * BUCKET_LONGS;
+  }
+}
@@ -0,0 +1,460 @@
+package cs3500.reversi.model.implem;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tunes the four preference weights of the AdvancedAIPlayer (cornerTendency, nextToCornerPhobia,
+ * greedy and cautiousness) for one board shape and size, by simultaneous perturbation stochastic
+ * approximation (SPSA) on the score of self-play games against a fixed reference player.
+ * Every iteration moves all the weights by +c or -c at random, plays the weights moved up and the
+ * weights moved down against the reference with the same openings, and steps the weights along
+ * the difference of the two scores. The step a and the perturbation c shrink with the iterations
+ * as a / (k + 1 + A)^0.602 and c / (k + 1)^0.101. The weights are kept as real numbers and rounded
+ * for the games.
+ * The games of an iteration run on a pool of threads that lives as long as the tuner, so the
+ * workers are reused from one iteration to the next. The perturbations and the openings of an
+ * iteration only depend on the seed and the number of the iteration, so a tuner resumed from a
+ * checkpoint goes on as it would have; the checkpoint keeps the settings of the tuning and is only
+ * loaded by a tuner of the same settings.
+ * Besides the estimate it steps, the tuner keeps the best weights to play with. A perturbed set of
+ * weights that beats their score is only a candidate, since the best of many noisy scores is
+ * mostly luck: it plays again against the reference on new openings, next to the best weights on
+ * the same openings, and takes their place if it scores more there. Either way, the best score
+ * becomes the score of the best weights in that match, so a lucky score is replaced by the next
+ * match instead of holding the place for good.
+ */
+public class WeightTuner implements AutoCloseable {
+
+  /**
+   * The number of weights tuned.
+   */
+  public static final int WEIGHT_COUNT = 4;
+
+  /**
+   * The default initial step, in weight per point of score.
+   */
+  public static final double DEFAULT_STEP = 100;
+
+  /**
+   * The default initial perturbation of every weight.
+   */
+  public static final double DEFAULT_PERTURBATION = 2;
+
+  // The largest weight, in absolute value, the weights are kept within
+  private static final double MAX_WEIGHT = 100;
+
+  // The exponents of the decay of the step and of the perturbation, and the stability constant
+  private static final double STEP_DECAY = 0.602;
+  private static final double PERTURBATION_DECAY = 0.101;
+  private static final double STABILITY = 10;
+
+  private final int numOfSide;
+  private final int size;
+  private final int[] reference;
+  private final int gamesPerSide;
+  private final int randomPlies;
+  private final double step;
+  private final double perturbation;
+  private final long seed;
+
+  private final ExecutorService pool;
+
+  private final double[] weights;
+  private int iteration;
+
+  private double lastScorePlus;
+  private double lastScoreMinus;
+
+  // The best weights so far, rounded, and their score in the last match that checked them; -1
+  // before any
+  private final int[] bestWeights;
+  private double bestScore;
+
+  /**
+   * Constructs a tuner with the default step and perturbation.
+   *
+   * @param numOfSide the number of sides of a cell: 6 for hexagon boards, 4 for square boards
+   * @param size the size of the boards
+   * @param reference the weights of the reference player
+   * @param start the weights to start from
+   * @param gamesPerSide the number of games each perturbed set of weights plays every iteration
+   * @param randomPlies the number of plies played at random at the start of every game
+   * @param threads the number of games played at once
+   * @param seed the seed of the perturbations and of the openings
+   * @throws IllegalArgumentException if numOfSide is neither 6 nor 4, the size is not positive, a
+   *         set of weights does not have WEIGHT_COUNT weights, gamesPerSide or threads is not
+   *         positive, or randomPlies is negative
+   */
+  public WeightTuner(int numOfSide, int size, int[] reference, int[] start, int gamesPerSide,
+      int randomPlies, int threads, long seed) {
+    this(numOfSide, size, reference, start, gamesPerSide, randomPlies, threads, seed,
+        DEFAULT_STEP, DEFAULT_PERTURBATION);
+  }
+
+  /**
+   * Constructs a tuner.
+   *
+   * @param numOfSide the number of sides of a cell: 6 for hexagon boards, 4 for square boards
+   * @param size the size of the boards
+   * @param reference the weights of the reference player
+   * @param start the weights to start from
+   * @param gamesPerSide the number of games each perturbed set of weights plays every iteration
+   * @param randomPlies the number of plies played at random at the start of every game
+   * @param threads the number of games played at once
+   * @param seed the seed of the perturbations and of the openings
+   * @param step the initial step a, in weight per point of score
+   * @param perturbation the initial perturbation c of every weight
+   * @throws IllegalArgumentException if numOfSide is neither 6 nor 4, the size is not positive, a
+   *         set of weights does not have WEIGHT_COUNT weights, gamesPerSide or threads is not
+   *         positive, randomPlies is negative, or the step or the perturbation is not positive
+   */
+  public WeightTuner(int numOfSide, int size, int[] reference, int[] start, int gamesPerSide,
+      int randomPlies, int threads, long seed, double step, double perturbation) {
+    if (numOfSide != 6 && numOfSide != 4) {
+      throw new IllegalArgumentException("numOfSide must be 6 or 4");
+    }
+    if (size <= 0) {
+      throw new IllegalArgumentException("size must be positive");
+    }
+    if (reference == null || reference.length != WEIGHT_COUNT || start == null
+        || start.length != WEIGHT_COUNT) {
+      throw new IllegalArgumentException("a set of weights must have " + WEIGHT_COUNT + " weights");
+    }
+    if (gamesPerSide < 1 || threads < 1) {
+      throw new IllegalArgumentException("gamesPerSide and threads must be positive");
+    }
+    if (randomPlies < 0) {
+      throw new IllegalArgumentException("randomPlies cannot be negative");
+    }
+    if (!(step > 0) || !(perturbation > 0)) {
+      throw new IllegalArgumentException("the step and the perturbation must be positive");
+    }
+    this.numOfSide = numOfSide;
+    this.size = size;
+    this.reference = reference.clone();
+    this.gamesPerSide = gamesPerSide;
+    this.randomPlies = randomPlies;
+    this.step = step;
+    this.perturbation = perturbation;
+    this.seed = seed;
+    this.weights = new double[WEIGHT_COUNT];
+    for (int i = 0; i < WEIGHT_COUNT; i++) {
+      weights[i] = clamp(start[i]);
+    }
+    this.bestWeights = round(weights);
+    this.bestScore = -1;
+    this.pool = Executors.newFixedThreadPool(threads);
+  }
+
+  /**
+   * Runs one iteration: plays the perturbed weights against the reference and steps the weights.
+   *
+   * @throws IllegalStateException if the tuner is closed, or a game fails
+   */
+  public void step() {
+    if (pool.isShutdown()) {
+      throw new IllegalStateException("the tuner is closed");
+    }
+    SplittableRandom random = new SplittableRandom(seed + iteration * 0x9E3779B97F4A7C15L);
+    double stepK = step / Math.pow(iteration + 1 + STABILITY, STEP_DECAY);
+    double perturbationK = perturbation / Math.pow(iteration + 1, PERTURBATION_DECAY);
+    double[] plus = new double[WEIGHT_COUNT];
+    double[] minus = new double[WEIGHT_COUNT];
+    int[] signs = new int[WEIGHT_COUNT];
+    for (int i = 0; i < WEIGHT_COUNT; i++) {
+      signs[i] = random.nextBoolean() ? 1 : -1;
+      plus[i] = weights[i] + perturbationK * signs[i];
+      minus[i] = weights[i] - perturbationK * signs[i];
+    }
+
+    // Both sides play the same openings, so the difference of their scores is less noisy
+    long[] gameSeeds = new long[(gamesPerSide + 1) / 2];
+    for (int g = 0; g < gameSeeds.length; g++) {
+      gameSeeds[g] = random.nextLong();
+    }
+    double[] scores = play(gameSeeds, runner(round(plus)), runner(round(minus)));
+    lastScorePlus = scores[0];
+    lastScoreMinus = scores[1];
+    if (lastScorePlus > bestScore || lastScoreMinus > bestScore) {
+      // The candidate plays again next to the best weights, on openings of its own
+      int[] candidate = round(lastScorePlus >= lastScoreMinus ? plus : minus);
+      long[] replaySeeds = new long[gameSeeds.length];
+      for (int g = 0; g < replaySeeds.length; g++) {
+        replaySeeds[g] = random.nextLong();
+      }
+      double[] replay = play(replaySeeds, runner(candidate), runner(bestWeights));
+      if (replay[0] > replay[1]) {
+        System.arraycopy(candidate, 0, bestWeights, 0, WEIGHT_COUNT);
+      }
+      bestScore = Math.max(replay[0], replay[1]);
+    }
+
+    for (int i = 0; i < WEIGHT_COUNT; i++) {
+      double gradient = (lastScorePlus - lastScoreMinus) / (2 * perturbationK * signs[i]);
+      weights[i] = clamp(weights[i] + stepK * gradient);
+    }
+    iteration++;
+  }
+
+  /**
+   * Gets the number of iterations run, counting the ones run before a checkpoint was loaded.
+   *
+   * @return the number of iterations
+   */
+  public int getIteration() {
+    return iteration;
+  }
+
+  /**
+   * Gets the weights tuned so far, which are the estimate the tuner steps, rounded as the
+   * AdvancedAIPlayer takes them.
+   *
+   * @return the weights: cornerTendency, nextToCornerPhobia, greedy and cautiousness
+   */
+  public int[] getWeights() {
+    return round(weights);
+  }
+
+  /**
+   * Gets the best weights so far, which won the last match that checked them against a candidate,
+   * rounded as the AdvancedAIPlayer takes them, or the starting weights before the first
+   * iteration.
+   *
+   * @return the weights: cornerTendency, nextToCornerPhobia, greedy and cautiousness
+   */
+  public int[] getBestWeights() {
+    return bestWeights.clone();
+  }
+
+  /**
+   * Gets the score against the reference of the weights given by getBestWeights, in the last
+   * match that checked them against a candidate.
+   *
+   * @return the score, between 0 and 1, a draw counting one half, or -1 before the first iteration
+   */
+  public double getBestScore() {
+    return bestScore;
+  }
+
+  /**
+   * Gets the score against the reference of the weights moved up in the last iteration.
+   *
+   * @return the score, between 0 and 1, a draw counting one half
+   */
+  public double getLastScorePlus() {
+    return lastScorePlus;
+  }
+
+  /**
+   * Gets the score against the reference of the weights moved down in the last iteration.
+   *
+   * @return the score, between 0 and 1, a draw counting one half
+   */
+  public double getLastScoreMinus() {
+    return lastScoreMinus;
+  }
+
+  /**
+   * Saves the settings of the tuning, the number of iterations, the weights and the best weights,
+   * replacing the checkpoint file at once, so that a crash never leaves half a checkpoint.
+   *
+   * @param checkpoint the checkpoint file
+   * @throws IOException if the checkpoint cannot be written
+   */
+  public void saveCheckpoint(Path checkpoint) throws IOException {
+    Properties properties = new Properties();
+    settings(properties);
+    properties.setProperty("iteration", Integer.toString(iteration));
+    for (int i = 0; i < WEIGHT_COUNT; i++) {
+      properties.setProperty("weight." + i, Double.toString(weights[i]));
+    }
+    properties.setProperty("bestWeights", join(bestWeights));
+    properties.setProperty("bestScore", Double.toString(bestScore));
+    Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+    try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+      properties.store(writer, "AdvancedAIPlayer weight tuning");
+    }
+    Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Loads the number of iterations, the weights and the best weights saved by saveCheckpoint, to go
+   * on tuning from there.
+   *
+   * @param checkpoint the checkpoint file
+   * @throws IOException if the checkpoint cannot be read
+   * @throws IllegalArgumentException if the checkpoint cannot be parsed, or was saved with other
+   *         settings: another board, reference, seed, number of games or of random plies, step or
+   *         perturbation
+   */
+  public void loadCheckpoint(Path checkpoint) throws IOException {
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(checkpoint, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    }
+    Properties expected = new Properties();
+    settings(expected);
+    for (String key : expected.stringPropertyNames()) {
+      if (!expected.getProperty(key).equals(properties.getProperty(key))) {
+        throw new IllegalArgumentException("the checkpoint was saved with another " + key);
+      }
+    }
+    double[] loaded = new double[WEIGHT_COUNT];
+    int loadedIteration;
+    String[] loadedBest;
+    double loadedBestScore;
+    try {
+      loadedIteration = Integer.parseInt(properties.getProperty("iteration"));
+      for (int i = 0; i < WEIGHT_COUNT; i++) {
+        loaded[i] = Double.parseDouble(properties.getProperty("weight." + i));
+      }
+      loadedBest = properties.getProperty("bestWeights").split(",");
+      loadedBestScore = Double.parseDouble(properties.getProperty("bestScore"));
+      for (String weight : loadedBest) {
+        Integer.parseInt(weight);
+      }
+    } catch (NumberFormatException | NullPointerException e) {
+      throw new IllegalArgumentException("the checkpoint cannot be parsed", e);
+    }
+    if (loadedIteration < 0 || loadedBest.length != WEIGHT_COUNT) {
+      throw new IllegalArgumentException("the checkpoint cannot be parsed");
+    }
+    for (int i = 0; i < WEIGHT_COUNT; i++) {
+      weights[i] = clamp(loaded[i]);
+      bestWeights[i] = Integer.parseInt(loadedBest[i]);
+    }
+    bestScore = loadedBestScore;
+    iteration = loadedIteration;
+  }
+
+  /**
+   * Stops the workers. The tuner cannot step after it is closed.
+   */
+  @Override
+  public void close() {
+    pool.shutdownNow();
+  }
+
+  /**
+   * Helper method to write the settings a checkpoint is only loaded with.
+   *
+   * @param properties the properties to write the settings to
+   */
+  private void settings(Properties properties) {
+    properties.setProperty("numOfSide", Integer.toString(numOfSide));
+    properties.setProperty("size", Integer.toString(size));
+    properties.setProperty("reference", join(reference));
+    properties.setProperty("seed", Long.toString(seed));
+    properties.setProperty("gamesPerSide", Integer.toString(gamesPerSide));
+    properties.setProperty("randomPlies", Integer.toString(randomPlies));
+    properties.setProperty("step", Double.toString(step));
+    properties.setProperty("perturbation", Double.toString(perturbation));
+  }
+
+  /**
+   * Helper method to play two sets of weights against the reference on the pool, each of them
+   * gamesPerSide games on the same openings, black in every other game.
+   *
+   * @param gameSeeds the seed of the opening of every two games
+   * @param first the runner of the first set of weights
+   * @param second the runner of the second set of weights
+   * @return the scores of both sets of weights, between 0 and 1, a draw counting one half
+   * @throws IllegalStateException if the tuning is interrupted, or a game fails
+   */
+  private double[] play(long[] gameSeeds, SelfPlayRunner first, SelfPlayRunner second) {
+    List<Callable<long[]>> tasks = new ArrayList<Callable<long[]>>();
+    for (int g = 0; g < gamesPerSide; g++) {
+      long gameSeed = gameSeeds[g / 2];
+      boolean aIsBlack = g % 2 == 0;
+      tasks.add(() -> first.playGame(gameSeed, aIsBlack));
+      tasks.add(() -> second.playGame(gameSeed, aIsBlack));
+    }
+    double[] scores = new double[2];
+    try {
+      List<Future<long[]>> results = pool.invokeAll(tasks);
+      for (int t = 0; t < results.size(); t++) {
+        long[] outcome = results.get(t).get();
+        scores[t % 2] += outcome[SelfPlayRunner.WIN] + outcome[SelfPlayRunner.DRAW] / 2.0;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("the tuning was interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("a game failed", e.getCause());
+    }
+    scores[0] /= gamesPerSide;
+    scores[1] /= gamesPerSide;
+    return scores;
+  }
+
+  /**
+   * Helper method to make the runner of the games of a set of weights against the reference.
+   *
+   * @param candidate the weights, as player A
+   * @return the runner
+   */
+  private SelfPlayRunner runner(int[] candidate) {
+    return new SelfPlayRunner(numOfSide, size,
+        gameSeed -> new AdvancedAIPlayer(numOfSide, candidate[0], candidate[1], candidate[2],
+            candidate[3]),
+        gameSeed -> new AdvancedAIPlayer(numOfSide, reference[0], reference[1], reference[2],
+            reference[3]),
+        randomPlies, 1);
+  }
+
+  /**
+   * Helper function to keep a weight within MAX_WEIGHT of 0.
+   *
+   * @param weight the weight
+   * @return the weight, clamped
+   */
+  private static double clamp(double weight) {
+    return Math.max(-MAX_WEIGHT, Math.min(MAX_WEIGHT, weight));
+  }
+
+  /**
+   * Helper function to round weights to the nearest integers.
+   *
+   * @param weights the weights
+   * @return the rounded weights
+   */
+  private static int[] round(double[] weights) {
+    int[] rounded = new int[weights.length];
+    for (int i = 0; i < weights.length; i++) {
+      rounded[i] = (int) Math.round(weights[i]);
+    }
+    return rounded;
+  }
+
+  /**
+   * Helper function to write weights as a comma-separated list.
+   *
+   * @param weights the weights
+   * @return the list
+   */
+  private static String join(int[] weights) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < weights.length; i++) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      builder.append(weights[i]);
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,107 @@
+package cs3500.reversi.model.implem;
+
+import java.util.ArrayList;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.interf.Cell;
+import cs3500.reversi.model.status.CellStatus;
+
+/**
+ * Evaluates positions with the preference weights of the AI players, turned from weights of one
+ * move into weights of a whole position: corners held, cells next to a corner held, discs held,
+ * and the number of moves left to each side (cautiousness rewards leaving the opponent few
+ * replies). The score is from the point of view of the side to move. The corners of the board are
+ * found once, when the evaluator is built, the same way AdvancedAIPlayer finds them.
+ */
+final class WeightedEvaluator implements Evaluator {
+
+  private final int cornerTendency;
+  private final int nextToCornerPhobia;
+  private final int greedy;
+  private final int cautiousness;
+
+  private final int cellCount;
+
+  private final int[] corners;
+
+  private final int[] nextToCorners;
+
+  /**
+   * Constructs an evaluator for boards with the geometry of the given board.
+   *
+   * @param board a board with the geometry to evaluate
+   * @param numOfSide the number of sides of a cell of the board
+   * @param cornerTendency the weight of a corner
+   * @param nextToCornerPhobia the penalty of a cell next to a corner
+   * @param greedy the weight of a disc
+   * @param cautiousness the weight of a legal move
+   */
+  WeightedEvaluator(Board board, int numOfSide, int cornerTendency, int nextToCornerPhobia,
+      int greedy, int cautiousness) {
+    this.cornerTendency = cornerTendency;
+    this.nextToCornerPhobia = nextToCornerPhobia;
+    this.greedy = greedy;
+    this.cautiousness = cautiousness;
+    this.cellCount = board.getCellCount();
+
+    boolean[] isCorner = new boolean[cellCount];
+    ArrayList<Integer> cornerList = new ArrayList<Integer>();
+    for (int i = 0; i < cellCount; i++) {
+      Cell cell = board.getCellAt(i);
+      int noCells = 0;
+      for (int d = 0; d < numOfSide; d++) {
+        if (board.getCell(cell.getAdjacentCellCenter(d)) == null) {
+          noCells++;
+        }
+      }
+      if (noCells == numOfSide / 2) {
+        isCorner[i] = true;
+        cornerList.add(i);
+      }
+    }
+    ArrayList<Integer> nextToCornerList = new ArrayList<Integer>();
+    for (int i = 0; i < cellCount; i++) {
+      Cell cell = board.getCellAt(i);
+      for (int d = 0; d < numOfSide; d++) {
+        Cell adjacent = board.getCell(cell.getAdjacentCellCenter(d));
+        if (adjacent != null && isCorner[board.getCellIndex(adjacent)]) {
+          nextToCornerList.add(i);
+          break;
+        }
+      }
+    }
+    this.corners = cornerList.stream().mapToInt(Integer::intValue).toArray();
+    this.nextToCorners = nextToCornerList.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  @Override
+  public boolean fits(Board board) {
+    return board.getCellCount() == cellCount;
+  }
+
+  @Override
+  public int evaluate(Board board, CellStatus toMove) {
+    CellStatus opponent = toMove == CellStatus.BLACK ? CellStatus.WHITE : CellStatus.BLACK;
+    int score = greedy * (board.countCells(toMove) - board.countCells(opponent));
+    for (int corner : corners) {
+      CellStatus status = board.getCellStatus(corner);
+      if (status == toMove) {
+        score += cornerTendency;
+      } else if (status == opponent) {
+        score -= cornerTendency;
+      }
+    }
+    for (int cell : nextToCorners) {
+      CellStatus status = board.getCellStatus(cell);
+      if (status == toMove) {
+        score -= nextToCornerPhobia;
+      } else if (status == opponent) {
+        score += nextToCornerPhobia;
+      }
+    }
+    if (cautiousness != 0) {
+      score += cautiousness * (board.countLegalMoves(toMove) - board.countLegalMoves(opponent));
+    }
+    return score;
+  }
+}
@@ -102,5 +102,131 @@ public interface Board {
    *                                  cell is null, or if the cell status is EMPTY
    */
   int getMoveScore(Cell cell, GameStatus gameStatus) throws IllegalArgumentException;
-  
+
+  /**
+   * Gets the total number of cells on the board. Cells are indexed from 0 to this number - 1 in
+   * the order of their coordinates (all of coordinate one 0 first, then 1, and so on).
+   *
+   * @return the total number of cells on the board
+   */
+  int getCellCount();
+
+  /**
+   * Counts the cells with the given status. The counts are kept up to date as the board changes,
+   * so this takes constant time.
+   *
+   * @param cellStatus the status to count
+   * @return the number of cells with the given status
+   * @throws IllegalArgumentException if the cell status is null
+   */
+  int countCells(CellStatus cellStatus) throws IllegalArgumentException;
+
+  /**
+   * Counts the legal moves of the given color. The legal moves are kept up to date as the board
+   * changes: after a move, only the cells whose legality the move can change are checked again.
+   *
+   * @param cellStatus the color to move, BLACK or WHITE
+   * @return the number of legal moves of that color
+   * @throws IllegalArgumentException if the cell status is EMPTY or null
+   */
+  int countLegalMoves(CellStatus cellStatus) throws IllegalArgumentException;
+
+  /**
+   * Gets the legal moves of the given color, in no particular order.
+   *
+   * @param cellStatus the color to move, BLACK or WHITE
+   * @param result the array to fill with the indices of the legal moves
+   * @return the number of legal moves written to result
+   * @throws IllegalArgumentException if the cell status is EMPTY or null, or if result is null or
+   *         smaller than the number of legal moves
+   */
+  int getLegalMoves(CellStatus cellStatus, int[] result) throws IllegalArgumentException;
+
+  /**
+   * Gets the Zobrist hash of the discs on the board. Every cell and color has a random 64-bit key,
+   * and the hash is the XOR of the keys of all the discs, kept up to date as the board changes.
+   * Two boards of the same shape and size with the same discs have the same hash, also across
+   * runs of the program.
+   *
+   * @return the hash of the discs on the board
+   */
+  long getHash();
+
+  /**
+   * Gets the Zobrist hash of the position, which is the hash of the discs combined with the key of
+   * the side to move.
+   *
+   * @param gameStatus the current game status; WTURN adds the key of white to move
+   * @return the hash of the position
+   * @throws IllegalArgumentException if the game status is null
+   */
+  long getHash(GameStatus gameStatus) throws IllegalArgumentException;
+
+  /**
+   * Gets the index of the given cell on the board.
+   *
+   * @param cell the cell
+   * @return the index of the cell, or -1 if the cell is not on the board
+   * @throws IllegalArgumentException if the cell is null
+   */
+  int getCellIndex(Cell cell) throws IllegalArgumentException;
+
+  /**
+   * Gets the cell at the given index.
+   *
+   * @param index the index of the cell
+   * @return the cell at the given index
+   * @throws IllegalArgumentException if the index is out of range
+   */
+  Cell getCellAt(int index) throws IllegalArgumentException;
+
+  /**
+   * Gets the status of the cell at the given index.
+   *
+   * @param index the index of the cell
+   * @return the status of the cell
+   * @throws IllegalArgumentException if the index is out of range
+   */
+  CellStatus getCellStatus(int index) throws IllegalArgumentException;
+
+  /**
+   * Checks if placing a disc of the given status on the cell at the given index is legal.
+   *
+   * @param index the index of the cell
+   * @param cellStatus the status of the disc to place
+   * @return true if the move is legal, false otherwise
+   * @throws IllegalArgumentException if the index is out of range, or if the cell status is EMPTY
+   */
+  boolean isLegalMove(int index, CellStatus cellStatus) throws IllegalArgumentException;
+
+  /**
+   * Creates an undo record large enough for any move on this board, to be reused with makeMove.
+   *
+   * @return a new undo record
+   */
+  int[] newUndoRecord();
+
+  /**
+   * Makes a move on the board that can be reversed with undoMove. The undo record is filled with
+   * the index of the placed cell at [0], the number of flipped cells at [1], and the indices of the
+   * flipped cells from [2]. No memory is allocated when the record is reused.
+   *
+   * @param index the index of the cell to make the move on
+   * @param cellStatus the status of the disc placed
+   * @param undoRecord the record to fill, created by newUndoRecord
+   * @return the filled undo record
+   * @throws IllegalArgumentException if the move is not legal, if the cell status is EMPTY, or if
+   *         the undo record is null or too small
+   */
+  int[] makeMove(int index, CellStatus cellStatus, int[] undoRecord)
+      throws IllegalArgumentException;
+
+  /**
+   * Reverses a move made with makeMove. Moves must be undone in the reverse order they were made.
+   *
+   * @param undoRecord the record filled by makeMove
+   * @throws IllegalArgumentException if the undo record is null
+   */
+  void undoMove(int[] undoRecord) throws IllegalArgumentException;
+
 }
@@ -21,4 +21,11 @@ public interface Player {
    *         is selected)
    */
   Cell move(Board board, GameStatus gameStatus) throws IllegalArgumentException;
+
+  /**
+   * Tells the player the game it plays has ended, so that it can stop any thinking it does in the
+   * background. Players that do none do nothing.
+   */
+  default void gameEnded() {
+  }
 }
@@ -27,17 +27,23 @@ public interface ReversiModel {
   void refreshLegalMoves();
 
   /**
-   * Update to the current game play, and execute the following actions sequentially. 1) If the game
-   * is over, set the game state and find the winner of the game. 2) If the game is not over, - If
-   * the current player is an AI, make a move. - If the current player is a human, make a move.
+   * Update to the current game play, and execute the following actions sequentially, turn after
+   * turn, until a player has to wait for input. 1) If the game is over, set the game state and find
+   * the winner of the game. 2) If the current player has no legal move, pass for it. 3) Otherwise,
+   * - If the current player is an AI, make a move. - If the current player is a human, make the
+   * move it selected, if any.
    * 
    */
   void update();
 
   /**
-   * Check if there is no legal move for the both player on the board.
+   * Check if the game has ended: there is no legal move for the both player on the board, and the
+   * game state holds the winner. Both sides are counted once per position, when the legal moves
+   * are refreshed after a move or a pass, and the game ends when update finds them stuck. Checking
+   * does not change the model and is safe from another thread, such as the one painting the game,
+   * which then also sees the winner.
    * 
-   * @return true if there is no legal move for the both player on the board, false otherwise
+   * @return true if the game has ended, false otherwise
    */
   boolean isGameOver();
 
@@ -31,6 +31,24 @@ public class CartesianPosition extends AbstractPosition {
     this.y = positionToCopy.y;
   }
 
+  /**
+   * Gets the x-coordinate of this position.
+   *
+   * @return the x-coordinate of this position
+   */
+  public double getX() {
+    return x;
+  }
+
+  /**
+   * Gets the y-coordinate of this position.
+   *
+   * @return the y-coordinate of this position
+   */
+  public double getY() {
+    return y;
+  }
+
   @Override
   public boolean equals(Object other) {
     CartesianPosition that;
@@ -0,0 +1,105 @@
+package cs3500.reversi.model.implem;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.interf.Cell;
+import cs3500.reversi.model.interf.Player;
+import cs3500.reversi.model.interf.ReversiModel;
+import cs3500.reversi.model.status.CellStatus;
+import cs3500.reversi.model.status.GameStatus;
+
+/**
+ * Measures how much faster the AdvancedAIPlayer chooses a move when it scores the legal moves on
+ * several threads, on a large square board in the middle of a game, where there are many legal
+ * moves to score. The speedup only means something for numbers of threads the machine has cores
+ * for; the other lines are marked.
+ */
+public final class AdvancedAIPlayerBenchmark {
+
+  private static final int SIZE = 8;
+  private static final int RANDOM_PLIES = 60;
+  private static final int ROUNDS = 8;
+  private static final int TIMED_MOVES = 300;
+
+  /**
+   * Times the moves of the player with 1 thread and with more.
+   *
+   * @param args the numbers of threads to compare with 1, every core if none is given
+   */
+  public static void main(String[] args) {
+    ReversiModel model = midgame();
+    Board board = model.getBoard();
+    GameStatus state = model.getGameState();
+    System.out.println("board " + board.getCellCount() + " cells, "
+        + board.countLegalMoves(state == GameStatus.BTURN ? CellStatus.BLACK : CellStatus.WHITE)
+        + " legal moves, " + Runtime.getRuntime().availableProcessors() + " cores");
+
+    int[] threads = new int[args.length + 1];
+    threads[0] = 1;
+    for (int i = 0; i < args.length; i++) {
+      threads[i + 1] = Integer.parseInt(args[i]);
+    }
+    if (args.length == 0) {
+      threads = new int[] {1, Runtime.getRuntime().availableProcessors()};
+    }
+    Player[] players = new Player[threads.length];
+    for (int i = 0; i < threads.length; i++) {
+      players[i] = new AdvancedAIPlayer(4, 1, 1, 1, 1, threads[i]);
+    }
+    // Every round times every player, so that they all run compiled code; the best round counts
+    double[] best = new double[threads.length];
+    Arrays.fill(best, Double.MAX_VALUE);
+    for (int round = 0; round < ROUNDS; round++) {
+      for (int i = 0; i < players.length; i++) {
+        best[i] = Math.min(best[i], millisPerMove(players[i], board, state));
+      }
+    }
+    int cores = Runtime.getRuntime().availableProcessors();
+    for (int i = 0; i < threads.length; i++) {
+      System.out.println(String.format("%d threads: %.3f ms per move, speedup %.2f%s", threads[i],
+          best[i], best[0] / best[i], threads[i] > cores ? " (more threads than cores, so this "
+              + "only measures the cost of the threads)" : ""));
+    }
+  }
+
+  /**
+   * Helper function to time the moves of a player in one position.
+   *
+   * @param player the player
+   * @param board the board
+   * @param state the state of the game
+   * @return the average time of a move, in milliseconds
+   */
+  private static double millisPerMove(Player player, Board board, GameStatus state) {
+    long start = System.nanoTime();
+    for (int i = 0; i < TIMED_MOVES; i++) {
+      player.move(board, state);
+    }
+    return (System.nanoTime() - start) / 1e6 / TIMED_MOVES;
+  }
+
+  /**
+   * Helper function to reach the middle of a game by random moves from a fixed seed.
+   *
+   * @return the game, waiting for the move of the side to move
+   */
+  private static ReversiModel midgame() {
+    Random random = new Random(1);
+    int[] plies = new int[1];
+    Player randomPlayer = (board, state) -> {
+      if (plies[0]++ >= RANDOM_PLIES) {
+        return null;
+      }
+      int[] moves = new int[board.getCellCount()];
+      int count = board.getLegalMoves(
+          state == GameStatus.BTURN ? CellStatus.BLACK : CellStatus.WHITE, moves);
+      Cell move = count == 0 ? null : board.getCellAt(moves[random.nextInt(count)]);
+      return move;
+    };
+    ReversiModel model = new SquareReversi(SIZE, 1, Math.PI / 4, randomPlayer, randomPlayer);
+    model.update();
+    return model;
+  }
+}
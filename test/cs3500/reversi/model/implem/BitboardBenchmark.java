@@ -0,0 +1,198 @@
+package cs3500.reversi.model.implem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.status.CellStatus;
+
+/**
+ * Measures how many legal move sets per second the bitboard engines generate, over positions
+ * reached by random games, next to finding the same moves by checking every cell of the board;
+ * and how many random playouts per second a copy of a board, which plays with its engine, makes
+ * next to the board of a game, which plays with its neighbor table and its LegalMoveTracker.
+ * BitboardCheck checks that the engines find the same moves and flips as the boards.
+ */
+public final class BitboardBenchmark {
+
+  private static final int GAMES = 50;
+  private static final int ROUNDS = 8;
+  private static final int REPEATS = 10;
+  private static final int PLAYOUTS = 500;
+  private static final long SEED = 3;
+
+  /**
+   * Times the engines on boards of several shapes and sizes.
+   *
+   * @param args not used
+   */
+  public static void main(String[] args) {
+    report("square size 4", new SquareReversi(4, 1, Math.PI / 4, new HumanPlayer(),
+        new HumanPlayer()).getBoard(), board -> new SquareBitboard((SquareGameBoard) board));
+    report("square size 8", new SquareReversi(8, 1, Math.PI / 4, new HumanPlayer(),
+        new HumanPlayer()).getBoard(), board -> new SquareBitboard((SquareGameBoard) board));
+    report("hexagon size 5", new HexagonReversi(5, 1, Math.PI / 2, new HumanPlayer(),
+        new HumanPlayer()).getBoard(), board -> new HexBitboard((HexagonGameBoard) board));
+    report("hexagon size 9", new HexagonReversi(9, 1, Math.PI / 2, new HumanPlayer(),
+        new HumanPlayer()).getBoard(), board -> new HexBitboard((HexagonGameBoard) board));
+  }
+
+  /**
+   * Helper function to time one engine and the check of every cell on the positions of random
+   * games played from the given board, and print both rates.
+   *
+   * @param name the name of the board
+   * @param start the board to play the random games from
+   * @param engine the maker of the engine of a board
+   */
+  private static void report(String name, Board start,
+      Function<AbstractPolygonGameBoard, AbstractBitboard> engine) {
+    List<AbstractPolygonGameBoard> positions = positions(start);
+    AbstractBitboard[] bitboards = new AbstractBitboard[positions.size()];
+    for (int i = 0; i < bitboards.length; i++) {
+      bitboards[i] = engine.apply(positions.get(i));
+    }
+    // Every round times both ways, so that they both run compiled code; the best round counts.
+    // The moves found are counted, so that the work cannot be skipped
+    double bestBitboard = Double.MAX_VALUE;
+    double bestScan = Double.MAX_VALUE;
+    long found = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      long bitboardStart = System.nanoTime();
+      found += generate(bitboards);
+      bestBitboard = Math.min(bestBitboard, System.nanoTime() - bitboardStart);
+      long scanStart = System.nanoTime();
+      found += scan(positions);
+      bestScan = Math.min(bestScan, System.nanoTime() - scanStart);
+    }
+    double generations = 2.0 * REPEATS * positions.size();
+    System.out.println(String.format("%s, %d cells in %d longs: bitboard %.2f M generations/s, "
+        + "check of every cell %.2f M/s, speedup %.1f (%d moves found)", name,
+        start.getCellCount(), bitboards[0].getWordCount(), generations / bestBitboard * 1e3,
+        generations / bestScan * 1e3, bestScan / bestBitboard, found));
+
+    Board copy = start.cloneBoard();
+    double bestGame = Double.MAX_VALUE;
+    double bestCopy = Double.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long gameStart = System.nanoTime();
+      playouts(start);
+      bestGame = Math.min(bestGame, System.nanoTime() - gameStart);
+      long copyStart = System.nanoTime();
+      playouts(copy);
+      bestCopy = Math.min(bestCopy, System.nanoTime() - copyStart);
+    }
+    System.out.println(String.format("%s: board of a game %.0f playouts/s, copy %.0f playouts/s, "
+        + "speedup %.1f", name, PLAYOUTS / bestGame * 1e9, PLAYOUTS / bestCopy * 1e9,
+        bestGame / bestCopy));
+  }
+
+  /**
+   * Helper function to play random games to the end on a board from a fixed seed, undoing all
+   * their moves, as the playouts of a Monte Carlo search do.
+   *
+   * @param board the board
+   */
+  private static void playouts(Board board) {
+    Random random = new Random(SEED);
+    int[] moves = new int[board.getCellCount()];
+    int[][] undoRecords = new int[board.getCellCount()][];
+    for (int i = 0; i < undoRecords.length; i++) {
+      undoRecords[i] = board.newUndoRecord();
+    }
+    for (int p = 0; p < PLAYOUTS; p++) {
+      CellStatus turn = CellStatus.BLACK;
+      int made = 0;
+      while (true) {
+        CellStatus opponent = turn == CellStatus.BLACK ? CellStatus.WHITE : CellStatus.BLACK;
+        int count = board.getLegalMoves(turn, moves);
+        if (count == 0 && board.countLegalMoves(opponent) == 0) {
+          break;
+        }
+        if (count > 0) {
+          board.makeMove(moves[random.nextInt(count)], turn, undoRecords[made++]);
+        }
+        turn = opponent;
+      }
+      while (made > 0) {
+        board.undoMove(undoRecords[--made]);
+      }
+    }
+  }
+
+  /**
+   * Helper function to generate the legal moves of both colors on every bitboard.
+   *
+   * @param bitboards the bitboards
+   * @return the number of legal moves found
+   */
+  private static long generate(AbstractBitboard[] bitboards) {
+    long[] moves = new long[bitboards[0].getWordCount()];
+    long count = 0;
+    for (int r = 0; r < REPEATS; r++) {
+      for (AbstractBitboard bitboard : bitboards) {
+        for (CellStatus color : new CellStatus[] {CellStatus.BLACK, CellStatus.WHITE}) {
+          bitboard.legalMoves(color, moves);
+          for (long word : moves) {
+            count += Long.bitCount(word);
+          }
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Helper function to find the legal moves of both colors on every board by checking every cell.
+   *
+   * @param boards the boards
+   * @return the number of legal moves found
+   */
+  private static long scan(List<AbstractPolygonGameBoard> boards) {
+    long count = 0;
+    for (int r = 0; r < REPEATS; r++) {
+      for (AbstractPolygonGameBoard board : boards) {
+        for (CellStatus color : new CellStatus[] {CellStatus.BLACK, CellStatus.WHITE}) {
+          for (int i = 0; i < board.getCellCount(); i++) {
+            if (board.isLegalMove(i, color)) {
+              count++;
+            }
+          }
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Helper function to collect the positions of random games played from a fixed seed.
+   *
+   * @param start the board to play the games from
+   * @return a copy of the board after every move of every game
+   */
+  private static List<AbstractPolygonGameBoard> positions(Board start) {
+    Random random = new Random(SEED);
+    List<AbstractPolygonGameBoard> positions = new ArrayList<AbstractPolygonGameBoard>();
+    int[] moves = new int[start.getCellCount()];
+    for (int game = 0; game < GAMES; game++) {
+      Board board = start.cloneBoard();
+      CellStatus turn = CellStatus.BLACK;
+      int[] undoRecord = board.newUndoRecord();
+      while (true) {
+        CellStatus opponent = turn == CellStatus.BLACK ? CellStatus.WHITE : CellStatus.BLACK;
+        int count = board.getLegalMoves(turn, moves);
+        if (count == 0 && board.countLegalMoves(opponent) == 0) {
+          break;
+        }
+        if (count > 0) {
+          board.makeMove(moves[random.nextInt(count)], turn, undoRecord);
+          positions.add((AbstractPolygonGameBoard) board.cloneBoard());
+        }
+        turn = opponent;
+      }
+    }
+    return positions;
+  }
+}
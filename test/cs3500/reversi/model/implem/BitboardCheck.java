@@ -0,0 +1,213 @@
+package cs3500.reversi.model.implem;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.status.CellStatus;
+
+/**
+ * Checks the bitboard engines against the neighbor table of the boards, position by position,
+ * over random games on hexagon and square boards of several sizes, some of which need more than
+ * one long per color. In every position, the legal moves of both colors found by a standalone
+ * engine and by a copy of the board, which generates them with its engine, have to be the cells
+ * the board of the game finds legal; and for every legal move, the discs the copy flips, the discs
+ * the engine would flip and the discs its move flips have to be the ones the board of the game
+ * flips.
+ */
+public final class BitboardCheck {
+
+  private static final int GAMES_PER_BOARD = 10;
+  private static final long SEED = 11;
+
+  /**
+   * Plays the random games and compares the engines with the boards in every position.
+   *
+   * @param args not used
+   * @throws AssertionError if an engine differs from the board of the game
+   */
+  public static void main(String[] args) {
+    Random random = new Random(SEED);
+    int positions = 0;
+    int moves = 0;
+    for (int size = 1; size <= 6; size++) {
+      for (boolean hexagon : new boolean[] {true, false}) {
+        int[] bits = bits(gameBoard(hexagon, size));
+        for (int game = 0; game < GAMES_PER_BOARD; game++) {
+          // The board of the game and its copy play the same moves
+          AbstractPolygonGameBoard board = gameBoard(hexagon, size);
+          Board copy = board.cloneBoard();
+          int[] legal = new int[board.getCellCount()];
+          CellStatus turn = CellStatus.BLACK;
+          while (true) {
+            AbstractBitboard engine = board.toBitboard();
+            compareLegalMoves(board, copy, engine, bits);
+            moves += compareFlips(board, copy, engine, bits, turn);
+            positions++;
+            CellStatus opponent = turn == CellStatus.BLACK ? CellStatus.WHITE : CellStatus.BLACK;
+            int count = board.getLegalMoves(turn, legal);
+            if (count == 0 && board.countLegalMoves(opponent) == 0) {
+              break;
+            }
+            if (count > 0) {
+              int move = legal[random.nextInt(count)];
+              board.makeMove(move, turn, board.newUndoRecord());
+              copy.makeMove(move, turn, copy.newUndoRecord());
+            }
+            turn = opponent;
+          }
+        }
+      }
+    }
+    System.out.println("engines checked in " + positions + " positions and " + moves
+        + " moves, all match");
+  }
+
+  /**
+   * Helper function to compare the legal moves of both colors found by the engines with the cells
+   * the board of the game finds legal.
+   *
+   * @param board the board of the game
+   * @param copy the copy of the board, which generates its moves with its engine
+   * @param engine a standalone engine of the board
+   * @param bits the bit of every cell of the board, in ring order
+   * @throws AssertionError if the legal moves differ
+   */
+  private static void compareLegalMoves(AbstractPolygonGameBoard board, Board copy,
+      AbstractBitboard engine, int[] bits) {
+    int cellCount = board.getCellCount();
+    for (CellStatus color : new CellStatus[] {CellStatus.BLACK, CellStatus.WHITE}) {
+      boolean[] expected = new boolean[cellCount];
+      for (int i = 0; i < cellCount; i++) {
+        expected[i] = board.isLegalMove(i, color);
+      }
+
+      long[] legalBits = new long[engine.getWordCount()];
+      engine.legalMoves(color, legalBits);
+      boolean[] fromEngine = new boolean[cellCount];
+      for (int i = 0; i < cellCount; i++) {
+        fromEngine[i] = AbstractBitboard.testBit(legalBits, bits[i]);
+      }
+      if (!Arrays.equals(expected, fromEngine)) {
+        throw new AssertionError("the engine finds other legal moves of " + color);
+      }
+
+      int[] legal = new int[cellCount];
+      int count = copy.getLegalMoves(color, legal);
+      if (!Arrays.equals(expected, toSet(legal, 0, count, cellCount))
+          || count != copy.countLegalMoves(color)) {
+        throw new AssertionError("the copy finds other legal moves of " + color);
+      }
+    }
+  }
+
+  /**
+   * Helper function to compare, for every legal move of the given color, the discs flipped by the
+   * copy, by the engine and by the move of the engine with the discs flipped by the board of the
+   * game. Every move is undone afterwards.
+   *
+   * @param board the board of the game
+   * @param copy the copy of the board, which flips with its engine
+   * @param engine a standalone engine of the board
+   * @param bits the bit of every cell of the board, in ring order
+   * @param color the color to move
+   * @return the number of moves compared
+   * @throws AssertionError if the flipped discs differ
+   */
+  private static int compareFlips(AbstractPolygonGameBoard board, Board copy,
+      AbstractBitboard engine, int[] bits, CellStatus color) {
+    int cellCount = board.getCellCount();
+    int[] legal = new int[cellCount];
+    int count = board.getLegalMoves(color, legal);
+    for (int m = 0; m < count; m++) {
+      int move = legal[m];
+      int[] undo = board.makeMove(move, color, board.newUndoRecord());
+      boolean[] expected = toSet(undo, 2, 2 + undo[1], cellCount);
+
+      int[] copyUndo = copy.makeMove(move, color, copy.newUndoRecord());
+      if (!Arrays.equals(expected, toSet(copyUndo, 2, 2 + copyUndo[1], cellCount))) {
+        throw new AssertionError("the copy flips other discs for " + color + " at " + move);
+      }
+      copy.undoMove(copyUndo);
+
+      long[] flipBits = new long[engine.getWordCount()];
+      int flipCount = engine.flips(bits[move], color, flipBits);
+      boolean[] fromEngine = new boolean[cellCount];
+      for (int i = 0; i < cellCount; i++) {
+        fromEngine[i] = AbstractBitboard.testBit(flipBits, bits[i]);
+      }
+      if (!Arrays.equals(expected, fromEngine) || flipCount != undo[1]
+          || (engine.getWordCount() == 1 && engine.flips(bits[move], color) != flipBits[0])) {
+        throw new AssertionError("the engine flips other discs for " + color + " at " + move);
+      }
+
+      AbstractBitboard moved = engine.copy();
+      if (moved.move(bits[move], color) != undo[1]) {
+        throw new AssertionError("the move of the engine flips another number of discs");
+      }
+      for (int i = 0; i < cellCount; i++) {
+        if (moved.getCellStatus(bits[i]) != board.getCellStatus(i)) {
+          throw new AssertionError("the move of the engine leaves cell " + i + " "
+              + moved.getCellStatus(bits[i]) + " instead of " + board.getCellStatus(i));
+        }
+      }
+      board.undoMove(undo);
+    }
+    return count;
+  }
+
+  /**
+   * Helper function to get the bit of every cell of a board through its ring coordinates, which
+   * also checks that the engine translates every bit back to its coordinates.
+   *
+   * @param board the board
+   * @return the bit of every cell, in ring order
+   * @throws AssertionError if a bit is not translated back to its coordinates
+   */
+  private static int[] bits(AbstractPolygonGameBoard board) {
+    AbstractBitboard engine = board.toBitboard();
+    int[] bits = new int[board.getCellCount()];
+    int index = 0;
+    for (int coordOne = 0; coordOne < board.getCoordOneSize(); coordOne++) {
+      for (int coordTwo = 0; coordTwo < board.getCoordTwoSize(coordOne); coordTwo++) {
+        int bit = engine.getBit(coordOne, coordTwo);
+        if (engine.getCoordOne(bit) != coordOne || engine.getCoordTwo(bit) != coordTwo) {
+          throw new AssertionError("bit " + bit + " is not translated back to its coordinates");
+        }
+        bits[index++] = bit;
+      }
+    }
+    return bits;
+  }
+
+  /**
+   * Helper function to start a game, whose board finds its moves from its neighbor table.
+   *
+   * @param hexagon true for a hexagon board, false for a square board
+   * @param size the size of the square board, one less than the size of the hexagon board
+   * @return the board of the new game
+   */
+  private static AbstractPolygonGameBoard gameBoard(boolean hexagon, int size) {
+    return (AbstractPolygonGameBoard) (hexagon
+        ? new HexagonReversi(size + 1, 1, Math.PI / 2, new HumanPlayer(), new HumanPlayer())
+        : new SquareReversi(size, 1, Math.PI / 4, new HumanPlayer(), new HumanPlayer()))
+        .getBoard();
+  }
+
+  /**
+   * Helper function to turn some of the entries of an array of cell indices into a set.
+   *
+   * @param indices the array of cell indices
+   * @param from the first entry
+   * @param to the entry after the last one
+   * @param cellCount the number of cells
+   * @return true for every cell listed
+   */
+  private static boolean[] toSet(int[] indices, int from, int to, int cellCount) {
+    boolean[] set = new boolean[cellCount];
+    for (int k = from; k < to; k++) {
+      set[indices[k]] = true;
+    }
+    return set;
+  }
+}
@@ -0,0 +1,140 @@
+package cs3500.reversi.model.implem;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.interf.Player;
+import cs3500.reversi.model.interf.ReversiModel;
+import cs3500.reversi.model.status.CellStatus;
+import cs3500.reversi.model.status.GameStatus;
+
+/**
+ * Checks the game-over state a model works out once per position against a full count of the
+ * legal moves of both sides, found by checking every cell, over random games on hexagon and square
+ * boards of several sizes. The games are played through the model, by a player that sometimes
+ * waits for input, after which the game either goes on or the side to move passes. Whenever the
+ * model asks for a move or waits, the game is not over and someone can move; once the game is
+ * over, no one can, and the game state holds the winner by the count of the discs.
+ */
+public final class GameOverCheck {
+
+  private static final int GAMES_PER_BOARD = 20;
+  private static final long SEED = 13;
+
+  /**
+   * Plays the random games and compares the game-over state with the full count at every step.
+   *
+   * @param args not used
+   * @throws AssertionError if the game-over state differs from the full count
+   */
+  public static void main(String[] args) {
+    Random random = new Random(SEED);
+    int[] checks = new int[1];
+    int passes = 0;
+    for (int size = 1; size <= 6; size++) {
+      for (boolean hexagon : new boolean[] {true, false}) {
+        for (int game = 0; game < GAMES_PER_BOARD; game++) {
+          ReversiModel[] model = new ReversiModel[1];
+          Player player = (board, state) -> {
+            check(model[0]);
+            checks[0]++;
+            if (random.nextInt(8) == 0) {
+              return null;
+            }
+            int[] legal = legalMoves(board, state == GameStatus.BTURN ? CellStatus.BLACK
+                : CellStatus.WHITE);
+            if (legal.length == 0) {
+              throw new AssertionError("the model asks for a move of a side that cannot move");
+            }
+            return board.getCellAt(legal[random.nextInt(legal.length)]);
+          };
+          model[0] = hexagon
+              ? new HexagonReversi(size + 1, 1, Math.PI / 2, player, player)
+              : new SquareReversi(size, 1, Math.PI / 4, player, player);
+          model[0].update();
+          while (!model[0].isGameOver()) {
+            // The player waited for input, so the game goes on or the side to move passes
+            check(model[0]);
+            checks[0]++;
+            if (random.nextInt(4) == 0) {
+              model[0].pass();
+              passes++;
+            } else {
+              model[0].update();
+            }
+          }
+          checkOver(model[0]);
+          checks[0]++;
+        }
+      }
+    }
+    System.out.println("game-over state checked " + checks[0] + " times with " + passes
+        + " passes, all match");
+  }
+
+  /**
+   * Helper function to check a game that is not over: the model says so, its turn state is one of
+   * a side to move, and one side or the other can still move.
+   *
+   * @param model the model of the game
+   * @throws AssertionError if the model says the game is over, or no side can move
+   */
+  private static void check(ReversiModel model) {
+    GameStatus state = model.getGameState();
+    if (model.isGameOver() || (state != GameStatus.BTURN && state != GameStatus.WTURN)) {
+      throw new AssertionError("the game is over while it is " + state);
+    }
+    Board board = model.getBoard();
+    if (legalMoves(board, CellStatus.BLACK).length == 0
+        && legalMoves(board, CellStatus.WHITE).length == 0) {
+      throw new AssertionError("the game is not over, but no side can move");
+    }
+  }
+
+  /**
+   * Helper function to check a game that is over: no side can move, and the game state holds the
+   * winner by the count of the discs.
+   *
+   * @param model the model of the game
+   * @throws AssertionError if a side can still move, or the game state is not the winner
+   */
+  private static void checkOver(ReversiModel model) {
+    Board board = model.getBoard();
+    if (legalMoves(board, CellStatus.BLACK).length != 0
+        || legalMoves(board, CellStatus.WHITE).length != 0) {
+      throw new AssertionError("the game is over, but a side can still move");
+    }
+    int black = 0;
+    int white = 0;
+    for (int i = 0; i < board.getCellCount(); i++) {
+      CellStatus status = board.getCellStatus(i);
+      black += status == CellStatus.BLACK ? 1 : 0;
+      white += status == CellStatus.WHITE ? 1 : 0;
+    }
+    GameStatus winner = black > white ? GameStatus.BWINS
+        : black < white ? GameStatus.WWINS : GameStatus.DRAW;
+    if (model.getGameState() != winner) {
+      throw new AssertionError("the game is over as " + model.getGameState() + " instead of "
+          + winner);
+    }
+  }
+
+  /**
+   * Helper function to find the legal moves of a color by checking every cell of the board.
+   *
+   * @param board the board
+   * @param color the color to move
+   * @return the indices of the legal moves
+   */
+  private static int[] legalMoves(Board board, CellStatus color) {
+    int[] legal = new int[board.getCellCount()];
+    int count = 0;
+    for (int i = 0; i < board.getCellCount(); i++) {
+      if (board.isLegalMove(i, color)) {
+        legal[count++] = i;
+      }
+    }
+    return Arrays.copyOf(legal, count);
+  }
+}
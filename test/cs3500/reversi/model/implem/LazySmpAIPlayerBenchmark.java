@@ -0,0 +1,91 @@
+package cs3500.reversi.model.implem;
+
+import java.util.Random;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.interf.Cell;
+import cs3500.reversi.model.interf.Player;
+import cs3500.reversi.model.interf.ReversiModel;
+import cs3500.reversi.model.status.CellStatus;
+import cs3500.reversi.model.status.GameStatus;
+
+/**
+ * Measures how many nodes per second the LazySmpAIPlayer searches with 1 thread and with more, on
+ * a large square board in the middle of a game. The helper threads only add nodes if there are
+ * cores to run them on, so on a single core every count of threads searches about as fast.
+ */
+public final class LazySmpAIPlayerBenchmark {
+
+  private static final int SIZE = 8;
+  private static final int RANDOM_PLIES = 20;
+  private static final int ROUNDS = 3;
+  private static final long MOVE_MILLIS = 1000;
+
+  /**
+   * Times the moves of the player with every number of threads from 1 to the given one.
+   *
+   * @param args the largest number of threads, every core if none is given
+   */
+  public static void main(String[] args) {
+    ReversiModel model = midgame();
+    Board board = model.getBoard();
+    GameStatus state = model.getGameState();
+    int cores = Runtime.getRuntime().availableProcessors();
+    System.out.println("board " + board.getCellCount() + " cells, "
+        + board.countLegalMoves(state == GameStatus.BTURN ? CellStatus.BLACK : CellStatus.WHITE)
+        + " legal moves, " + cores + " cores");
+
+    int maxThreads = args.length == 0 ? cores : Integer.parseInt(args[0]);
+    // Every round times every number of threads, so that they all run compiled code; the best
+    // round counts
+    double[] best = new double[maxThreads];
+    for (int round = 0; round < ROUNDS; round++) {
+      for (int threads = 1; threads <= maxThreads; threads++) {
+        best[threads - 1] = Math.max(best[threads - 1], nodesPerSecond(threads, board, state));
+      }
+    }
+    for (int threads = 1; threads <= maxThreads; threads++) {
+      System.out.println(String.format("%d threads: %.0f knodes/s, speedup %.2f", threads,
+          best[threads - 1] / 1e3, best[threads - 1] / best[0]));
+    }
+  }
+
+  /**
+   * Helper function to time one move of a new player, whose transposition table is empty, so
+   * that every round searches the same way.
+   *
+   * @param threads the number of threads of the player
+   * @param board the board
+   * @param state the state of the game
+   * @return the nodes searched per second by all the threads
+   */
+  private static double nodesPerSecond(int threads, Board board, GameStatus state) {
+    try (LazySmpAIPlayer player = new LazySmpAIPlayer(4, 1, 1, 1, 1, MOVE_MILLIS, threads)) {
+      long start = System.nanoTime();
+      player.move(board, state);
+      return player.getLastNodeCount() / ((System.nanoTime() - start) / 1e9);
+    }
+  }
+
+  /**
+   * Helper function to reach the middle of a game by random moves from a fixed seed.
+   *
+   * @return the game, waiting for the move of the side to move
+   */
+  private static ReversiModel midgame() {
+    Random random = new Random(1);
+    int[] plies = new int[1];
+    Player randomPlayer = (board, state) -> {
+      if (plies[0]++ >= RANDOM_PLIES) {
+        return null;
+      }
+      int[] moves = new int[board.getCellCount()];
+      int count = board.getLegalMoves(
+          state == GameStatus.BTURN ? CellStatus.BLACK : CellStatus.WHITE, moves);
+      return count == 0 ? null : board.getCellAt(moves[random.nextInt(count)]);
+    };
+    ReversiModel model = new SquareReversi(SIZE, 1, Math.PI / 4, randomPlayer, randomPlayer);
+    model.update();
+    return model;
+  }
+}
@@ -0,0 +1,117 @@
+package cs3500.reversi.model.implem;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.status.CellStatus;
+
+/**
+ * Checks that the legal moves a board keeps up to date with its LegalMoveTracker are the legal
+ * moves found by checking every cell again, over random games of moves and undos on hexagon and
+ * square boards of several sizes. The games are played on the boards of games, which keep the
+ * tracker, and on their copies, which generate their legal moves with their bitboard engine.
+ */
+public final class LegalMoveTrackerCheck {
+
+  private static final int GAMES_PER_BOARD = 20;
+  private static final int MAX_STEPS = 300;
+  private static final long SEED = 5;
+
+  /**
+   * Plays the random games and compares the legal moves after every step.
+   *
+   * @param args not used
+   * @throws AssertionError if the tracked legal moves differ from the legal moves found again
+   */
+  public static void main(String[] args) {
+    Random random = new Random(SEED);
+    int checks = 0;
+    for (int size = 1; size <= 6; size++) {
+      Board[] boards = {
+          new HexagonReversi(size + 1, 1, Math.PI / 2, new HumanPlayer(), new HumanPlayer())
+              .getBoard(),
+          new SquareReversi(size, 1, Math.PI / 4, new HumanPlayer(), new HumanPlayer())
+              .getBoard()};
+      for (Board start : boards) {
+        for (int game = 0; game < GAMES_PER_BOARD; game++) {
+          // Every game undoes its moves, so the board of the game is played again from the start
+          checks += play(game % 2 == 0 ? start.cloneBoard() : start, random);
+        }
+      }
+    }
+    System.out.println("legal moves checked " + checks + " times, all match");
+  }
+
+  /**
+   * Helper function to play random moves and undos on a board, comparing the legal moves of both
+   * colors after every step, and to undo every move at the end.
+   *
+   * @param board the board
+   * @param random the source of the moves
+   * @return the number of comparisons
+   * @throws AssertionError if the tracked legal moves differ from the legal moves found again
+   */
+  private static int play(Board board, Random random) {
+    Deque<int[]> undos = new ArrayDeque<int[]>();
+    int[] moves = new int[board.getCellCount()];
+    CellStatus turn = CellStatus.BLACK;
+    int checks = 0;
+    for (int step = 0; step < MAX_STEPS; step++) {
+      compare(board);
+      checks++;
+      CellStatus opponent = turn == CellStatus.BLACK ? CellStatus.WHITE : CellStatus.BLACK;
+      if (!undos.isEmpty() && random.nextInt(5) == 0) {
+        board.undoMove(undos.pop());
+      } else {
+        int count = board.getLegalMoves(turn, moves);
+        if (count == 0 && board.countLegalMoves(opponent) == 0) {
+          break;
+        }
+        if (count > 0) {
+          undos.push(board.makeMove(moves[random.nextInt(count)], turn, board.newUndoRecord()));
+        }
+      }
+      turn = opponent;
+    }
+    while (!undos.isEmpty()) {
+      board.undoMove(undos.pop());
+      compare(board);
+      checks++;
+    }
+    return checks;
+  }
+
+  /**
+   * Helper function to compare the tracked legal moves of both colors with the legal moves found
+   * by checking every cell.
+   *
+   * @param board the board
+   * @throws AssertionError if they differ
+   */
+  private static void compare(Board board) {
+    int cellCount = board.getCellCount();
+    for (CellStatus color : new CellStatus[] {CellStatus.BLACK, CellStatus.WHITE}) {
+      int[] tracked = new int[cellCount];
+      int count = board.getLegalMoves(color, tracked);
+      boolean[] isTracked = new boolean[cellCount];
+      for (int k = 0; k < count; k++) {
+        if (isTracked[tracked[k]]) {
+          throw new AssertionError("cell " + tracked[k] + " is tracked twice for " + color);
+        }
+        isTracked[tracked[k]] = true;
+      }
+      if (count != board.countLegalMoves(color)) {
+        throw new AssertionError("the count of the legal moves of " + color + " is wrong");
+      }
+      for (int i = 0; i < cellCount; i++) {
+        if (isTracked[i] != board.isLegalMove(i, color)) {
+          throw new AssertionError("cell " + i + " is " + (isTracked[i] ? "" : "not ")
+              + "tracked as a legal move of " + color + " but it is "
+              + (isTracked[i] ? "not " : "") + "one");
+        }
+      }
+    }
+  }
+}
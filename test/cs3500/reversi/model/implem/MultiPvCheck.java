@@ -0,0 +1,246 @@
+package cs3500.reversi.model.implem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.status.CellStatus;
+
+/**
+ * Checks the scores of AlphaBetaSearcher against a plain negamax, which searches every move with
+ * the full window and no transposition table, over positions of random games on hexagon and square
+ * boards. Every iteration analyze hands to its listener has to rank the moves best first with
+ * their exact scores, which are the ones the searchRootMultiPv of that depth found; and the score
+ * of the best move found by findBestMove has to be the best exact score. Positions where a move
+ * leaves the opponent without a legal move are kept, so that the score of a pass is checked too.
+ */
+public final class MultiPvCheck {
+
+  private static final int POSITIONS_PER_BOARD = 100;
+  private static final int MAX_DEPTH = 5;
+  private static final int MAX_RANKED = 4;
+  private static final long SEED = 17;
+
+  /**
+   * Searches the random positions and compares the scores with the plain negamax.
+   *
+   * @param args not used
+   * @throws AssertionError if a score of the searcher differs from the plain negamax
+   */
+  public static void main(String[] args) {
+    Random random = new Random(SEED);
+    int iterations = 0;
+    int passes = 0;
+    for (int size = 2; size <= 4; size++) {
+      for (boolean hexagon : new boolean[] {true, false}) {
+        Board start = hexagon
+            ? new HexagonReversi(size + 1, 1, Math.PI / 2, new HumanPlayer(), new HumanPlayer())
+                .getBoard()
+            : new SquareReversi(size, 1, Math.PI / 4, new HumanPlayer(), new HumanPlayer())
+                .getBoard();
+        Evaluator evaluator = new WeightedEvaluator(start, hexagon ? 6 : 4, 5, 3, 1, 1);
+        for (int p = 0; p < POSITIONS_PER_BOARD; p++) {
+          Board board = start.cloneBoard();
+          CellStatus toMove = playRandomly(board, random);
+          if (toMove == null) {
+            continue;
+          }
+          int depth = 1 + random.nextInt(MAX_DEPTH);
+          int ranked = 1 + random.nextInt(MAX_RANKED);
+          iterations += compare(board, toMove, evaluator, depth, ranked);
+          passes += countPasses(board, toMove);
+        }
+      }
+    }
+    System.out.println("scores checked in " + iterations + " iterations, " + passes
+        + " moves leading to a pass, all match");
+  }
+
+  /**
+   * Helper function to compare the iterations of analyze and the score of findBestMove with the
+   * plain negamax.
+   *
+   * @param board the board
+   * @param toMove the color to move, which has a legal move
+   * @param evaluator the evaluator of the leaves
+   * @param depth the depth to search
+   * @param ranked the number of moves to rank
+   * @return the number of iterations compared
+   * @throws AssertionError if a score differs
+   */
+  private static int compare(Board board, CellStatus toMove, Evaluator evaluator, int depth,
+      int ranked) {
+    List<MoveAnalysis> analyses = new ArrayList<MoveAnalysis>();
+    new AlphaBetaSearcher(board.cloneBoard(), evaluator, new TranspositionTable(1 << 20))
+        .analyze(toMove, Long.MAX_VALUE, depth, ranked, board, analyses::add);
+    int[] moves = new int[board.getCellCount()];
+    int count = board.getLegalMoves(toMove, moves);
+    for (MoveAnalysis analysis : analyses) {
+      int iterationDepth = analysis.getDepth();
+      int[] exact = new int[count];
+      for (int i = 0; i < count; i++) {
+        exact[i] = rootScore(board, moves[i], toMove, evaluator, iterationDepth);
+      }
+      int[] sorted = exact.clone();
+      Arrays.sort(sorted);
+      if (analysis.getMoveCount() != Math.min(ranked, count)) {
+        throw new AssertionError("analyze ranks " + analysis.getMoveCount() + " moves instead of "
+            + Math.min(ranked, count));
+      }
+      for (int rank = 0; rank < analysis.getMoveCount(); rank++) {
+        int move = board.getCellIndex(analysis.getMove(rank));
+        int score = analysis.getScore(rank);
+        if (score != sorted[count - 1 - rank] || score != exact[indexOf(moves, count, move)]) {
+          throw new AssertionError("at depth " + iterationDepth + ", rank " + rank + " scores "
+              + score + " where the plain negamax ranks " + Arrays.toString(sorted));
+        }
+      }
+    }
+
+    AlphaBetaSearcher searcher = new AlphaBetaSearcher(board.cloneBoard(), evaluator,
+        new TranspositionTable(1 << 20));
+    int bestMove = searcher.findBestMove(toMove, Long.MAX_VALUE, depth);
+    int bestExact = rootScore(board, bestMove, toMove, evaluator, searcher.getCompletedDepth());
+    int best = Integer.MIN_VALUE;
+    for (int i = 0; i < count; i++) {
+      best = Math.max(best, rootScore(board, moves[i], toMove, evaluator,
+          searcher.getCompletedDepth()));
+    }
+    if (searcher.getBestScore() != best || bestExact != best) {
+      throw new AssertionError("findBestMove scores " + searcher.getBestScore() + " with a move "
+          + "worth " + bestExact + " where the best move is worth " + best);
+    }
+    return analyses.size();
+  }
+
+  /**
+   * Helper function to score a move of the root by the plain negamax.
+   *
+   * @param board the board, left as it was found
+   * @param move the move
+   * @param toMove the color to move
+   * @param evaluator the evaluator of the leaves
+   * @param depth the depth of the search of the root
+   * @return the score of the move for the side to move
+   */
+  private static int rootScore(Board board, int move, CellStatus toMove, Evaluator evaluator,
+      int depth) {
+    int[] undoRecord = board.makeMove(move, toMove, board.newUndoRecord());
+    int score = -negamax(board, depth - 1, opposite(toMove), evaluator);
+    board.undoMove(undoRecord);
+    return score;
+  }
+
+  /**
+   * Helper function to score a position by negamax with no pruning, passing by a ply of its own
+   * when the side to move is stuck, and scoring a finished game above any evaluation by its disc
+   * difference.
+   *
+   * @param board the board, left as it was found
+   * @param depth the remaining depth
+   * @param toMove the color to move
+   * @param evaluator the evaluator of the leaves
+   * @return the score of the position for the side to move
+   */
+  private static int negamax(Board board, int depth, CellStatus toMove, Evaluator evaluator) {
+    CellStatus opponent = opposite(toMove);
+    int[] moves = new int[board.getCellCount()];
+    int count = board.getLegalMoves(toMove, moves);
+    if (count == 0 && board.countLegalMoves(opponent) == 0) {
+      int difference = board.countCells(toMove) - board.countCells(opponent);
+      return difference > 0 ? AlphaBetaSearcher.WIN_SCORE + difference
+          : difference < 0 ? -AlphaBetaSearcher.WIN_SCORE + difference : 0;
+    }
+    if (depth == 0) {
+      return evaluator.evaluate(board, toMove);
+    }
+    if (count == 0) {
+      return -negamax(board, depth - 1, opponent, evaluator);
+    }
+    int best = -AlphaBetaSearcher.INFINITY;
+    for (int i = 0; i < count; i++) {
+      int[] undoRecord = board.makeMove(moves[i], toMove, board.newUndoRecord());
+      best = Math.max(best, -negamax(board, depth - 1, opponent, evaluator));
+      board.undoMove(undoRecord);
+    }
+    return best;
+  }
+
+  /**
+   * Helper function to play random moves on a board, to a random point of the game, and find the
+   * color to move there.
+   *
+   * @param board the board
+   * @param random the source of the moves
+   * @return the color to move, which has a legal move, or null if the game ended
+   */
+  private static CellStatus playRandomly(Board board, Random random) {
+    int[] moves = new int[board.getCellCount()];
+    int plies = random.nextInt(board.countCells(CellStatus.EMPTY));
+    CellStatus toMove = CellStatus.BLACK;
+    for (int ply = 0; ply < plies; ply++) {
+      int count = board.getLegalMoves(toMove, moves);
+      if (count > 0) {
+        board.makeMove(moves[random.nextInt(count)], toMove, board.newUndoRecord());
+      } else if (board.countLegalMoves(opposite(toMove)) == 0) {
+        return null;
+      }
+      toMove = opposite(toMove);
+    }
+    if (board.countLegalMoves(toMove) == 0) {
+      toMove = opposite(toMove);
+    }
+    return board.countLegalMoves(toMove) == 0 ? null : toMove;
+  }
+
+  /**
+   * Helper function to count the moves of the side to move after which the opponent has to pass.
+   *
+   * @param board the board, left as it was found
+   * @param toMove the color to move
+   * @return the number of moves leading to a pass
+   */
+  private static int countPasses(Board board, CellStatus toMove) {
+    int[] moves = new int[board.getCellCount()];
+    int count = board.getLegalMoves(toMove, moves);
+    int passes = 0;
+    for (int i = 0; i < count; i++) {
+      int[] undoRecord = board.makeMove(moves[i], toMove, board.newUndoRecord());
+      if (board.countLegalMoves(opposite(toMove)) == 0 && board.countLegalMoves(toMove) > 0) {
+        passes++;
+      }
+      board.undoMove(undoRecord);
+    }
+    return passes;
+  }
+
+  /**
+   * Helper function to find a move in a list of moves.
+   *
+   * @param moves the moves
+   * @param count the number of moves
+   * @param move the move to find
+   * @return the position of the move in the list
+   * @throws AssertionError if the move is not in the list
+   */
+  private static int indexOf(int[] moves, int count, int move) {
+    for (int i = 0; i < count; i++) {
+      if (moves[i] == move) {
+        return i;
+      }
+    }
+    throw new AssertionError("cell " + move + " is not a legal move");
+  }
+
+  /**
+   * Helper function to get the other color.
+   *
+   * @param color a color of a disc
+   * @return the other color
+   */
+  private static CellStatus opposite(CellStatus color) {
+    return color == CellStatus.BLACK ? CellStatus.WHITE : CellStatus.BLACK;
+  }
+}
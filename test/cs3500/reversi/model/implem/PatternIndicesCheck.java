@@ -0,0 +1,107 @@
+package cs3500.reversi.model.implem;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+
+import cs3500.reversi.model.interf.Board;
+import cs3500.reversi.model.status.CellStatus;
+
+/**
+ * Checks that the pattern indices a board keeps up to date as its cells change are the indices
+ * PatternLayout.computeIndices reads from the cells again, over random games of moves and undos
+ * on hexagon and square boards of several sizes, on the boards of games and on their copies.
+ */
+public final class PatternIndicesCheck {
+
+  private static final int GAMES_PER_BOARD = 20;
+  private static final int MAX_STEPS = 300;
+  private static final long SEED = 7;
+
+  /**
+   * Plays the random games and compares the pattern indices after every step.
+   *
+   * @param args not used
+   * @throws AssertionError if the kept indices differ from the indices read again
+   */
+  public static void main(String[] args) {
+    Random random = new Random(SEED);
+    int checks = 0;
+    for (int size = 1; size <= 6; size++) {
+      Board[] boards = {
+          new HexagonReversi(size + 1, 1, Math.PI / 2, new HumanPlayer(), new HumanPlayer())
+              .getBoard(),
+          new SquareReversi(size, 1, Math.PI / 4, new HumanPlayer(), new HumanPlayer())
+              .getBoard()};
+      for (Board start : boards) {
+        PatternLayout layout = new PatternLayout(start);
+        for (int game = 0; game < GAMES_PER_BOARD; game++) {
+          // Every game undoes its moves, so the board of the game is played again from the start
+          AbstractPolygonGameBoard board = (AbstractPolygonGameBoard)
+              (game % 2 == 0 ? start.cloneBoard() : start);
+          checks += play(board, layout, random);
+        }
+      }
+    }
+    System.out.println("pattern indices checked " + checks + " times, all match");
+  }
+
+  /**
+   * Helper function to play random moves and undos on a board, comparing the pattern indices after
+   * every step, and to undo every move at the end.
+   *
+   * @param board the board
+   * @param layout the layout of the patterns, built for the board
+   * @param random the source of the moves
+   * @return the number of comparisons
+   * @throws AssertionError if the kept indices differ from the indices read again
+   */
+  private static int play(AbstractPolygonGameBoard board, PatternLayout layout, Random random) {
+    Deque<int[]> undos = new ArrayDeque<int[]>();
+    int[] moves = new int[board.getCellCount()];
+    CellStatus turn = CellStatus.BLACK;
+    int checks = 0;
+    for (int step = 0; step < MAX_STEPS; step++) {
+      compare(board, layout);
+      checks++;
+      CellStatus opponent = turn == CellStatus.BLACK ? CellStatus.WHITE : CellStatus.BLACK;
+      if (!undos.isEmpty() && random.nextInt(5) == 0) {
+        board.undoMove(undos.pop());
+      } else {
+        int count = board.getLegalMoves(turn, moves);
+        if (count == 0 && board.countLegalMoves(opponent) == 0) {
+          break;
+        }
+        if (count > 0) {
+          undos.push(board.makeMove(moves[random.nextInt(count)], turn, board.newUndoRecord()));
+        }
+      }
+      turn = opponent;
+    }
+    while (!undos.isEmpty()) {
+      board.undoMove(undos.pop());
+      compare(board, layout);
+      checks++;
+    }
+    return checks;
+  }
+
+  /**
+   * Helper function to compare the pattern indices kept by the board with the indices read from
+   * its cells.
+   *
+   * @param board the board
+   * @param layout the layout of the patterns
+   * @throws AssertionError if they differ
+   */
+  private static void compare(AbstractPolygonGameBoard board, PatternLayout layout) {
+    int[] kept = board.getPatternIndices(layout);
+    int[] read = new int[layout.patternCount()];
+    layout.computeIndices(board, read);
+    if (!Arrays.equals(kept, read)) {
+      throw new AssertionError("the pattern indices kept " + Arrays.toString(kept)
+          + " differ from the indices read " + Arrays.toString(read));
+    }
+  }
+}